@@ -2,7 +2,11 @@ package it.unisa.studenti.citro.tiziano;
 
 import it.unisa.studenti.citro.tiziano.listener.MessageListenerImpl;
 import it.unisa.studenti.citro.tiziano.sudoku.SudokuGameImpl;
+import it.unisa.studenti.citro.tiziano.sudoku.config.GameConfig;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Progress;
 import it.unisa.studenti.citro.tiziano.sudoku.printer.SudokuPrettyPrinter;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
 import org.beryx.textio.TextIO;
 import org.beryx.textio.TextIoFactory;
 import org.beryx.textio.TextTerminal;
@@ -12,6 +16,8 @@ import org.kohsuke.args4j.Option;
 
 import java.util.List;
 
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku.DEFAULT_DIFFICULTY;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku.DEFAULT_GRID_SIZE;
 import static it.unisa.studenti.citro.tiziano.sudoku.utils.SudokuUtils.ERROR_WHILE_PLACING_NUMBER;
 import static it.unisa.studenti.citro.tiziano.sudoku.utils.Scores.*;
 import static it.unisa.studenti.citro.tiziano.utils.Choices.CANCEL;
@@ -32,7 +38,8 @@ public class Game {
             parser.parseArgument(args);
             TextIO textIO = TextIoFactory.getTextIO();
             TextTerminal<?> terminal = textIO.getTextTerminal();
-            SudokuGameImpl peer = new SudokuGameImpl(id, master, new MessageListenerImpl(id));
+            GameConfig config = GameConfig.builder().storageDirectory(storage).build();
+            SudokuGameImpl peer = new SudokuGameImpl(id, master, new MessageListenerImpl(id), config);
             terminal.printf("Starting peer with id %d on %s\n", id, master);
             while (true) {
                 int option = readOption(textIO, terminal);
@@ -53,9 +60,12 @@ public class Game {
                         placeNumber(peer, terminal, textIO);
                         break;
                     case 6:
-                        leave(peer, terminal, textIO);
+                        progress(peer, terminal, textIO);
                         break;
                     case 7:
+                        leave(peer, terminal, textIO);
+                        break;
+                    case 8:
                         exit(peer, terminal, textIO);
                         break;
                     default: break;
@@ -76,7 +86,13 @@ public class Game {
         String name = textIO.newStringInputReader()
                 .withDefaultValue("default-sudoku")
                 .read("\nEnter a name for the game");
-        Integer[][] cells = peer.generateNewSudoku(name);
+        Difficulty difficulty = textIO.newEnumInputReader(Difficulty.class)
+                .withDefaultValue(DEFAULT_DIFFICULTY)
+                .read("\nChoose a difficulty for the game");
+        GridSize gridSize = textIO.newEnumInputReader(GridSize.class)
+                .withDefaultValue(DEFAULT_GRID_SIZE)
+                .read("\nChoose a grid size for the game");
+        Integer[][] cells = peer.generateNewSudoku(name, difficulty, gridSize);
         if (cells == null) {
             terminal.printf("\nCannot create game with name %s, it may already exist.\n", name);
             return;
@@ -151,12 +167,18 @@ public class Game {
     private static void placeNumber(SudokuGameImpl peer, TextTerminal<?> terminal, TextIO textIO) {
         String name = textIO.newStringInputReader().withDefaultValue("default-sudoku")
                 .read("\nName of the game where to put number");
-        int number = textIO.newIntInputReader().withMinVal(1).withMaxVal(9)
-                .read("\nNumber you want to place (1-9):");
-        int row = textIO.newIntInputReader().withMinVal(1).withMaxVal(9)
-                .read("\nRow where you want to place the number (1-9):");
-        int column = textIO.newIntInputReader().withMinVal(1).withMaxVal(9)
-                .read("\nColumn where you want to place the number (1-9):");
+        Integer[][] cells = peer.getSudoku(name);
+        if (cells == null) {
+            terminal.printf("\nCannot retrieve game with name %s.\n", name);
+            return;
+        }
+        int max = cells.length;
+        int number = textIO.newIntInputReader().withMinVal(1).withMaxVal(max)
+                .read(String.format("\nNumber you want to place (1-%d):", max));
+        int row = textIO.newIntInputReader().withMinVal(1).withMaxVal(max)
+                .read(String.format("\nRow where you want to place the number (1-%d):", max));
+        int column = textIO.newIntInputReader().withMinVal(1).withMaxVal(max)
+                .read(String.format("\nColumn where you want to place the number (1-%d):", max));
         Integer score = peer.placeNumber(name, row, column, number);
         if (score == ERROR_WHILE_PLACING_NUMBER) {
             terminal.printf("\nCannot place number on game %s.\n", name);
@@ -174,6 +196,28 @@ public class Game {
         SudokuPrettyPrinter.printOnTerminal(peer.getSudoku(name), terminal);
     }
 
+    /**
+     * Shows the progress of a joined game.
+     * @param peer si the user playing the game
+     * @param textIO is the stream where to read.
+     * @param terminal is the terminal where to write.
+     */
+    private static void progress(SudokuGameImpl peer, TextTerminal<?> terminal, TextIO textIO) {
+        String name = textIO.newStringInputReader()
+                .withDefaultValue("default-sudoku")
+                .read("\nName of the game you want to see the progress of");
+        Progress progress = peer.getProgress(name);
+        if (progress == null) {
+            terminal.printf("\nCannot get the progress of game with name %s. You may have not joined it.\n", name);
+            return;
+        }
+        terminal.printf("\nGame %s is %.1f%% complete, %d cells left.\n", name,
+                progress.getPercentage(), progress.getEmptyCells());
+        for (int number = 1; number <= progress.getGridSize(); number++) {
+            terminal.printf("- %d: %d left\n", number, progress.getRemaining(number));
+        }
+    }
+
     /**
      * Leaves a game.
      * @param peer si the user playing the game
@@ -243,6 +287,7 @@ public class Game {
         terminal.printf("%d - See joined games\n", JOINED.getOption());
         terminal.printf("%d - Get the game grid\n", GET_GAME.getOption());
         terminal.printf("%d - Place a number\n", PLACE_NUMBER.getOption());
+        terminal.printf("%d - See game progress\n", PROGRESS.getOption());
         terminal.printf("%d - Leave game\n", LEAVE.getOption());
         terminal.printf("%d - Exit\n", EXIT.getOption());
     }
@@ -258,4 +303,10 @@ public class Game {
      */
     @Option(name = "-id", aliases = "--peerIdentifier", usage = "the unique identifier for the peer", required = true)
     private static int id;
+
+    /**
+     * The directory where the peer logs the data it stores, so that it keeps it when restarted.
+     */
+    @Option(name = "-s", aliases = "--storageDirectory", usage = "the directory where the peer logs the data it stores")
+    private static String storage;
 }
@@ -7,7 +7,7 @@ public interface MessageListener {
 
 	/**
 	 * Parse a received message.
-	 * @param obj is the message.
+	 * @param obj is the message, an event for the messages about games.
 	 * @return the exit status.
 	 */
 	Object parseMessage(Object obj);
@@ -0,0 +1,123 @@
+package it.unisa.studenti.citro.tiziano.sudoku;
+
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Copyright 2017 Universita' degli Studi di Salerno.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * The same P2P Sudoku challenge games of SudokuGame, where every operation that goes through the network
+ * returns at once with a future, completed when the operation is done, without blocking any thread while waiting.
+ * Futures complete with the same values SudokuGame returns, including those for errors.
+ * Operations that only read what the peer knows already, such as the joined games, are provided by SudokuGame only.
+ */
+public interface AsyncSudokuGame {
+
+	/**
+	 * Creates a new sudoku game.
+	 * @param _game_name a String, the sudoku game name.
+	 * @return a future for the bidimensional array containing the grid field of the sudoku game created.
+	 */
+	CompletableFuture<Integer[][]> generateNewSudokuAsync(String _game_name);
+
+	/**
+	 * Creates a new sudoku game with a given difficulty, whose grid has only one solution.
+	 * @param _game_name a String, the sudoku game name.
+	 * @param _difficulty the difficulty for the game.
+	 * @return a future for the bidimensional array containing the grid field of the sudoku game created.
+	 */
+	CompletableFuture<Integer[][]> generateNewSudokuAsync(String _game_name, Difficulty _difficulty);
+
+	/**
+	 * Creates a new sudoku game with a given difficulty and a given grid size.
+	 * @param _game_name a String, the sudoku game name.
+	 * @param _difficulty the difficulty for the game.
+	 * @param _grid_size the size of the grid for the game.
+	 * @return a future for the bidimensional array containing the grid field of the sudoku game created.
+	 */
+	CompletableFuture<Integer[][]> generateNewSudokuAsync(String _game_name, Difficulty _difficulty, GridSize _grid_size);
+
+	/**
+	 * Creates many new sudoku games at once.
+	 * @param _games_names the sudoku games names.
+	 * @return a future for the grid field of each sudoku game, by name, null if the game could not be created.
+	 */
+	CompletableFuture<Map<String, Integer[][]>> generateNewSudokusAsync(List<String> _games_names);
+
+	/**
+	 * Creates many new sudoku games at once with a given difficulty.
+	 * @param _games_names the sudoku games names.
+	 * @param _difficulty the difficulty for the games.
+	 * @return a future for the grid field of each sudoku game, by name, null if the game could not be created.
+	 */
+	CompletableFuture<Map<String, Integer[][]>> generateNewSudokusAsync(List<String> _games_names, Difficulty _difficulty);
+
+	/**
+	 * Joins in a game.
+	 * @param _game_name a String, the sudoku game name.
+	 * @param _nickname a String, the name of the user.
+	 * @return a future for true if the join is successful, false otherwise.
+	 */
+	CompletableFuture<Boolean> joinAsync(String _game_name, String _nickname);
+
+	/**
+	 * Gets the Sudoku matrix game, with only the number placed by the user.
+	 * @param _game_name a String, the sudoku game name.
+	 * @return a future for the integer matrix of the sudoku game.
+	 */
+	CompletableFuture<Integer[][]> getSudokuAsync(String _game_name);
+
+	/**
+	 * Gets the scores of the players of a game.
+	 * @param _game_name a String, the sudoku game name.
+	 * @return a future for the scores of the players, by nickname, in the order they have joined the game,
+	 * null if none found.
+	 */
+	CompletableFuture<Map<String, Integer>> getScoresAsync(String _game_name);
+
+	/**
+	 * Places a new solution number in the game.
+	 * @param _game_name a String, the sudoku game name.
+	 * @param _i the position on the row.
+	 * @param _j the position on the column.
+	 * @param _number the solution number.
+	 * @return a future for the integer score of the placed number.
+	 */
+	CompletableFuture<Integer> placeNumberAsync(String _game_name, int _i, int _j, int _number);
+
+	/**
+	 * Places a new solution number in the game, choosing whether to wait for the other players to be notified.
+	 * @param _game_name a String, the sudoku game name.
+	 * @param _i the position on the row.
+	 * @param _j the position on the column.
+	 * @param _number the solution number.
+	 * @param _await_delivery whether the future is completed only once the players have been notified.
+	 * @return a future for the integer score of the placed number.
+	 */
+	CompletableFuture<Integer> placeNumberAsync(String _game_name, int _i, int _j, int _number, boolean _await_delivery);
+
+	/**
+	 * Leaves a game.
+	 * @param _game_name a String, the sudoku game name.
+	 * @return a future for true if the game is left successfully, false otherwise.
+	 */
+	CompletableFuture<Boolean> leaveAsync(String _game_name);
+
+	/**
+	 * Leaves the network, thus leaves all the games joined previously.
+	 * @return a future for true if the network is left successfully, false otherwise.
+	 */
+	CompletableFuture<Boolean> leaveNetworkAsync();
+}
\ No newline at end of file
@@ -1,6 +1,11 @@
 package it.unisa.studenti.citro.tiziano.sudoku;
 
+import it.unisa.studenti.citro.tiziano.sudoku.model.Progress;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
+
 import java.util.List;
+import java.util.Map;
 
 /**
  * Copyright 2017 Universita' degli Studi di Salerno.
@@ -27,6 +32,38 @@ public interface SudokuGame {
 	 * @return bidimensional array containing the grid field of the sudoku game created.
 	 */
 	Integer[][] generateNewSudoku(String _game_name);
+
+	/**
+	 * Creates a new sudoku game with a given difficulty, whose grid has only one solution.
+	 * @param _game_name a String, the sudoku game name.
+	 * @param _difficulty the difficulty for the game.
+	 * @return bidimensional array containing the grid field of the sudoku game created.
+	 */
+	Integer[][] generateNewSudoku(String _game_name, Difficulty _difficulty);
+
+	/**
+	 * Creates a new sudoku game with a given difficulty and a given grid size.
+	 * @param _game_name a String, the sudoku game name.
+	 * @param _difficulty the difficulty for the game.
+	 * @param _grid_size the size of the grid for the game.
+	 * @return bidimensional array containing the grid field of the sudoku game created.
+	 */
+	Integer[][] generateNewSudoku(String _game_name, Difficulty _difficulty, GridSize _grid_size);
+
+	/**
+	 * Creates many new sudoku games at once.
+	 * @param _games_names the sudoku games names.
+	 * @return the grid field of each sudoku game, by name, null if the game could not be created.
+	 */
+	Map<String, Integer[][]> generateNewSudokus(List<String> _games_names);
+
+	/**
+	 * Creates many new sudoku games at once with a given difficulty.
+	 * @param _games_names the sudoku games names.
+	 * @param _difficulty the difficulty for the games.
+	 * @return the grid field of each sudoku game, by name, null if the game could not be created.
+	 */
+	Map<String, Integer[][]> generateNewSudokus(List<String> _games_names, Difficulty _difficulty);
 	
 	/**
 	 * Joins in a game.
@@ -49,6 +86,21 @@ public interface SudokuGame {
 	 */
 	Integer[][] getSudoku(String _game_name);
 
+	/**
+	 * Gets the progress of a joined game, as known by the peer since it last retrieved the game,
+	 * without retrieving it again.
+	 * @param _game_name a String, the sudoku game name.
+	 * @return the progress of the game, null if the game has not been joined.
+	 */
+	Progress getProgress(String _game_name);
+
+	/**
+	 * Gets the scores of the players of a game.
+	 * @param _game_name a String, the sudoku game name.
+	 * @return the scores of the players, by nickname, in the order they have joined the game, null if none found.
+	 */
+	Map<String, Integer> getScores(String _game_name);
+
 	/**
 	 * Places a new solution number in the game.
 	 * @param _game_name a String, the sudoku game name.
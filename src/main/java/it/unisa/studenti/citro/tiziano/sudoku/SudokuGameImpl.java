@@ -1,10 +1,46 @@
 package it.unisa.studenti.citro.tiziano.sudoku;
 
 import it.unisa.studenti.citro.tiziano.listener.MessageListener;
+import it.unisa.studenti.citro.tiziano.sudoku.codec.EventCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.config.GameConfig;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.ContentionMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.LogStorage;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.UpdateStatus;
+import it.unisa.studenti.citro.tiziano.sudoku.event.EventDispatcher;
+import it.unisa.studenti.citro.tiziano.sudoku.event.GameCompleted;
+import it.unisa.studenti.citro.tiziano.sudoku.event.GameEvent;
+import it.unisa.studenti.citro.tiziano.sudoku.event.MoveApplied;
+import it.unisa.studenti.citro.tiziano.sudoku.event.PlayerJoined;
+import it.unisa.studenti.citro.tiziano.sudoku.event.PlayerLeft;
+import it.unisa.studenti.citro.tiziano.sudoku.event.ScoreChanged;
+import it.unisa.studenti.citro.tiziano.sudoku.generator.BatchGenerator;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.CoalescingMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.Coalescer;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.DeliveryMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.Fanout;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.Relay;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.RelayTree;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GameRecord;
+import it.unisa.studenti.citro.tiziano.sudoku.model.JoinedGame;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Player;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GridLog;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Progress;
 import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import it.unisa.studenti.citro.tiziano.sudoku.pool.SudokuPool;
+import it.unisa.studenti.citro.tiziano.sudoku.store.CacheMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.store.CachingGameStore;
+import it.unisa.studenti.citro.tiziano.sudoku.store.DhtGameStore;
+import it.unisa.studenti.citro.tiziano.sudoku.store.GameStore;
+import it.unisa.studenti.citro.tiziano.sudoku.store.GameSweeper;
+import it.unisa.studenti.citro.tiziano.sudoku.store.MemoryGameStore;
+import it.unisa.studenti.citro.tiziano.sudoku.store.StorageMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.store.StoreType;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
 import it.unisa.studenti.citro.tiziano.utils.GameUtils;
 import lombok.Getter;
-import net.tomp2p.dht.FutureGet;
 import net.tomp2p.dht.PeerBuilderDHT;
 import net.tomp2p.dht.PeerDHT;
 import net.tomp2p.futures.FutureBootstrap;
@@ -13,15 +49,32 @@ import net.tomp2p.p2p.Peer;
 import net.tomp2p.p2p.PeerBuilder;
 import net.tomp2p.peers.Number160;
 import net.tomp2p.peers.PeerAddress;
-import net.tomp2p.storage.Data;
+import net.tomp2p.replication.IndirectReplication;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.Futures.toCompletable;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.EMPTY_CELL;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku.DEFAULT_DIFFICULTY;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku.DEFAULT_GRID_SIZE;
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.toBlockSize;
 import static it.unisa.studenti.citro.tiziano.sudoku.utils.SudokuUtils.*;
 import static it.unisa.studenti.citro.tiziano.sudoku.utils.Scores.CORRECT_NUMBER;
 import static it.unisa.studenti.citro.tiziano.sudoku.utils.Scores.INCORRECT_NUMBER;
@@ -40,11 +93,14 @@ import static it.unisa.studenti.citro.tiziano.utils.GameUtils.isGameValid;
  *
  * A P2P Sudoku challenge games. Each user can place a number of the
  * sudoku game, if it is not already placed takes 1 point, if it is already placed and it is rights takes
- * 0 point, in other case receive -1 point. The games is based on 9 x 9 matrix.
+ * 0 point, in other case receive -1 point. The games is based on 9 x 9 matrix by default,
+ * while 16 x 16 and 25 x 25 matrixes can be chosen as well.
  * All users that play to a game are automatically informed when a users increment its score, and when
  * the game is finished.
+ * Every operation that goes through the network is chained on the futures of the DHT,
+ * so that it is provided without waiting for it as well, and the blocking operations simply wait for those.
  */
-public class SudokuGameImpl implements SudokuGame {
+public class SudokuGameImpl implements SudokuGame, AsyncSudokuGame {
 
     /**
      * Builds a peer for playing the Sudoku game.
@@ -53,19 +109,72 @@ public class SudokuGameImpl implements SudokuGame {
      * @param _listener is the message listener.
      */
     public SudokuGameImpl(int _id, String _master_peer, MessageListener _listener) throws Exception {
-        peer = new PeerBuilder(Number160.createHash(_id)).ports(DEFAULT_PORT +_id).start();
-        dht = new PeerBuilderDHT(peer).start();
-        init();
+        this(_id, _master_peer, _listener, GameConfig.defaults());
+    }
 
-        FutureBootstrap futureBootstrap = peer.bootstrap()
-                .inetAddress(InetAddress.getByName(_master_peer)).ports(DEFAULT_PORT).start();
-        futureBootstrap.awaitUninterruptibly();
-        if (futureBootstrap.isSuccess()) {
-            peer.discover().peerAddress(futureBootstrap.bootstrapTo().iterator().next()).start().awaitUninterruptibly();
+    /**
+     * Builds a peer for playing the Sudoku game with given settings.
+     * Games are stored in the DHT shared with the other peers, unless the settings ask for storing them in memory,
+     * in which case the peer does not join any network.
+     * @param _id is the peer id.
+     * @param _master_peer is the master peer.
+     * @param _listener is the message listener.
+     * @param _config are the settings for the peer.
+     */
+    public SudokuGameImpl(int _id, String _master_peer, MessageListener _listener, GameConfig _config) throws Exception {
+        config = _config;
+        listener = _listener;
+        if (_config.getStore() == StoreType.MEMORY) {
+            self = new PeerAddress(Number160.createHash(_id));
+            store = new MemoryGameStore(_config.getSnapshotInterval());
         } else {
-            throw new Exception("Error in master peer bootstrap");
+            peer = new PeerBuilder(Number160.createHash(_id)).ports(DEFAULT_PORT +_id).start();
+            PeerBuilderDHT dhtBuilder = new PeerBuilderDHT(peer);
+            if (_config.getStorageDirectory() != null) {
+                // Logging the stored data on disk, so that a restarted peer, e.g. the master peer, keeps its games.
+                Path directory = Files.createDirectories(Paths.get(_config.getStorageDirectory()));
+                storage = new LogStorage(directory.resolve(STORAGE_PREFIX + _id + STORAGE_SUFFIX));
+                dhtBuilder.storage(storage);
+            }
+            dht = dhtBuilder.start();
+            if (_config.getReplicationFactor() > 0) {
+                // Keeping the games stored by the peer on other peers too, so that they survive it leaving.
+                replication = new IndirectReplication(dht).replicationFactor(_config.getReplicationFactor()).start();
+            }
+            self = peer.peerAddress();
+            store = new DhtGameStore(dht, _config);
+            if (_config.isGridCache()) {
+                cache = new CachingGameStore(store, _config.getGridCacheMaxStalenessMillis());
+                store = cache;
+            }
+            FutureBootstrap futureBootstrap = peer.bootstrap()
+                    .inetAddress(InetAddress.getByName(_master_peer)).ports(DEFAULT_PORT).start();
+            futureBootstrap.awaitUninterruptibly();
+            if (futureBootstrap.isSuccess()) {
+                peer.discover().peerAddress(futureBootstrap.bootstrapTo().iterator().next()).start().awaitUninterruptibly();
+            } else {
+                throw new Exception("Error in master peer bootstrap");
+            }
+            peer.objectDataReply(this::receive);
         }
-        peer.objectDataReply((sender, request) -> _listener.parseMessage(request));
+        init();
+    }
+
+    /**
+     * Builds a peer for playing the Sudoku game with games kept in a given store, without joining any network,
+     * e.g. for many peers in the same process sharing a store in memory.
+     * Since there is no network, the peer is notified only about the numbers it places itself.
+     * @param _id is the peer id.
+     * @param _listener is the message listener.
+     * @param _store is the store for games.
+     * @param _config are the settings for the peer.
+     */
+    public SudokuGameImpl(int _id, MessageListener _listener, GameStore _store, GameConfig _config) {
+        config = _config;
+        listener = _listener;
+        self = new PeerAddress(Number160.createHash(_id));
+        store = _store;
+        init();
     }
 
     /**
@@ -75,26 +184,51 @@ public class SudokuGameImpl implements SudokuGame {
      */
     @Override
     public Integer[][] generateNewSudoku(String _game_name) {
-        if (!GameUtils.isGameNameValid(_game_name)) {
-            return null;
-        }
-        sudoku = new Sudoku(_game_name);
-        Integer[][] cellsNumbers = sudoku.getGrid().getCellsNumbersAsMatrix();
-        try {
-            if (retrieveSudoku(_game_name) != null) {
-                return null;
-            }
-            if (!putSudoku(_game_name, cellsNumbers)) {
-                return null;
-            }
-            putPlayers(_game_name);
-            putNicknames(_game_name);
-            putScores(_game_name);
-            return cellsNumbers;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
+        return generateNewSudokuAsync(_game_name).join();
+    }
+
+    /**
+     * Creates a new sudoku game with a given difficulty.
+     * @param _game_name a String, the sudoku game name.
+     * @param _difficulty the difficulty for the game.
+     * @return bidimensional array containing the grid field of the sudoku game created.
+     */
+    @Override
+    public Integer[][] generateNewSudoku(String _game_name, Difficulty _difficulty) {
+        return generateNewSudokuAsync(_game_name, _difficulty).join();
+    }
+
+    /**
+     * Creates a new sudoku game with a given difficulty and a given grid size.
+     * @param _game_name a String, the sudoku game name.
+     * @param _difficulty the difficulty for the game.
+     * @param _grid_size the size of the grid for the game.
+     * @return bidimensional array containing the grid field of the sudoku game created.
+     */
+    @Override
+    public Integer[][] generateNewSudoku(String _game_name, Difficulty _difficulty, GridSize _grid_size) {
+        return generateNewSudokuAsync(_game_name, _difficulty, _grid_size).join();
+    }
+
+    /**
+     * Creates many new sudoku games at once.
+     * @param _games_names the sudoku games names.
+     * @return the grid field of each sudoku game, by name, null if the game could not be created.
+     */
+    @Override
+    public Map<String, Integer[][]> generateNewSudokus(List<String> _games_names) {
+        return generateNewSudokusAsync(_games_names).join();
+    }
+
+    /**
+     * Creates many new sudoku games at once with a given difficulty.
+     * @param _games_names the sudoku games names.
+     * @param _difficulty the difficulty for the games.
+     * @return the grid field of each sudoku game, by name, null if the game could not be created.
+     */
+    @Override
+    public Map<String, Integer[][]> generateNewSudokus(List<String> _games_names, Difficulty _difficulty) {
+        return generateNewSudokusAsync(_games_names, _difficulty).join();
     }
 
     /**
@@ -105,25 +239,7 @@ public class SudokuGameImpl implements SudokuGame {
      */
     @Override
     public boolean join(String _game_name, String _nickname) {
-        if (!isGameValid(_game_name, _nickname, gamesNames)) {
-            return false;
-        }
-        try {
-            if (!addNickname(_game_name, _nickname)) {
-                return false;
-            }
-            Integer[][] cellsNumbers = addSudoku(_game_name, _nickname);
-            if (cellsNumbers == null) {
-                return false;
-            }
-            if (!addPlayer(_game_name)) {
-                return false;
-            }
-            return addScore(_game_name);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
+        return joinAsync(_game_name, _nickname).join();
     }
 
     /**
@@ -131,8 +247,8 @@ public class SudokuGameImpl implements SudokuGame {
      * @return a list of joined games names, an empty list if none found.
      */
     @Override
-    public List<String> joined() {
-        return gamesNames;
+    public synchronized List<String> joined() {
+        return new ArrayList<>(joinedGames.keySet());
     }
 
     /**
@@ -142,12 +258,29 @@ public class SudokuGameImpl implements SudokuGame {
      */
     @Override
     public Integer[][] getSudoku(String _game_name) {
-        try {
-            return retrieveSudoku(_game_name);
-       } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
+        return getSudokuAsync(_game_name).join();
+    }
+
+    /**
+     * Gets the progress of a joined game, as known by the peer since it last retrieved the game,
+     * without retrieving it again.
+     * @param _game_name a String, the sudoku game name.
+     * @return the progress of the game, null if the game has not been joined.
+     */
+    @Override
+    public synchronized Progress getProgress(String _game_name) {
+        JoinedGame joined = joinedGames.get(_game_name);
+        return joined == null ? null : new Progress(joined.getGrid());
+    }
+
+    /**
+     * Gets the scores of the players of a game.
+     * @param _game_name a String, the sudoku game name.
+     * @return the scores of the players, by nickname, in the order they have joined the game, null if none found.
+     */
+    @Override
+    public Map<String, Integer> getScores(String _game_name) {
+        return getScoresAsync(_game_name).join();
     }
 
     /**
@@ -160,46 +293,7 @@ public class SudokuGameImpl implements SudokuGame {
      */
     @Override
     public Integer placeNumber(String _game_name, int _i, int _j, int _number) {
-        if (!isGameValid(_game_name, _i, _j, _number, gamesNames)) {
-            return ERROR_WHILE_PLACING_NUMBER;
-        }
-        try {
-            Integer[][] cells = retrieveSudoku(_game_name);
-            sudoku = new Sudoku(_game_name, cells);
-            int score = sudoku.placeNumber(_i, _j, _number);
-            // Update the player score
-            if (score == CORRECT_NUMBER.getScore() || score == INCORRECT_NUMBER.getScore()) {
-                // Get the position and the nickname used for the sudoku
-                // dht index and then index in local list
-                int globalIndex = -1;
-                int localIndex = gamesNames.indexOf(_game_name);
-                String nickname = gamesNicknames.get(localIndex);
-                List<String> nicknames = retrieveNicknames(_game_name);
-                if (nicknames == null) {
-                    return ERROR_WHILE_PLACING_NUMBER;
-                }
-                globalIndex = nicknames.indexOf(nickname);
-                if (globalIndex == -1) {
-                    return ERROR_WHILE_PLACING_NUMBER;
-                }
-                // Updating the personal score on the list for that sudoku game.
-                List<Integer> scores = updateScore(_game_name, score, globalIndex);
-                if (scores == null) {
-                    return ERROR_WHILE_PLACING_NUMBER;
-                }
-                // Updating the sudoku field in dht as well
-                if (score == CORRECT_NUMBER.getScore()) {
-                    Integer[][] cellsNumbers = sudoku.getGrid().getCellsNumbersAsMatrix();
-                    putSudoku(_game_name, cellsNumbers);
-                    // Notify all the players for that Sudoku about the new score
-                    notifyPlayers(_game_name, scores, nickname, nicknames);
-                }
-            }
-            return score;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ERROR_WHILE_PLACING_NUMBER;
-        }
+        return placeNumberAsync(_game_name, _i, _j, _number).join();
     }
 
     /**
@@ -209,26 +303,7 @@ public class SudokuGameImpl implements SudokuGame {
      */
     @Override
     public boolean leave(String _game_name) {
-        if (!gamesNames.contains(_game_name)) {
-            return false;
-        }
-        try {
-            if (!removePlayer(_game_name)) {
-                return false;
-            }
-            int index = removeNickname(_game_name);
-            if (index == -1) {
-                return false;
-            }
-            if (!removeScore(_game_name, index)) {
-                return false;
-            }
-            clear(index);
-            return true;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
+        return leaveAsync(_game_name).join();
     }
 
     /**
@@ -237,341 +312,647 @@ public class SudokuGameImpl implements SudokuGame {
      */
     @Override
     public boolean leaveNetwork() {
-        for (String game: new ArrayList<>(gamesNames)) {
-            leave(game);
+        return leaveNetworkAsync().join();
+    }
+
+    /**
+     * Creates a new sudoku game, without waiting for it.
+     * @param _game_name a String, the sudoku game name.
+     * @return a future for the bidimensional array containing the grid field of the sudoku game created.
+     */
+    @Override
+    public CompletableFuture<Integer[][]> generateNewSudokuAsync(String _game_name) {
+        return generateNewSudokuAsync(_game_name, DEFAULT_DIFFICULTY);
+    }
+
+    /**
+     * Creates a new sudoku game with a given difficulty, without waiting for it.
+     * @param _game_name a String, the sudoku game name.
+     * @param _difficulty the difficulty for the game.
+     * @return a future for the bidimensional array containing the grid field of the sudoku game created.
+     */
+    @Override
+    public CompletableFuture<Integer[][]> generateNewSudokuAsync(String _game_name, Difficulty _difficulty) {
+        return generateNewSudokuAsync(_game_name, _difficulty, DEFAULT_GRID_SIZE);
+    }
+
+    /**
+     * Creates a new sudoku game with a given difficulty and a given grid size, without waiting for it.
+     * @param _game_name a String, the sudoku game name.
+     * @param _difficulty the difficulty for the game.
+     * @param _grid_size the size of the grid for the game.
+     * @return a future for the bidimensional array containing the grid field of the sudoku game created.
+     */
+    @Override
+    public CompletableFuture<Integer[][]> generateNewSudokuAsync(String _game_name, Difficulty _difficulty,
+                                                                 GridSize _grid_size) {
+        if (!GameUtils.isGameNameValid(_game_name) || _difficulty == null || _grid_size == null) {
+            return CompletableFuture.completedFuture(null);
         }
-        dht.peer().announceShutdown().start().awaitUninterruptibly();
-        return true;
+        return store.exists(_game_name)
+                // Taking a game generated in advance, so that only storing it is left to do.
+                .thenApplyAsync(exists -> exists ? null
+                        : poolFor(_difficulty, _grid_size).take(_game_name), generationPool)
+                .thenCompose(taken -> {
+                    if (taken == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    GameRecord game = new GameRecord(taken);
+                    return store.create(_game_name, game).thenApply(stored -> {
+                        if (!stored) {
+                            return null;
+                        }
+                        sweeper.track(_game_name);
+                        return game.getGrid();
+                    });
+                })
+                .exceptionally(recover(null));
     }
 
     /**
-     * Notifies all players when a number is placed in the game grid.
-     * @param _game_name is the game name.
-     * @param scores are the players score.
-     * @param nickname is the nickname of the player who has placed the number.
-     * @param nicknames are the players score.
-     */
-    private void notifyPlayers(
-            String _game_name, List<Integer> scores,
-            String nickname, List<String> nicknames) throws IOException, ClassNotFoundException {
-        FutureGet futureGet = dht.get(Number160.createHash(withPlayers(_game_name))).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            String message = buildNotification(_game_name, scores, nickname, nicknames);
-            Set<PeerAddress> peers = (Set<PeerAddress>) futureGet.dataMap().values().iterator().next().object();
-            for (PeerAddress peer: peers) {
-                FutureDirect futureDirect = dht.peer().sendDirect(peer).object(message).start();
-                futureDirect.awaitUninterruptibly();
+     * Creates many new sudoku games at once, without waiting for them.
+     * @param _games_names the sudoku games names.
+     * @return a future for the grid field of each sudoku game, by name, null if the game could not be created.
+     */
+    @Override
+    public CompletableFuture<Map<String, Integer[][]>> generateNewSudokusAsync(List<String> _games_names) {
+        return generateNewSudokusAsync(_games_names, DEFAULT_DIFFICULTY);
+    }
+
+    /**
+     * Creates many new sudoku games at once with a given difficulty, without waiting for them.
+     * Names are checked all at once, grids are generated in parallel
+     * and then all the games are stored without waiting for each of them in turn.
+     * @param _games_names the sudoku games names.
+     * @param _difficulty the difficulty for the games.
+     * @return a future for the grid field of each sudoku game, by name, null if the game could not be created.
+     */
+    @Override
+    public CompletableFuture<Map<String, Integer[][]>> generateNewSudokusAsync(List<String> _games_names,
+                                                                               Difficulty _difficulty) {
+        Map<String, Integer[][]> created = Collections.synchronizedMap(new HashMap<>());
+        if (_games_names == null || _difficulty == null) {
+            return CompletableFuture.completedFuture(new LinkedHashMap<>());
+        }
+        // Checking whether the names are already taken, all at once.
+        Map<String, CompletableFuture<Boolean>> lookups = new LinkedHashMap<>();
+        for (String name: _games_names) {
+            if (GameUtils.isGameNameValid(name) && !lookups.containsKey(name)) {
+                lookups.put(name, store.exists(name));
             }
         }
+        return CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture[0]))
+                // Generating the grids in parallel and then storing all of them at once.
+                .thenApplyAsync(ignored -> {
+                    List<String> names = new ArrayList<>();
+                    for (Map.Entry<String, CompletableFuture<Boolean>> lookup: lookups.entrySet()) {
+                        if (!lookup.getValue().join()) {
+                            names.add(lookup.getKey());
+                        }
+                    }
+                    return batchGenerator.generate(names, _difficulty).getGames();
+                }, generationPool)
+                .thenCompose(games -> {
+                    List<CompletableFuture<Boolean>> puts = new ArrayList<>();
+                    for (Sudoku game: games) {
+                        puts.add(store.create(game.getName(), new GameRecord(game)).thenApply(stored -> {
+                            if (stored) {
+                                created.put(game.getName(), game.getGrid().getCellsNumbersAsMatrix());
+                                sweeper.track(game.getName());
+                            }
+                            return stored;
+                        }));
+                    }
+                    return CompletableFuture.allOf(puts.toArray(new CompletableFuture[0]));
+                })
+                .exceptionally(recover(null))
+                .thenApply(ignored -> {
+                    Map<String, Integer[][]> ordered = new LinkedHashMap<>();
+                    for (String name: _games_names) {
+                        ordered.put(name, created.get(name));
+                    }
+                    return ordered;
+                });
     }
 
     /**
-     * Builds a message to send to all players when a number is placed in the game grid.
-     * @param _game_name is the game name.
-     * @param scores are the players score.
-     * @param nickname is the nickname of the player who has placed the number.
-     * @param nicknames are the players score.
-     * @return the message to send.
-     */
-    private String buildNotification(String _game_name, List<Integer> scores, String nickname, List<String> nicknames) {
-        StringBuilder messageBuilder = new StringBuilder(_game_name).append(" - ").append(nickname);
-        if (sudoku.isCompleted()) {
-            messageBuilder.append(" has completed the sudoku!\n").append("Scores:\n");
-            for (int i = 0; i < nicknames.size(); i++) {
-                messageBuilder.append("- ").append(nicknames.get(i)).append(": ").append(scores.get(i));
-                if (i < nicknames.size() - 1) {
-                    messageBuilder.append("\n");
-                }
+     * Joins in a game, without waiting for it.
+     * @param _game_name a String, the sudoku game name.
+     * @param _nickname a String, the name of the user.
+     * @return a future for true if the join is successful, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> joinAsync(String _game_name, String _nickname) {
+        synchronized (this) {
+            if (!isGameValid(_game_name, _nickname, joinedGames.keySet())) {
+                return CompletableFuture.completedFuture(false);
             }
-        } else {
-            messageBuilder.append(" has scored a point!");
         }
-        return messageBuilder.toString();
+        // Assigning the player identifier once, so that its score is addressed directly for as long as the game is played.
+        Player player = new Player(_nickname);
+        return store.getGame(_game_name).thenCompose(game -> {
+            if (game == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+            // Adding its nickname with the starting score, unless the nickname is already taken.
+            return store.updateScore(_game_name, player,
+                    current -> current == null ? STARTING_SCORE : null).thenCompose(status -> {
+                if (status != UpdateStatus.UPDATED) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                // Adding itself to the players, to be notified.
+                return store.updatePlayers(_game_name, current -> {
+                    Set<PeerAddress> players = current == null ? new HashSet<>() : current;
+                    return players.add(self) ? players : null;
+                }).thenCompose(playersStatus -> {
+                    if (playersStatus == UpdateStatus.FAILED || !addSudoku(_game_name, player, game)) {
+                        // Removing the score added above, so that the nickname is not left taken by a player not in the game.
+                        return store.removeScore(_game_name, player).thenApply(ignored -> false);
+                    }
+                    // Watching the game, so that it is purged once it is completed or abandoned.
+                    sweeper.trackJoined(_game_name);
+                    coalescer.submit(_game_name, Collections.singletonList(new PlayerJoined(_game_name, _nickname)), false)
+                            .exceptionally(recover(0));
+                    return CompletableFuture.completedFuture(true);
+                });
+            });
+        }).exceptionally(recover(false));
     }
 
     /**
-     * Retrieves a game based on its name.
-     * @param _game_name is the game name.
-     * @return the game grid as a matrix of integers.
-     */
-    private Integer[][] retrieveSudoku(String _game_name) throws IOException, ClassNotFoundException {
-        FutureGet futureGet = dht.get(Number160.createHash(_game_name)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            if (!futureGet.isEmpty()) {
-                return (Integer[][]) futureGet.dataMap().values().iterator().next().object();
+     * Gets the Sudoku matrix game, with only the number placed by the user, without waiting for it.
+     * @param _game_name a String, the sudoku game name.
+     * @return a future for the integer matrix of the sudoku game.
+     */
+    @Override
+    public CompletableFuture<Integer[][]> getSudokuAsync(String _game_name) {
+        return store.getGrid(_game_name).thenApply(cellsNumbers -> {
+            if (cellsNumbers != null) {
+                // Keeping the grid of a joined game up to date, so that its progress is known.
+                fillGrid(_game_name, cellsNumbers);
             }
-        }
-        return null;
+            return cellsNumbers;
+        }).exceptionally(recover(null));
     }
 
     /**
-     * Retrieves the nicknames of the players who have been playing a certain game.
-     * @param _game_name is the game name.
-     * @return the nicknames of the players.
-     */
-    private List<String> retrieveNicknames(String _game_name) throws IOException, ClassNotFoundException {
-        FutureGet futureGet = dht.get(Number160.createHash(withNicknames(_game_name))).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            if (!futureGet.isEmpty()) {
-                return (List<String>) futureGet.dataMap().values().iterator().next().object();
+     * Gets the scores of the players of a game, without waiting for them.
+     * @param _game_name a String, the sudoku game name.
+     * @return a future for the scores of the players, by nickname, in the order they have joined the game,
+     * null if none found.
+     */
+    @Override
+    public CompletableFuture<Map<String, Integer>> getScoresAsync(String _game_name) {
+        return store.getScores(_game_name).thenApply(scores -> scores.isEmpty() ? null : (Map<String, Integer>) scores)
+                .exceptionally(recover(null));
+    }
+
+    /**
+     * Places a new solution number in the game, without waiting for it.
+     * @param _game_name a String, the sudoku game name.
+     * @param _i the position on the row.
+     * @param _j the position on the column.
+     * @param _number the solution number.
+     * @return a future for the integer score of the placed number.
+     */
+    @Override
+    public CompletableFuture<Integer> placeNumberAsync(String _game_name, int _i, int _j, int _number) {
+        return placeNumberAsync(_game_name, _i, _j, _number, config.isAwaitDelivery());
+    }
+
+    /**
+     * Places a new solution number in the game, without waiting for it,
+     * choosing whether to wait for the other players to be notified.
+     * @param _game_name a String, the sudoku game name.
+     * @param _i the position on the row.
+     * @param _j the position on the column.
+     * @param _number the solution number.
+     * @param _await_delivery whether the future is completed only once the players have been notified.
+     * @return a future for the integer score of the placed number.
+     */
+    @Override
+    public CompletableFuture<Integer> placeNumberAsync(String _game_name, int _i, int _j, int _number,
+                                                      boolean _await_delivery) {
+        JoinedGame joined;
+        synchronized (this) {
+            joined = joinedGames.get(_game_name);
+            int gridSize = joined == null ? 0 : joined.getGrid().getGridSize();
+            if (!isGameValid(_game_name, _i, _j, _number, gridSize, joinedGames.keySet())) {
+                return CompletableFuture.completedFuture(ERROR_WHILE_PLACING_NUMBER);
             }
         }
-        return null;
+        byte[] solution = joined.getSolution();
+        Player player = joined.getPlayer();
+        String nickname = player.getNickname();
+        // Placing the number on the latest grid, and appending the move to the game only if the number is correct.
+        Sudoku[] placed = new Sudoku[1];
+        Move[] made = new Move[1];
+        long[] sequence = new long[1];
+        int[] score = new int[2];
+        return store.appendMove(_game_name, (current, next) -> {
+            made[0] = null;
+            sequence[0] = next;
+            if (current == null) {
+                return null;
+            }
+            placed[0] = new Sudoku(_game_name, current, solution);
+            score[0] = placed[0].placeNumber(_i, _j, _number);
+            if (score[0] == CORRECT_NUMBER.getScore()) {
+                made[0] = new Move(next, _i, _j, _number, nickname);
+            }
+            return made[0];
+        }).thenCompose(status -> {
+            if (status == UpdateStatus.FAILED || placed[0] == null) {
+                return CompletableFuture.completedFuture(ERROR_WHILE_PLACING_NUMBER);
+            }
+            // The grid the number has been placed on has every move before the one appended, or that would have been,
+            // and it has that move as well when the number is correct.
+            mergeGrid(_game_name, placed[0].getGrid().getCellsNumbersAsMatrix(),
+                    made[0] != null ? sequence[0] : sequence[0] - 1);
+            if (score[0] != CORRECT_NUMBER.getScore() && score[0] != INCORRECT_NUMBER.getScore()) {
+                return CompletableFuture.completedFuture(score[0]);
+            }
+            // Update only the player score, leaving the scores of the other players untouched.
+            return store.updateScore(_game_name, player, current -> {
+                if (current == null) {
+                    return null;
+                }
+                score[1] = current + score[0];
+                return score[1];
+            }).thenCompose(scoresStatus -> {
+                if (scoresStatus != UpdateStatus.UPDATED) {
+                    return CompletableFuture.completedFuture(ERROR_WHILE_PLACING_NUMBER);
+                }
+                if (score[0] != CORRECT_NUMBER.getScore()) {
+                    return CompletableFuture.completedFuture(score[0]);
+                }
+                // Notify all the players for that Sudoku about the move and the new score in a single message,
+                // retrieving all the scores only when they are shown, that is when the game is completed.
+                List<GameEvent> events = new ArrayList<>();
+                events.add(new MoveApplied(_game_name, made[0]));
+                events.add(new ScoreChanged(_game_name, nickname, score[0], score[1]));
+                CompletableFuture<List<GameEvent>> message = !placed[0].isCompleted()
+                        ? CompletableFuture.completedFuture(events)
+                        : store.getScores(_game_name).thenApply(all -> {
+                            events.add(new GameCompleted(_game_name, nickname, all));
+                            return events;
+                        });
+                // Sending the last move at once, together with the moves held back.
+                CompletableFuture<Integer> notified = message
+                        .thenCompose(all -> coalescer.submit(_game_name, all, placed[0].isCompleted()));
+                if (!_await_delivery) {
+                    // The score is known already, thus the notifications go on their own.
+                    notified.exceptionally(recover(0));
+                    return CompletableFuture.completedFuture(score[0]);
+                }
+                return notified.thenApply(ignored -> score[0]);
+            });
+        }).exceptionally(recover(ERROR_WHILE_PLACING_NUMBER));
     }
 
     /**
-     * Stores the grid of a game.
-     * @param _game_name is the game name.
-     * @param cellsNumbers the grid of the games as a matrix of integers.
-     * @return true if the game has been stored successfully.
-     */
-    private boolean putSudoku(String _game_name, Integer[][] cellsNumbers) throws IOException {
-        FutureGet futureGet = dht.get(Number160.createHash(_game_name)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            dht.put(Number160.createHash(_game_name)).data(new Data(cellsNumbers)).start().awaitUninterruptibly();
-            return true;
+     * Leaves a game, without waiting for it.
+     * @param _game_name a String, the sudoku game name.
+     * @return a future for true if the game is left successfully, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> leaveAsync(String _game_name) {
+        JoinedGame joined;
+        synchronized (this) {
+            joined = joinedGames.get(_game_name);
+            if (joined == null) {
+                return CompletableFuture.completedFuture(false);
+            }
         }
-        // A sudoku with a name equals to _game_name may already exist.
-        return false;
+        // Removes itself from the peers playing the game, with its nickname and its score.
+        return store.updatePlayers(_game_name, current -> current != null && current.remove(self) ? current : null).thenCompose(status -> {
+            if (status == UpdateStatus.FAILED) {
+                return CompletableFuture.completedFuture(false);
+            }
+            if (cache != null) {
+                cache.invalidate(_game_name);
+            }
+            String nickname = joined.getPlayer().getNickname();
+            return store.removeScore(_game_name, joined.getPlayer()).thenApply(ignored -> {
+                // Sending at once, together with the notifications held back, since the peer may leave the network next.
+                coalescer.submit(_game_name, Collections.singletonList(new PlayerLeft(_game_name, nickname)), true)
+                        .exceptionally(recover(0));
+                coalescer.forget(_game_name);
+                return removeSudoku(_game_name);
+            });
+        }).exceptionally(recover(false));
     }
 
     /**
-     * Stores new players for a game.
-     * @param _game_name is the game name.
+     * Leaves the network, thus leaves all the games joined previously, without waiting for it.
+     * @return a future for true if the network is left successfully, false otherwise.
      */
-    private void putPlayers(String _game_name) throws IOException {
-        String withPlayers = withPlayers(_game_name);
-        FutureGet futureGet = dht.get(Number160.createHash(withPlayers)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess() && futureGet.isEmpty()) {
-            dht.put(Number160.createHash(withPlayers)).data(new Data(new HashSet<PeerAddress>()))
-                    .start().awaitUninterruptibly();
+    @Override
+    public CompletableFuture<Boolean> leaveNetworkAsync() {
+        List<CompletableFuture<Boolean>> leaves = new ArrayList<>();
+        for (String game: joined()) {
+            leaves.add(leaveAsync(game));
         }
+        return CompletableFuture.allOf(leaves.toArray(new CompletableFuture[0])).thenCompose(ignored -> {
+            pools.values().forEach(sizePools -> sizePools.values().forEach(SudokuPool::shutdown));
+            generationPool.shutdown();
+            sweeper.shutdown();
+            if (replication != null) {
+                replication.shutdown();
+            }
+            return peer == null ? CompletableFuture.completedFuture(null)
+                    : toCompletable(peer.announceShutdown().start());
+        }).thenApply(ignored -> {
+            if (storage != null) {
+                storage.close();
+            }
+            return true;
+        }).exceptionally(recover(false));
     }
 
     /**
-     * Stores the nicknames for players in a game.
+     * Provides the metrics about updates of game data that have conflicted with updates by other peers.
+     * @return the contention metrics.
+     */
+    public ContentionMetrics getContentionMetrics() {
+        return store.getContentionMetrics();
+    }
+
+    /**
+     * Provides the metrics about reads of the grids cached by the peer.
+     * @return the cache metrics, null if grids are not cached.
+     */
+    public CacheMetrics getCacheMetrics() {
+        return cache == null ? null : cache.getMetrics();
+    }
+
+    /**
+     * Provides how much is stored about games by the peer at the moment,
+     * so that the memory used by a long-running peer, such as the master peer, can be watched.
+     * @return the storage metrics.
+     */
+    public StorageMetrics getStorageMetrics() {
+        return store.getStorageMetrics();
+    }
+
+    /**
+     * Provides the metrics about the notifications sent by the peer to the players.
+     * @return the delivery metrics.
+     */
+    public DeliveryMetrics getDeliveryMetrics() {
+        return fanout.getMetrics();
+    }
+
+    /**
+     * Provides the metrics about the notifications of a game held back for being sent together.
      * @param _game_name is the game name.
+     * @return the coalescing metrics, null if no notification about the game has been held back.
      */
-    private void putNicknames(String _game_name) throws IOException {
-        String withNicknames = withNicknames(_game_name);
-        FutureGet futureGet = dht.get(Number160.createHash(withNicknames)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess() && futureGet.isEmpty()) {
-            dht.put(Number160.createHash(withNicknames)).data(new Data(new ArrayList<String>()))
-                    .start().awaitUninterruptibly();
+    public CoalescingMetrics getCoalescingMetrics(String _game_name) {
+        return coalescer.getMetrics(_game_name);
+    }
+
+    /**
+     * Receives a message from a player, decoding its events, and relays it when it has been sent through a tree.
+     * Each event from another player is handed to the dispatcher, and then every event is given to the listener.
+     * @param sender is the player who has sent the message.
+     * @param message is the message.
+     * @return the reply to the message.
+     */
+    private Object receive(PeerAddress sender, Object message) {
+        if (message instanceof Relay) {
+            // Passing the message on to the players below in the tree, without waiting for them.
+            Relay relay = (Relay) message;
+            fanout.send(relayTree.forward(relay)).exceptionally(recover(0));
+            message = relay.getMessage();
+        }
+        if (!(message instanceof byte[])) {
+            return listener.parseMessage(message);
+        }
+        Object reply = MessageListener.SUCCESS;
+        for (GameEvent event: EventCodec.decode((byte[]) message)) {
+            if (!self.equals(sender)) {
+                dispatcher.dispatch(event);
+            }
+            reply = listener.parseMessage(event);
         }
+        return reply;
     }
 
     /**
-     * Stores the scores for players in a game.
+     * Notifies all players about events of a game, sending all the messages at once,
+     * each with its own deadline and all of them with an overall one.
+     * Above the relay threshold, the message is sent to a few players only, who relay it through a tree of the players,
+     * so that the cost for the peer does not grow with the number of players.
      * @param _game_name is the game name.
+     * @param events are the events, sent together in a single message.
+     * @return a future for the number of players the peer has delivered the message to,
+     * completed at the latest at the overall deadline.
      */
-    private void putScores(String _game_name) throws IOException {
-        String withScores = withScores(_game_name);
-        FutureGet futureGet = dht.get(Number160.createHash(withScores)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess() && futureGet.isEmpty()) {
-            dht.put(Number160.createHash(withScores)).data(new Data(new ArrayList<Integer>()))
-                    .start().awaitUninterruptibly();
-        }
+    private CompletableFuture<Integer> notifyPlayers(String _game_name, List<GameEvent> events) {
+        byte[] message = EventCodec.encode(events);
+        return store.getPlayers(_game_name).thenCompose(players -> {
+            if (players == null) {
+                return CompletableFuture.completedFuture(0);
+            }
+            if (config.getRelayThreshold() <= 0 || players.size() <= config.getRelayThreshold()) {
+                return fanout.send(players, message);
+            }
+            List<PeerAddress> others = new ArrayList<>(players);
+            boolean playing = others.remove(self);
+            Map<PeerAddress, Object> messages = new LinkedHashMap<>(relayTree.plan(others, message));
+            if (playing) {
+                messages.put(self, message);
+            }
+            return fanout.send(messages);
+        });
     }
 
     /**
-     * Updates the score for a player who's playing a certain game.
-     * @param _game_name  is the game name.
-     * @param score the score to update.
-     * @param globalIndex index of the score to update.
-     * @return the updated scores.
-     */
-    private List<Integer> updateScore(String _game_name, int score, int globalIndex) throws IOException, ClassNotFoundException {
-        String withScores = withScores(_game_name);
-        FutureGet futureGet = dht.get(Number160.createHash(withScores)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            if (futureGet.isEmpty()) {
-                return null;
+     * Sends a message to a player.
+     * Without a network, only messages to the peer itself are delivered, to its own listener.
+     * @param player is the player.
+     * @param message is the message.
+     * @return a future completed when the message has been delivered, exceptionally if it could not be.
+     */
+    private CompletableFuture<?> send(PeerAddress player, Object message) {
+        if (peer == null) {
+            if (self.equals(player)) {
+                receive(self, message);
             }
-            List<Integer> scores = (List<Integer>) futureGet.dataMap().values().iterator().next().object();
-            scores.set(globalIndex, scores.get(globalIndex) + score);
-            dht.put(Number160.createHash(withScores)).data(new Data(scores)).start().awaitUninterruptibly();
-            return scores;
+            return CompletableFuture.completedFuture(null);
         }
-        return null;
+        return toCompletable(peer.sendDirect(player).object(message).start()).thenApply(futureDirect -> {
+            if (!futureDirect.isSuccess()) {
+                throw new CompletionException(new IOException(futureDirect.failedReason()));
+            }
+            return futureDirect;
+        });
     }
 
     /**
      * Adds a new game to the games a players' playing.
      * @param _game_name  is the game name.
-     * @param _nickname is the nickname the player has joined with.
-     * @return the game grid.
+     * @param player is the player the game has been joined as.
+     * @param game is the game.
+     * @return true if the game has been added, false if it had been joined already.
      */
-    private Integer[][] addSudoku(String _game_name, String _nickname) throws ClassNotFoundException, IOException {
-        Integer[][] cellsNumbers = retrieveSudoku(_game_name);
-        if (cellsNumbers == null) {
-            return null;
+    private synchronized boolean addSudoku(String _game_name, Player player, GameRecord game) {
+        if (joinedGames.containsKey(_game_name)) {
+            return false;
         }
-        // Adding sudoku and sudoku name to joined games.
-        games.add(cellsNumbers);
-        gamesNames.add(_game_name);
-        gamesNicknames.add(_nickname);
-        return cellsNumbers;
+        Integer[][] cellsNumbers = game.getGrid();
+        // Adding sudoku to joined games, keeping the solution and the player locally,
+        // so that placing a number does not need to retrieve them.
+        joinedGames.put(_game_name,
+                new JoinedGame(player, new Grid(toBlockSize(cellsNumbers.length), cellsNumbers), game.getSequence(),
+                        game.getSolution()));
+        return true;
     }
 
     /**
-     * Adds a player to a game.
+     * Merges a grid with every move up to a sequence number into the grid of a joined game,
+     * so that the moves missed up to it are in the local grid as well.
      * @param _game_name is the game name.
-     * @return true if the player has been added successfully, false otherwise.
-     */
-    private boolean addPlayer(String _game_name) throws IOException, ClassNotFoundException {
-        // Adding peer to sudoku players - to be notified -.
-        String withPlayers = withPlayers(_game_name);
-        FutureGet futureGet = dht.get(Number160.createHash(withPlayers)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            if (futureGet.isEmpty()) {
-                return false;
-            }
-            Set<PeerAddress> players = (Set<PeerAddress>) futureGet.dataMap().values().iterator().next().object();
-            players.add(dht.peer().peerAddress());	// Adds itself to the peers list for that game.
-            dht.put(Number160.createHash(withPlayers)).data(new Data(players)).start().awaitUninterruptibly();
+     * @param cellsNumbers is the grid as a matrix of numbers.
+     * @param sequence is the sequence number up to which every move is in the grid.
+     */
+    private synchronized void mergeGrid(String _game_name, Integer[][] cellsNumbers, long sequence) {
+        JoinedGame joined = joinedGames.get(_game_name);
+        if (joined == null) {
+            return;
         }
-        return true;
+        fillGrid(_game_name, cellsNumbers);
+        joined.setSequence(Math.max(joined.getSequence(), sequence));
     }
 
     /**
-     * Adds a player nickname to a game.
+     * Fills the empty cells of the grid of a joined game with the numbers of a grid read without its sequence number.
+     * Numbers are never removed from a grid, thus the cells already filled are kept as they are.
      * @param _game_name is the game name.
-     * @return true if the player nickname has been added successfully, false otherwise.
-     */
-    private boolean addNickname(String _game_name, String _nickname) throws ClassNotFoundException, IOException {
-        // Adding the nickname to the list of nicknames for the sudoku.
-        String withNicknames = withNicknames(_game_name);
-        FutureGet futureGet = dht.get(Number160.createHash(withNicknames)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            if (futureGet.isEmpty()) {
-                return false;
-            }
-            List<String> nicknames = (List<String>) futureGet.dataMap().values().iterator().next().object();
-            // Checking if the nickname is already taken.
-            if (nicknames.contains(_nickname)) {
-                return false;
+     * @param cellsNumbers is the grid as a matrix of numbers.
+     */
+    private synchronized void fillGrid(String _game_name, Integer[][] cellsNumbers) {
+        JoinedGame joined = joinedGames.get(_game_name);
+        if (joined == null) {
+            return;
+        }
+        Grid grid = joined.getGrid();
+        for (int row = 0; row < cellsNumbers.length; row++) {
+            for (int column = 0; column < cellsNumbers[row].length; column++) {
+                if (cellsNumbers[row][column] != EMPTY_CELL && grid.isCellNotFilled(row + 1, column + 1)) {
+                    grid.setCellNumber(cellsNumbers[row][column], row + 1, column + 1);
+                }
             }
-            nicknames.add(_nickname);
-            dht.put(Number160.createHash(withNicknames)).data(new Data(nicknames)).start().awaitUninterruptibly();
         }
-        return true;
     }
 
     /**
-     * Adds a player score to a game.
+     * Applies a move to the grid of a joined game, so that its progress is known.
+     * The move is applied even if it comes after a more recent one, since each move fills a different cell.
+     * When it skips ahead of the moves known, the grid is retrieved once to catch up with the moves missed.
      * @param _game_name is the game name.
-     * @return true if the player score has been added successfully, false otherwise.
-     */
-    private boolean addScore(String _game_name) throws IOException, ClassNotFoundException {
-        // Adding a new score for the game.
-        String withScores = withScores(_game_name);
-        FutureGet futureGet = dht.get(Number160.createHash(withScores)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            if (futureGet.isEmpty()) {
-                return false;
-            }
-            List<Integer> scores = (List<Integer>) futureGet.dataMap().values().iterator().next().object();
-            // Adding the starting score to the list of scores for that game.
-            scores.add(STARTING_SCORE);
-            dht.put(Number160.createHash(withScores)).data(new Data(scores)).start().awaitUninterruptibly();
+     * @param move is the move.
+     * @return true if the move has been applied, false if the game has not been joined or the grid is being retrieved.
+     */
+    private synchronized boolean applyMove(String _game_name, Move move) {
+        JoinedGame joined = joinedGames.get(_game_name);
+        if (joined == null) {
+            return false;
         }
-        return true;
+        joined.getGrid().setCellNumber(move.getNumber(), move.getRow(), move.getColumn());
+        if (move.getSequence() == joined.getSequence() + 1) {
+            joined.setSequence(move.getSequence());
+        } else if (move.getSequence() > joined.getSequence() + 1 && !joined.isCatchingUp()) {
+            // A move before this one has not been notified, e.g. it has been lost,
+            // while the move has been appended before being notified, thus the grid retrieved now has both.
+            joined.setCatchingUp(true);
+            store.getLog(_game_name).exceptionally(recover(null)).thenAccept(log -> caughtUp(_game_name, log));
+        }
+        return !joined.isCatchingUp();
     }
 
     /**
-     * Removes a player to a game.
+     * Merges the grid retrieved to catch up with the moves missed into the grid of a joined game.
      * @param _game_name is the game name.
-     * @return true if the player has been removed successfully, false otherwise.
-     */
-    private boolean removePlayer(String _game_name) throws IOException, ClassNotFoundException {
-        // Removes itself from the peers playing the game.
-        String withPlayers = withPlayers(_game_name);
-        FutureGet futureGet = dht.get(Number160.createHash(withPlayers)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            if (!futureGet.isEmpty()) {
-                Set<PeerAddress> players = (Set<PeerAddress>) futureGet.dataMap().values().iterator().next().object();
-                players.remove(dht.peer().peerAddress());
-                dht.put(Number160.createHash(withPlayers)).data(new Data(players)).start().awaitUninterruptibly();
-                return true;
-            }
+     * @param log is the grid retrieved, null if it has not been retrieved.
+     */
+    private synchronized void caughtUp(String _game_name, GridLog log) {
+        JoinedGame joined = joinedGames.get(_game_name);
+        if (joined == null) {
+            return;
+        }
+        joined.setCatchingUp(false);
+        if (log != null) {
+            mergeGrid(_game_name, log.getGrid(), log.getSequence());
         }
-        return false;
     }
 
     /**
-     * Removes a player nickname to a game.
+     * Removes a game from the games a player's playing.
      * @param _game_name is the game name.
-     * @return true if the player nickname has been removed successfully, false otherwise.
-     */
-    private int removeNickname(String _game_name) throws IOException, ClassNotFoundException {
-        String nickname = gamesNicknames.get(gamesNames.indexOf(_game_name));
-        // Removes its nickname from the game.
-        String withNicknames = withNicknames(_game_name);
-        FutureGet futureGet = dht.get(Number160.createHash(withNicknames)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            if (!futureGet.isEmpty()) {
-                List<String> nicknames = (List<String>) futureGet.dataMap().values().iterator().next().object();
-                int index = gamesNicknames.indexOf(nickname);
-                nicknames.remove(index);
-                dht.put(Number160.createHash(withNicknames)).data(new Data(nicknames)).start().awaitUninterruptibly();
-                return index;
-            }
-        }
-        return -1;
+     * @return true if the game has been removed, false if it had been left already.
+     */
+    private synchronized boolean removeSudoku(String _game_name) {
+        return joinedGames.remove(_game_name) != null;
     }
 
     /**
-     * Removes a player score to a game.
-     * @param _game_name is the game name.
-     * @return true if the player score has been removed successfully, false otherwise.
-     */
-    private boolean removeScore(String _game_name, int index) throws IOException, ClassNotFoundException {
-        // Removes its score from the game.
-        String withScores = withScores(_game_name);
-        FutureGet futureGet = dht.get(Number160.createHash(withScores)).start();
-        futureGet.awaitUninterruptibly();
-        if (futureGet.isSuccess()) {
-            if (!futureGet.isEmpty()) {
-                List<Integer> scores = (List<Integer>) futureGet.dataMap().values().iterator().next().object();
-                scores.remove(index);
-                dht.put(Number160.createHash(withScores)).data(new Data(scores)).start().awaitUninterruptibly();
-                return true;
-            }
-        }
-        return false;
+     * Provides a function that reports an error and recovers from it with a given value,
+     * the same value returned when the operation fails without errors.
+     * @param value is the value to recover with.
+     * @param <T> is the type of the value.
+     * @return the function.
+     */
+    private static <T> Function<Throwable, T> recover(T value) {
+        return e -> {
+            e.printStackTrace();
+            return value;
+        };
     }
 
     /**
-     * Initializes games information for the peer.
+     * Provides the pool of games generated in advance for a difficulty and a grid size,
+     * starting it the first time it is needed.
+     * @param difficulty is the difficulty of the games.
+     * @param gridSize is the size of the grid of the games.
+     * @return the pool of games.
      */
-    private void init() {
-        games =  new ArrayList<>();
-        gamesNames =  new ArrayList<>();
-        gamesNicknames =  new ArrayList<>();
+    private SudokuPool poolFor(Difficulty difficulty, GridSize gridSize) {
+        Map<Difficulty, SudokuPool> sizePools = pools.computeIfAbsent(gridSize, g -> new ConcurrentHashMap<>());
+        return sizePools.computeIfAbsent(difficulty, d -> {
+            SudokuPool pool = new SudokuPool(config.getPoolCapacity(), config.getPoolLowWaterMark(),
+                    () -> new Sudoku(null, d, gridSize));
+            pool.start();
+            return pool;
+        });
     }
 
     /**
-     * Clear the peer information about a game.
-     * @param index is the index for the game information.
+     * Initializes games information for the peer.
      */
-    private void clear(int index) {
-        games.remove(index);
-        gamesNames.remove(index);
-        gamesNicknames.remove(index);
+    private void init() {
+        pools = new ConcurrentHashMap<>();
+        joinedGames = new LinkedHashMap<>();
+        // Starting to generate games in advance for the default difficulty.
+        poolFor(DEFAULT_DIFFICULTY, DEFAULT_GRID_SIZE);
+        generationPool = new ForkJoinPool(config.getGeneratorParallelism());
+        batchGenerator = new BatchGenerator(generationPool);
+        fanout = new Fanout(this::send, config.getNotificationTimeoutMillis(), config.getNotificationDeadlineMillis());
+        relayTree = new RelayTree(config.getRelayFanout());
+        coalescer = new Coalescer(config.getCoalesceWindowMillis(), this::notifyPlayers);
+        dispatcher = new EventDispatcher();
+        // Applying the moves made by the other players to the local replica of each joined game,
+        // so that reading the grid does not need to retrieve it again.
+        // While the replica is catching up, the grid is retrieved through the cache, which is thus refreshed too.
+        dispatcher.on(MoveApplied.class, applied -> {
+            if (applyMove(applied.getGame(), applied.getMove()) && cache != null) {
+                cache.apply(applied.getGame(), applied.getMove()).exceptionally(recover(null));
+            }
+        });
+        // Starting to purge completed and abandoned games in the background.
+        sweeper = new GameSweeper(store, config.getPurgeIdleMillis());
+        sweeper.start(config.getPurgeIntervalMillis());
     }
 
     /**
@@ -585,23 +966,93 @@ public class SudokuGameImpl implements SudokuGame {
     private PeerDHT dht;
 
     /**
-     * The Sudoku for the peer.
+     * The settings for the peer.
+     */
+    private GameConfig config;
+
+    /**
+     * Where games are stored.
+     */
+    private GameStore store;
+
+    /**
+     * Cache of the grids read from the DHT, null if grids are not cached.
+     */
+    private CachingGameStore cache;
+
+    /**
+     * Storage logging the data of the DHT on disk, null if the data is kept in memory only.
      */
-    private Sudoku sudoku;
+    @Getter
+    private LogStorage storage;
 
     /**
-     * Games joined by the peer.
+     * Replication of the games stored by the peer, null if they are not replicated.
      */
-    private List<Integer[][]> games;
+    private IndirectReplication replication;
 
     /**
-     * Names of the games joined by the peer.
+     * Sweeper purging the games known by the peer once they are completed or abandoned.
      */
     @Getter
-    private List<String> gamesNames;
+    private GameSweeper sweeper;
+
+    /**
+     * The address the peer is known by as a player.
+     */
+    private PeerAddress self;
+
+    /**
+     * The listener for messages about games.
+     */
+    private MessageListener listener;
+
+    /**
+     * Sender of the notifications to the players of a game.
+     */
+    private Fanout fanout;
+
+    /**
+     * Tree of the players that notifications are relayed through in large games.
+     */
+    private RelayTree relayTree;
+
+    /**
+     * Holder of the notifications about each game, for sending those made within a short window together.
+     */
+    private Coalescer coalescer;
+
+    /**
+     * Dispatcher of the events received from other players, where handlers are registered for acting on them.
+     */
+    @Getter
+    private EventDispatcher dispatcher;
+
+    /**
+     * Games generated in advance by the peer, for each grid size and difficulty.
+     */
+    @Getter
+    private Map<GridSize, Map<Difficulty, SudokuPool>> pools;
+
+    /**
+     * Pool where games are generated in parallel.
+     */
+    private ForkJoinPool generationPool;
+
+    /**
+     * Generator for creating many games at once.
+     */
+    @Getter
+    private BatchGenerator batchGenerator;
+
+    /**
+     * Games joined by the peer, by name, in the order they have been joined.
+     */
+    private Map<String, JoinedGame> joinedGames;
 
     /**
-     * Nicknames used by the peer to join games.
+     * Prefix and suffix of the name of the log of the data stored by a peer, around the peer id.
      */
-    private List<String> gamesNicknames;
+    public static final String STORAGE_PREFIX = "peer-";
+    public static final String STORAGE_SUFFIX = ".log";
 }
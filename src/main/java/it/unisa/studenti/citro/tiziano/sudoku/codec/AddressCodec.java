@@ -0,0 +1,72 @@
+package it.unisa.studenti.citro.tiziano.sudoku.codec;
+
+import net.tomp2p.peers.PeerAddress;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provides a compact binary format for lists of peer addresses, so that they are sent without Java serialization.
+ * A list takes 2 bytes for the number of addresses and then the addresses one after the other,
+ * each taking a byte for its length and then the bytes of the address.
+ */
+public class AddressCodec {
+
+    /**
+     * Encodes a list of addresses.
+     * @param addresses are the addresses.
+     * @return the encoded list.
+     */
+    public static byte[] encode(List<PeerAddress> addresses) {
+        if (addresses.size() > MAX_COUNT) {
+            throw new IllegalArgumentException("Too many addresses " + addresses.size() + " for a list");
+        }
+        List<byte[]> encoded = new ArrayList<>(addresses.size());
+        int size = Short.BYTES;
+        for (PeerAddress address: addresses) {
+            byte[] bytes = address.toByteArray();
+            if (bytes.length > MAX_LENGTH) {
+                throw new IllegalArgumentException("Invalid length " + bytes.length + " for an encoded address");
+            }
+            encoded.add(bytes);
+            size += Byte.BYTES + bytes.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).putShort((short) addresses.size());
+        for (byte[] bytes: encoded) {
+            buffer.put((byte) bytes.length).put(bytes);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a list of addresses.
+     * @param data is the encoded list.
+     * @return the addresses, in the order they have been encoded.
+     */
+    public static List<PeerAddress> decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            int count = Short.toUnsignedInt(buffer.getShort());
+            List<PeerAddress> addresses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[Byte.toUnsignedInt(buffer.get())];
+                buffer.get(bytes);
+                addresses.add(new PeerAddress(bytes));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Invalid length " + data.length + " for an encoded list of addresses");
+            }
+            return addresses;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Invalid length " + data.length + " for an encoded list of addresses", e);
+        }
+    }
+
+    /**
+     * Maximum number of addresses in a list, and maximum length of an encoded address.
+     */
+    public static final int MAX_COUNT = 0xFFFF;
+    public static final int MAX_LENGTH = 0xFF;
+}
@@ -0,0 +1,189 @@
+package it.unisa.studenti.citro.tiziano.sudoku.codec;
+
+import it.unisa.studenti.citro.tiziano.sudoku.event.EventType;
+import it.unisa.studenti.citro.tiziano.sudoku.event.GameCompleted;
+import it.unisa.studenti.citro.tiziano.sudoku.event.GameEvent;
+import it.unisa.studenti.citro.tiziano.sudoku.event.MoveApplied;
+import it.unisa.studenti.citro.tiziano.sudoku.event.PlayerJoined;
+import it.unisa.studenti.citro.tiziano.sudoku.event.PlayerLeft;
+import it.unisa.studenti.citro.tiziano.sudoku.event.ScoreChanged;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provides a compact binary format for the events sent to the players of a game, so that they are sent
+ * without Java serialization and read back as events instead of text.
+ * A message takes 2 bytes for the number of events and then the events one after the other.
+ * An event takes a byte for its type and the game name, followed by:
+ * - for a move, 8 bytes for its sequence number, a byte each for the row, the column and the number, and the player;
+ * - for a score, the player, 4 bytes for how much it has changed and 4 bytes for the new score;
+ * - for a completed game, the player, 2 bytes for the number of scores and then each nickname with its score in 4 bytes;
+ * - for a player joined or left, the player.
+ * Names and nicknames take 2 bytes for their length and then their UTF-8 bytes.
+ */
+public class EventCodec {
+
+    /**
+     * Encodes the events of a message.
+     * @param events are the events.
+     * @return the encoded message.
+     */
+    public static byte[] encode(List<GameEvent> events) {
+        if (events.size() > MAX_COUNT) {
+            throw new IllegalArgumentException("Too many events " + events.size() + " for a message");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(events.size());
+            for (GameEvent event: events) {
+                write(out, event);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the events of a message.
+     * @param data is the encoded message.
+     * @return the events, in the order they have been encoded.
+     */
+    public static List<GameEvent> decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            int count = Short.toUnsignedInt(buffer.getShort());
+            List<GameEvent> events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                events.add(read(buffer));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Invalid length " + data.length + " for an encoded message");
+            }
+            return events;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Invalid length " + data.length + " for an encoded message", e);
+        }
+    }
+
+    /**
+     * Writes an event.
+     * @param out is where the event is written.
+     * @param event is the event.
+     * @throws IOException if the event could not be written.
+     */
+    private static void write(DataOutputStream out, GameEvent event) throws IOException {
+        out.writeByte(event.getType().getCode());
+        writeString(out, event.getGame());
+        switch (event.getType()) {
+            case MOVE_APPLIED:
+                Move move = ((MoveApplied) event).getMove();
+                out.writeLong(move.getSequence());
+                out.writeByte(move.getRow());
+                out.writeByte(move.getColumn());
+                out.writeByte(move.getNumber());
+                writeString(out, move.getPlayer());
+                break;
+            case SCORE_CHANGED:
+                ScoreChanged changed = (ScoreChanged) event;
+                writeString(out, changed.getNickname());
+                out.writeInt(changed.getDelta());
+                out.writeInt(changed.getScore());
+                break;
+            case GAME_COMPLETED:
+                GameCompleted completed = (GameCompleted) event;
+                writeString(out, completed.getNickname());
+                if (completed.getScores().size() > MAX_COUNT) {
+                    throw new IllegalArgumentException("Too many scores " + completed.getScores().size() + " for an event");
+                }
+                out.writeShort(completed.getScores().size());
+                for (Map.Entry<String, Integer> score: completed.getScores().entrySet()) {
+                    writeString(out, score.getKey());
+                    out.writeInt(score.getValue());
+                }
+                break;
+            case PLAYER_JOINED:
+                writeString(out, ((PlayerJoined) event).getNickname());
+                break;
+            case PLAYER_LEFT:
+                writeString(out, ((PlayerLeft) event).getNickname());
+                break;
+        }
+    }
+
+    /**
+     * Reads an event.
+     * @param buffer is where the event is read from.
+     * @return the event.
+     */
+    private static GameEvent read(ByteBuffer buffer) {
+        EventType type = EventType.of(buffer.get());
+        String game = readString(buffer);
+        switch (type) {
+            case MOVE_APPLIED:
+                long sequence = buffer.getLong();
+                int row = buffer.get();
+                int column = buffer.get();
+                int number = buffer.get();
+                return new MoveApplied(game, new Move(sequence, row, column, number, readString(buffer)));
+            case SCORE_CHANGED:
+                String nickname = readString(buffer);
+                int delta = buffer.getInt();
+                return new ScoreChanged(game, nickname, delta, buffer.getInt());
+            case GAME_COMPLETED:
+                String last = readString(buffer);
+                int count = Short.toUnsignedInt(buffer.getShort());
+                LinkedHashMap<String, Integer> scores = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    scores.put(readString(buffer), buffer.getInt());
+                }
+                return new GameCompleted(game, last, scores);
+            case PLAYER_JOINED:
+                return new PlayerJoined(game, readString(buffer));
+            default:
+                return new PlayerLeft(game, readString(buffer));
+        }
+    }
+
+    /**
+     * Writes a name or a nickname.
+     * @param out is where the string is written.
+     * @param value is the string.
+     * @throws IOException if the string could not be written.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_COUNT) {
+            throw new IllegalArgumentException("Invalid length " + bytes.length + " for a name in an event");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a name or a nickname.
+     * @param buffer is where the string is read from.
+     * @return the string.
+     */
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Largest number of events in a message, of scores in an event and of bytes in a name.
+     */
+    public static final int MAX_COUNT = 0xFFFF;
+}
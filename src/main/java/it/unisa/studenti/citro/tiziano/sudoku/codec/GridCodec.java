@@ -0,0 +1,115 @@
+package it.unisa.studenti.citro.tiziano.sudoku.codec;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.TOTAL_BLOCK_NUMBER;
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.toBlockSize;
+
+/**
+ * Provides a compact binary format for grids, so that they are stored without Java serialization.
+ * Cells are packed row by row, most significant bits first, with as many bits as the largest number needs.
+ * A 9 x 9 grid takes 4 bits per cell, that is 41 bytes, while larger grids
+ * start with a byte for their block size, e.g. 161 bytes for 16 x 16 and 392 bytes for 25 x 25.
+ */
+public class GridCodec {
+
+    /**
+     * Encodes a grid.
+     * @param cells are the numbers in the grid, 0 for empty cells.
+     * @return the encoded grid.
+     */
+    public static byte[] encode(Integer[][] cells) {
+        int gridSize = cells.length;
+        byte[] flat = new byte[gridSize * gridSize];
+        for (int i = 0; i < gridSize; i++) {
+            for (int j = 0; j < gridSize; j++) {
+                flat[i * gridSize + j] = cells[i][j].byteValue();
+            }
+        }
+        return encode(flat);
+    }
+
+    /**
+     * Encodes a grid.
+     * @param cells are the numbers in the grid, row by row, 0 for empty cells.
+     * @return the encoded grid.
+     */
+    public static byte[] encode(byte[] cells) {
+        int gridSize = (int) Math.round(Math.sqrt(cells.length));
+        int bits = bitsPerCell(gridSize);
+        int header = gridSize == TOTAL_BLOCK_NUMBER ? 0 : HEADER_SIZE;
+        byte[] data = new byte[header + (cells.length * bits + Byte.SIZE - 1) / Byte.SIZE];
+        if (header > 0) {
+            data[0] = (byte) toBlockSize(gridSize);
+        }
+        int position = header * Byte.SIZE;
+        for (byte cell: cells) {
+            for (int bit = bits - 1; bit >= 0; bit--, position++) {
+                if ((cell >>> bit & 1) != 0) {
+                    data[position / Byte.SIZE] |= (byte) (0x80 >>> position % Byte.SIZE);
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Decodes a grid.
+     * @param data is the encoded grid.
+     * @return the numbers in the grid, 0 for empty cells.
+     */
+    public static Integer[][] decode(byte[] data) {
+        byte[] cells = decodeCells(data);
+        int gridSize = (int) Math.round(Math.sqrt(cells.length));
+        Integer[][] cellsNumbers = new Integer[gridSize][gridSize];
+        for (int i = 0; i < cells.length; i++) {
+            cellsNumbers[i / gridSize][i % gridSize] = (int) cells[i];
+        }
+        return cellsNumbers;
+    }
+
+    /**
+     * Decodes a grid.
+     * @param data is the encoded grid.
+     * @return the numbers in the grid, row by row, 0 for empty cells.
+     */
+    public static byte[] decodeCells(byte[] data) {
+        int header = data.length == NINE_BY_NINE_SIZE ? 0 : HEADER_SIZE;
+        int blockSize = header == 0 ? toBlockSize(TOTAL_BLOCK_NUMBER) : data[0];
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Invalid block size " + blockSize + " for an encoded grid");
+        }
+        int gridSize = blockSize * blockSize;
+        int bits = bitsPerCell(gridSize);
+        byte[] cells = new byte[gridSize * gridSize];
+        if (data.length != header + (cells.length * bits + Byte.SIZE - 1) / Byte.SIZE) {
+            throw new IllegalArgumentException("Invalid length " + data.length + " for an encoded grid");
+        }
+        int position = header * Byte.SIZE;
+        for (int i = 0; i < cells.length; i++) {
+            int cell = 0;
+            for (int bit = 0; bit < bits; bit++, position++) {
+                cell = cell << 1 | (data[position / Byte.SIZE] >>> (Byte.SIZE - 1 - position % Byte.SIZE) & 1);
+            }
+            cells[i] = (byte) cell;
+        }
+        return cells;
+    }
+
+    /**
+     * Provides the number of bits needed for the numbers in a grid.
+     * @param gridSize is the size of the grid.
+     * @return the number of bits per cell.
+     */
+    private static int bitsPerCell(int gridSize) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(gridSize);
+    }
+
+    /**
+     * Size of the header for grids other than 9 x 9.
+     */
+    public static final int HEADER_SIZE = 1;
+
+    /**
+     * Size of an encoded 9 x 9 grid.
+     */
+    public static final int NINE_BY_NINE_SIZE = 41;
+}
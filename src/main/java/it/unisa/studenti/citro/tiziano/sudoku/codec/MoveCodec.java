@@ -0,0 +1,49 @@
+package it.unisa.studenti.citro.tiziano.sudoku.codec;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Provides a compact binary format for moves, so that they are stored without Java serialization.
+ * A move takes 8 bytes for its sequence number, a byte each for the row, the column and the number,
+ * and then the nickname of the player in UTF-8.
+ */
+public class MoveCodec {
+
+    /**
+     * Encodes a move.
+     * @param move is the move.
+     * @return the encoded move.
+     */
+    public static byte[] encode(Move move) {
+        byte[] player = move.getPlayer().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(HEADER_SIZE + player.length).putLong(move.getSequence())
+                .put((byte) move.getRow()).put((byte) move.getColumn()).put((byte) move.getNumber())
+                .put(player).array();
+    }
+
+    /**
+     * Decodes a move.
+     * @param data is the encoded move.
+     * @return the move.
+     */
+    public static Move decode(byte[] data) {
+        if (data.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Invalid length " + data.length + " for an encoded move");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long sequence = buffer.getLong();
+        int row = buffer.get();
+        int column = buffer.get();
+        int number = buffer.get();
+        return new Move(sequence, row, column, number,
+                new String(data, HEADER_SIZE, data.length - HEADER_SIZE, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Size of an encoded move without the nickname of its player.
+     */
+    public static final int HEADER_SIZE = Long.BYTES + 3 * Byte.BYTES;
+}
@@ -0,0 +1,45 @@
+package it.unisa.studenti.citro.tiziano.sudoku.codec;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.PlayerScore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Provides a compact binary format for the score of a player, so that it is stored without Java serialization.
+ * A score takes 8 bytes for when the player has joined, 4 bytes for the score and then the nickname in UTF-8.
+ */
+public class ScoreCodec {
+
+    /**
+     * Encodes the score of a player.
+     * @param score is the score of the player.
+     * @return the encoded score.
+     */
+    public static byte[] encode(PlayerScore score) {
+        byte[] nickname = score.getNickname().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(HEADER_SIZE + nickname.length)
+                .putLong(score.getJoined()).putInt(score.getScore()).put(nickname).array();
+    }
+
+    /**
+     * Decodes the score of a player.
+     * @param data is the encoded score.
+     * @return the score of the player.
+     */
+    public static PlayerScore decode(byte[] data) {
+        if (data.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Invalid length " + data.length + " for an encoded score");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long joined = buffer.getLong();
+        int score = buffer.getInt();
+        return new PlayerScore(new String(data, HEADER_SIZE, data.length - HEADER_SIZE, StandardCharsets.UTF_8),
+                score, joined);
+    }
+
+    /**
+     * Size of an encoded score without its nickname.
+     */
+    public static final int HEADER_SIZE = Long.BYTES + Integer.BYTES;
+}
@@ -0,0 +1,225 @@
+package it.unisa.studenti.citro.tiziano.sudoku.config;
+
+import it.unisa.studenti.citro.tiziano.sudoku.store.StoreType;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Models the settings a peer uses for playing the Sudoku game.
+ */
+@Getter
+@Builder
+public class GameConfig {
+
+    /**
+     * Provides the default settings.
+     * @return the default settings.
+     */
+    public static GameConfig defaults() {
+        return GameConfig.builder().build();
+    }
+
+    /**
+     * Maximum number of games generated in advance, 0 for generating every game on demand.
+     */
+    @Builder.Default
+    private int poolCapacity = DEFAULT_POOL_CAPACITY;
+
+    /**
+     * Number of games left in the pool that triggers a refill.
+     */
+    @Builder.Default
+    private int poolLowWaterMark = DEFAULT_POOL_LOW_WATER_MARK;
+
+    /**
+     * Number of threads generating games in parallel when many games are created at once.
+     */
+    @Builder.Default
+    private int generatorParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Where games are stored, in the DHT shared with other peers or in memory, without any network.
+     */
+    @Builder.Default
+    private StoreType store = StoreType.DHT;
+
+    /**
+     * Maximum number of times an update of shared game data is retried when it conflicts with another one.
+     */
+    @Builder.Default
+    private int updateMaxRetries = DEFAULT_UPDATE_MAX_RETRIES;
+
+    /**
+     * Base backoff in milliseconds before retrying an update, doubled at each retry.
+     */
+    @Builder.Default
+    private long updateBackoffMillis = DEFAULT_UPDATE_BACKOFF_MILLIS;
+
+    /**
+     * Maximum backoff in milliseconds before retrying an update.
+     */
+    @Builder.Default
+    private long updateMaxBackoffMillis = DEFAULT_UPDATE_MAX_BACKOFF_MILLIS;
+
+    /**
+     * Whether the grids read from the DHT are cached, so that reading them again costs no request.
+     */
+    @Builder.Default
+    private boolean gridCache = true;
+
+    /**
+     * How long in milliseconds a cached grid is read without checking whether some move has been made in the meantime,
+     * in case a notification about it has been lost.
+     */
+    @Builder.Default
+    private long gridCacheMaxStalenessMillis = DEFAULT_GRID_CACHE_MAX_STALENESS_MILLIS;
+
+    /**
+     * Number of moves after which the grid of a game is stored again as a whole, so that older moves are dropped.
+     */
+    @Builder.Default
+    private int snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+
+    /**
+     * How long in seconds the data of a game is kept in the DHT since it has been last written, 0 for keeping it forever.
+     */
+    @Builder.Default
+    private int gameTtlSeconds = DEFAULT_GAME_TTL_SECONDS;
+
+    /**
+     * Number of peers the data stored by the peer is replicated to, 0 for not replicating it.
+     */
+    @Builder.Default
+    private int replicationFactor = DEFAULT_REPLICATION_FACTOR;
+
+    /**
+     * How often in milliseconds the games known by the peer are checked for being purged, 0 for never purging them.
+     */
+    @Builder.Default
+    private long purgeIntervalMillis = DEFAULT_PURGE_INTERVAL_MILLIS;
+
+    /**
+     * How long in milliseconds a completed or abandoned game is kept with no moves before being purged.
+     */
+    @Builder.Default
+    private long purgeIdleMillis = DEFAULT_PURGE_IDLE_MILLIS;
+
+    /**
+     * Directory where the peer keeps the log of the data it stores in the DHT, so that it recovers the data
+     * when restarted, null for keeping the data in memory only.
+     */
+    private String storageDirectory;
+
+    /**
+     * How long in milliseconds a notification to a single player may take before the player is given up.
+     */
+    @Builder.Default
+    private long notificationTimeoutMillis = DEFAULT_NOTIFICATION_TIMEOUT_MILLIS;
+
+    /**
+     * How long in milliseconds the notifications to all the players of a game may take together.
+     */
+    @Builder.Default
+    private long notificationDeadlineMillis = DEFAULT_NOTIFICATION_DEADLINE_MILLIS;
+
+    /**
+     * Whether placing a number waits for the other players to be notified, unless asked otherwise.
+     */
+    @Builder.Default
+    private boolean awaitDelivery = false;
+
+    /**
+     * Number of players above which notifications are relayed through a tree of the players
+     * instead of being sent by the peer to each of them, 0 for never relaying them.
+     */
+    @Builder.Default
+    private int relayThreshold = DEFAULT_RELAY_THRESHOLD;
+
+    /**
+     * Number of players each player relays notifications to, when they are relayed.
+     */
+    @Builder.Default
+    private int relayFanout = DEFAULT_RELAY_FANOUT;
+
+    /**
+     * How long in milliseconds the notifications about a game are held back for being sent together,
+     * 0 for sending each of them at once.
+     */
+    @Builder.Default
+    private long coalesceWindowMillis = 0;
+
+    /**
+     * Default maximum number of games generated in advance.
+     */
+    public static final int DEFAULT_POOL_CAPACITY = 16;
+
+    /**
+     * Default number of games left in the pool that triggers a refill.
+     */
+    public static final int DEFAULT_POOL_LOW_WATER_MARK = 4;
+
+    /**
+     * Default maximum number of times an update is retried.
+     */
+    public static final int DEFAULT_UPDATE_MAX_RETRIES = 16;
+
+    /**
+     * Default base backoff in milliseconds before retrying an update.
+     */
+    public static final long DEFAULT_UPDATE_BACKOFF_MILLIS = 2;
+
+    /**
+     * Default maximum backoff in milliseconds before retrying an update.
+     */
+    public static final long DEFAULT_UPDATE_MAX_BACKOFF_MILLIS = 200;
+
+    /**
+     * Default time in milliseconds a cached grid is read without checking it.
+     */
+    public static final long DEFAULT_GRID_CACHE_MAX_STALENESS_MILLIS = 2000;
+
+    /**
+     * Default number of moves after which the grid of a game is stored again as a whole.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 16;
+
+    /**
+     * Default time in seconds the data of a game is kept since it has been last written, a week.
+     */
+    public static final int DEFAULT_GAME_TTL_SECONDS = 7 * 24 * 60 * 60;
+
+    /**
+     * Default number of peers the data stored by the peer is replicated to.
+     */
+    public static final int DEFAULT_REPLICATION_FACTOR = 3;
+
+    /**
+     * Default time in milliseconds between checks of the games to purge.
+     */
+    public static final long DEFAULT_PURGE_INTERVAL_MILLIS = 60_000;
+
+    /**
+     * Default time in milliseconds a completed or abandoned game is kept with no moves.
+     */
+    public static final long DEFAULT_PURGE_IDLE_MILLIS = 10 * 60_000;
+
+    /**
+     * Default time in milliseconds a notification to a single player may take.
+     */
+    public static final long DEFAULT_NOTIFICATION_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * Default time in milliseconds the notifications to all the players of a game may take together.
+     */
+    public static final long DEFAULT_NOTIFICATION_DEADLINE_MILLIS = 3000;
+
+    /**
+     * Default number of players above which notifications are relayed.
+     */
+    public static final int DEFAULT_RELAY_THRESHOLD = 32;
+
+    /**
+     * Default number of players each player relays notifications to.
+     */
+    public static final int DEFAULT_RELAY_FANOUT = 4;
+}
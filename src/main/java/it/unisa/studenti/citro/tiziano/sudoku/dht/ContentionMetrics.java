@@ -0,0 +1,99 @@
+package it.unisa.studenti.citro.tiziano.sudoku.dht;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Models the metrics about concurrent updates of the same data,
+ * so that it can be checked how often updates are retried because of other peers.
+ */
+public class ContentionMetrics {
+
+    /**
+     * Records that an update has started.
+     */
+    public void operationStarted() {
+        operations.increment();
+    }
+
+    /**
+     * Records that an update has been attempted.
+     */
+    public void attempted() {
+        attempts.increment();
+    }
+
+    /**
+     * Records that an attempt has failed because of a concurrent update.
+     */
+    public void conflicted() {
+        conflicts.increment();
+    }
+
+    /**
+     * Records that an update has given up after retrying too many times.
+     */
+    public void failed() {
+        failures.increment();
+    }
+
+    /**
+     * Provides the number of updates.
+     * @return the number of updates.
+     */
+    public long getOperations() {
+        return operations.sum();
+    }
+
+    /**
+     * Provides the number of attempts, one for each update plus one for each retry.
+     * @return the number of attempts.
+     */
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    /**
+     * Provides the number of attempts failed because of a concurrent update.
+     * @return the number of conflicts.
+     */
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    /**
+     * Provides the number of updates that have given up.
+     * @return the number of failures.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Provides the average number of retries for each update.
+     * @return the retries per update, 0 if there have been no updates.
+     */
+    public double getRetriesPerOperation() {
+        long operations = getOperations();
+        return operations == 0 ? 0 : (double) (getAttempts() - operations) / operations;
+    }
+
+    /**
+     * Number of updates.
+     */
+    private final LongAdder operations = new LongAdder();
+
+    /**
+     * Number of attempts.
+     */
+    private final LongAdder attempts = new LongAdder();
+
+    /**
+     * Number of attempts failed because of a concurrent update.
+     */
+    private final LongAdder conflicts = new LongAdder();
+
+    /**
+     * Number of updates that have given up.
+     */
+    private final LongAdder failures = new LongAdder();
+}
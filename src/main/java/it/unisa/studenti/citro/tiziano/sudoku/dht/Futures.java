@@ -0,0 +1,97 @@
+package it.unisa.studenti.citro.tiziano.sudoku.dht;
+
+import net.tomp2p.futures.BaseFuture;
+import net.tomp2p.futures.BaseFutureAdapter;
+import net.tomp2p.futures.BaseFutureImpl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Provides CompletableFutures for the futures of the DHT, completed by their listeners,
+ * so that operations are chained without any thread waiting for them.
+ */
+public class Futures {
+
+    /**
+     * Provides a future completed when a future of the DHT is completed.
+     * @param future is the future of the DHT.
+     * @param <F> is the type of the future of the DHT.
+     * @return the future, completed with the future of the DHT, whether it has succeeded or failed.
+     */
+    public static <F extends BaseFuture> CompletableFuture<F> toCompletable(BaseFutureImpl<F> future) {
+        CompletableFuture<F> completable = new CompletableFuture<>();
+        future.addListener(new BaseFutureAdapter<F>() {
+
+            @Override
+            public void operationComplete(F completed) {
+                completable.complete(completed);
+            }
+
+            @Override
+            public void exceptionCaught(Throwable t) {
+                completable.completeExceptionally(t);
+            }
+        });
+        return completable;
+    }
+
+    /**
+     * Provides a future completed after a delay, without any thread waiting for it.
+     * @param millis is the delay in milliseconds.
+     * @return the future.
+     */
+    public static CompletableFuture<Void> delay(long millis) {
+        CompletableFuture<Void> delayed = new CompletableFuture<>();
+        SCHEDULER.schedule(() -> delayed.complete(null), millis, TimeUnit.MILLISECONDS);
+        return delayed;
+    }
+
+    /**
+     * Provides a future completed as another future, unless the other future takes longer than a deadline,
+     * in which case it is completed with a timeout at the deadline, without any thread waiting for it.
+     * @param future is the other future.
+     * @param millis is the deadline in milliseconds.
+     * @param <T> is the type of the result of the future.
+     * @return the future.
+     */
+    public static <T> CompletableFuture<T> within(CompletableFuture<T> future, long millis) {
+        CompletableFuture<T> bounded = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = SCHEDULER.schedule(
+                () -> bounded.completeExceptionally(new TimeoutException()), millis, TimeUnit.MILLISECONDS);
+        future.whenComplete((result, e) -> {
+            timeout.cancel(false);
+            if (e == null) {
+                bounded.complete(result);
+            } else {
+                bounded.completeExceptionally(e);
+            }
+        });
+        return bounded;
+    }
+
+    /**
+     * Provides a future already completed because of an error.
+     * @param t is the error.
+     * @param <T> is the type of the result of the future.
+     * @return the future.
+     */
+    public static <T> CompletableFuture<T> failed(Throwable t) {
+        CompletableFuture<T> failed = new CompletableFuture<>();
+        failed.completeExceptionally(t);
+        return failed;
+    }
+
+    /**
+     * Scheduler for delayed futures and deadlines, with a single daemon thread.
+     */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sudoku-delay");
+        thread.setDaemon(true);
+        return thread;
+    });
+}
@@ -0,0 +1,383 @@
+package it.unisa.studenti.citro.tiziano.sudoku.dht;
+
+import lombok.Getter;
+import net.tomp2p.dht.StorageMemory;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number640;
+import net.tomp2p.storage.Data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Stores the data of the DHT in memory, as the default storage does, and appends every change to a log on disk,
+ * so that a peer restarted on the same log recovers everything it was storing.
+ * Reads never touch the disk, thus they take as long as with the default storage, while each change costs
+ * a single append, handed to the operating system at once, so that it survives the process but not the machine
+ * crashing until the log is closed.
+ * The log is replayed when the storage is built, dropping the data expired in the meantime,
+ * and it is rewritten with the live data only once most of it is made of overwritten or removed data.
+ * A change torn by a crash at the end of the log is ignored, and the log is rewritten without it.
+ */
+public class LogStorage extends StorageMemory {
+
+    /**
+     * Builds a storage backed by a log, replaying the log if it exists already.
+     * @param file is the log file.
+     * @throws IOException if the log cannot be read or opened for appending.
+     */
+    public LogStorage(Path file) throws IOException {
+        this.file = file;
+        this.compacting = file.resolveSibling(file.getFileName() + COMPACTING_SUFFIX);
+        long start = System.nanoTime();
+        boolean torn = Files.exists(file) && replay();
+        if (torn || garbage > records / 2) {
+            rewrite();
+        }
+        out = open();
+        recoveryMillis = (System.nanoTime() - start) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Stores some data, appending it to the log.
+     * @param key is the key of the data.
+     * @param value is the data.
+     * @return the data previously stored under the key, null if there was none.
+     */
+    @Override
+    public synchronized Data put(Number640 key, Data value) {
+        Data previous = super.put(key, value);
+        if (previous != null) {
+            garbage++;
+        }
+        append(key, value);
+        return previous;
+    }
+
+    /**
+     * Removes some data, appending the removal to the log.
+     * @param key is the key of the data.
+     * @param returnData is whether the data removed is returned.
+     * @return the data removed if asked for, null otherwise.
+     */
+    @Override
+    public synchronized Data remove(Number640 key, boolean returnData) {
+        Data removed = super.remove(key, true);
+        if (removed != null) {
+            // Both the data and its removal are garbage from now on.
+            garbage += 2;
+            append(key, null);
+        }
+        return returnData ? removed : null;
+    }
+
+    /**
+     * Removes all the data between two keys, appending each removal to the log.
+     * @param from is the first key, included.
+     * @param to is the last key, included.
+     * @return the data removed, by key.
+     */
+    @Override
+    public synchronized NavigableMap<Number640, Data> remove(Number640 from, Number640 to) {
+        NavigableMap<Number640, Data> removed = super.remove(from, to);
+        if (removed != null) {
+            for (Number640 key: removed.keySet()) {
+                garbage += 2;
+                append(key, null);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Forces the log to disk and closes it, after which changes are kept in memory only.
+     */
+    @Override
+    public synchronized void close() {
+        if (out != null) {
+            try {
+                out.flush();
+                channel.force(true);
+                out.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            out = null;
+        }
+        super.close();
+    }
+
+    /**
+     * Rewrites the log with the live data only, replacing the old log at once once the new one is on disk.
+     */
+    public synchronized void compact() {
+        try {
+            if (out != null) {
+                out.close();
+            }
+            rewrite();
+            out = open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Replays the log on the data in memory.
+     * @return true if the log ends with a torn change, false otherwise.
+     * @throws IOException if the log cannot be read.
+     */
+    private boolean replay() throws IOException {
+        Map<Number640, Long> expirations = new HashMap<>();
+        boolean torn = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            while (true) {
+                int type = in.read();
+                if (type == -1) {
+                    break;
+                }
+                if (type != PUT && type != REMOVE) {
+                    // Whatever follows has been torn by a crash while appending.
+                    torn = true;
+                    break;
+                }
+                Number640 key = new Number640(readNumber(in), readNumber(in), readNumber(in), readNumber(in));
+                if (type == REMOVE) {
+                    records++;
+                    garbage += super.remove(key, true) == null ? 1 : 2;
+                    expirations.remove(key);
+                    continue;
+                }
+                long expiration = in.readLong();
+                boolean prepared = in.readBoolean();
+                Number160[] basedOn = new Number160[in.readUnsignedShort()];
+                for (int i = 0; i < basedOn.length; i++) {
+                    basedOn[i] = readNumber(in);
+                }
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                Data data = new Data(bytes);
+                if (prepared) {
+                    data.prepareFlag();
+                }
+                for (Number160 version: basedOn) {
+                    data.addBasedOn(version);
+                }
+                records++;
+                if (super.put(key, data) != null) {
+                    garbage++;
+                }
+                if (expiration == NO_EXPIRATION) {
+                    expirations.remove(key);
+                } else {
+                    expirations.put(key, expiration);
+                }
+            }
+        } catch (EOFException e) {
+            torn = true;
+        }
+        expire(expirations);
+        recovered = records - garbage;
+        return torn;
+    }
+
+    /**
+     * Drops the data expired while the log was closed, and schedules the expiration of the rest.
+     * @param expirations are the expiration times of the data with a time to live, by key.
+     */
+    private void expire(Map<Number640, Long> expirations) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Number640, Long> entry: expirations.entrySet()) {
+            long remaining = entry.getValue() - now;
+            if (remaining <= 0) {
+                super.remove(entry.getKey(), false);
+                garbage += 2;
+                continue;
+            }
+            Data data = super.get(entry.getKey());
+            if (data != null) {
+                data.ttlSeconds((int) Math.max(1, remaining / MILLIS_PER_SECOND));
+                addTimeout(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Writes the live data to a new log and then replaces the old log with it.
+     * @throws IOException if the new log cannot be written.
+     */
+    private void rewrite() throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(compacting.toFile());
+             DataOutputStream log = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE))) {
+            long written = 0;
+            for (Map.Entry<Number640, Data> entry: map().entrySet()) {
+                write(log, entry.getKey(), entry.getValue());
+                written++;
+            }
+            log.flush();
+            stream.getChannel().force(true);
+            records = written;
+            garbage = 0;
+        }
+        Files.move(compacting, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Opens the log for appending.
+     * @return the stream appending to the log.
+     * @throws IOException if the log cannot be opened.
+     */
+    private DataOutputStream open() throws IOException {
+        FileOutputStream stream = new FileOutputStream(file.toFile(), true);
+        channel = stream.getChannel();
+        return new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+    }
+
+    /**
+     * Appends a change to the log, handing it to the operating system at once,
+     * and rewrites the log when most of it is garbage.
+     * @param key is the key of the data changed.
+     * @param value is the data stored, null if the data has been removed.
+     */
+    private void append(Number640 key, Data value) {
+        if (out == null) {
+            return;
+        }
+        try {
+            write(out, key, value);
+            out.flush();
+            records++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (garbage >= COMPACTION_THRESHOLD && garbage > records / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Writes a change to a log.
+     * @param log is the log.
+     * @param key is the key of the data changed.
+     * @param value is the data stored, null if the data has been removed.
+     * @throws IOException if the change cannot be written.
+     */
+    private static void write(DataOutputStream log, Number640 key, Data value) throws IOException {
+        log.write(value == null ? REMOVE : PUT);
+        log.write(key.locationKey().toByteArray());
+        log.write(key.domainKey().toByteArray());
+        log.write(key.contentKey().toByteArray());
+        log.write(key.versionKey().toByteArray());
+        if (value == null) {
+            return;
+        }
+        log.writeLong(value.ttlSeconds() > 0 ? value.expirationMillis() : NO_EXPIRATION);
+        log.writeBoolean(value.hasPrepareFlag());
+        log.writeShort(value.basedOnSet().size());
+        for (Number160 version: value.basedOnSet()) {
+            log.write(version.toByteArray());
+        }
+        byte[] bytes = value.toBytes();
+        log.writeInt(bytes.length);
+        log.write(bytes);
+    }
+
+    /**
+     * Reads a number from a log.
+     * @param in is the log.
+     * @return the number.
+     * @throws IOException if the number cannot be read.
+     */
+    private static Number160 readNumber(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[Number160.BYTE_ARRAY_SIZE];
+        in.readFully(bytes);
+        return new Number160(bytes);
+    }
+
+    /**
+     * The log file.
+     */
+    private final Path file;
+
+    /**
+     * The file the log is rewritten to before replacing it.
+     */
+    private final Path compacting;
+
+    /**
+     * The stream appending to the log, null once the log is closed.
+     */
+    private DataOutputStream out;
+
+    /**
+     * The channel of the log, for forcing it to disk.
+     */
+    private FileChannel channel;
+
+    /**
+     * Number of changes in the log.
+     */
+    private long records;
+
+    /**
+     * Number of changes in the log overwritten or removed since.
+     */
+    private long garbage;
+
+    /**
+     * Number of entries recovered from the log when the storage has been built.
+     */
+    @Getter
+    private long recovered;
+
+    /**
+     * How long in milliseconds recovering the log has taken.
+     */
+    @Getter
+    private final long recoveryMillis;
+
+    /**
+     * Types of the changes in the log.
+     */
+    private static final int PUT = 1;
+    private static final int REMOVE = 2;
+
+    /**
+     * Expiration time of data with no time to live.
+     */
+    private static final long NO_EXPIRATION = -1;
+
+    /**
+     * Minimum number of garbage changes before the log is rewritten while the storage is in use.
+     */
+    public static final long COMPACTION_THRESHOLD = 1 << 16;
+
+    /**
+     * Size in bytes of the buffers used for reading and writing the log.
+     */
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Suffix of the file the log is rewritten to.
+     */
+    public static final String COMPACTING_SUFFIX = ".compacting";
+
+    /**
+     * Conversions between time units.
+     */
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private static final long MILLIS_PER_SECOND = 1000;
+}
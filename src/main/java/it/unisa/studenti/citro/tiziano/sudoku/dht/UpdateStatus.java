@@ -0,0 +1,10 @@
+package it.unisa.studenti.citro.tiziano.sudoku.dht;
+
+/**
+ * Models the outcome of a versioned update.
+ */
+public enum UpdateStatus {
+    UPDATED,
+    UNCHANGED,
+    FAILED
+}
@@ -0,0 +1,268 @@
+package it.unisa.studenti.citro.tiziano.sudoku.dht;
+
+import lombok.Getter;
+import net.tomp2p.dht.FuturePut;
+import net.tomp2p.dht.PeerDHT;
+import net.tomp2p.dht.StorageLayer.PutStatus;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number640;
+import net.tomp2p.peers.PeerAddress;
+import net.tomp2p.storage.Data;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.Futures.delay;
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.Futures.toCompletable;
+
+/**
+ * Provides optimistic updates of data in the DHT, so that concurrent updates are never lost.
+ * Each update reads the latest version, changes it and stores it as a new version based on the one read,
+ * in two phases: the new version is prepared first and then confirmed, unless some peer reports a version fork,
+ * meaning that another update has been stored in the meantime. In that case the prepared version is removed
+ * and the update is retried from the latest version, after a random backoff, up to a maximum number of times.
+ * Every step is chained on the futures of the DHT, so no thread waits for an update, not even during the backoff.
+ */
+public class VersionedUpdater {
+
+    /**
+     * Builds an updater for a given DHT.
+     * @param dht is the DHT where data is stored.
+     * @param domainKey is the domain of the data.
+     * @param maxRetries is the maximum number of times an update is retried.
+     * @param backoffMillis is the base backoff, doubled at each retry.
+     * @param maxBackoffMillis is the maximum backoff.
+     */
+    public VersionedUpdater(PeerDHT dht, Number160 domainKey, int maxRetries, long backoffMillis, long maxBackoffMillis) {
+        this.dht = dht;
+        this.domainKey = domainKey;
+        this.maxRetries = maxRetries;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.metrics = new ContentionMetrics();
+    }
+
+    /**
+     * Updates data in the DHT, in the domain of the updater.
+     * @param locationKey is the location key of the data.
+     * @param contentKey is the content key of the data.
+     * @param update is the change to apply to the latest version of the data.
+     * @return a future for the outcome of the update.
+     */
+    public CompletableFuture<UpdateStatus> update(Number160 locationKey, Number160 contentKey, Update update) {
+        return update(locationKey, domainKey, contentKey, update);
+    }
+
+    /**
+     * Updates data in the DHT, in a given domain.
+     * @param locationKey is the location key of the data.
+     * @param domainKey is the domain of the data.
+     * @param contentKey is the content key of the data.
+     * @param update is the change to apply to the latest version of the data.
+     * @return a future for the outcome of the update.
+     */
+    public CompletableFuture<UpdateStatus> update(Number160 locationKey, Number160 domainKey, Number160 contentKey,
+                                                  Update update) {
+        metrics.operationStarted();
+        return attempt(new Number640(locationKey, domainKey, contentKey, Number160.ZERO), update, 0);
+    }
+
+    /**
+     * Attempts to update data in the DHT, retrying if the data has been updated concurrently.
+     * @param key is the key of the data, whose version is ignored.
+     * @param update is the change to apply to the latest version of the data.
+     * @param attempt is the number of the attempt, starting from 0.
+     * @return a future for the outcome of the update.
+     */
+    private CompletableFuture<UpdateStatus> attempt(Number640 key, Update update, int attempt) {
+        metrics.attempted();
+        return toCompletable(dht.get(key.locationKey()).domainKey(key.domainKey()).contentKey(key.contentKey())
+                .getLatest().start())
+                .thenCompose(futureGet -> {
+                    if (!futureGet.isSuccess()) {
+                        return retry(key, update, attempt);
+                    }
+                    Map.Entry<Number640, Data> latest = latestOf(futureGet.dataMap());
+                    Data data;
+                    try {
+                        data = update.apply(latest == null ? null : latest.getValue());
+                    } catch (IOException | ClassNotFoundException e) {
+                        throw new CompletionException(e);
+                    }
+                    if (data == null) {
+                        return CompletableFuture.completedFuture(UpdateStatus.UNCHANGED);
+                    }
+                    Number160 baseVersion = latest == null ? Number160.ZERO : latest.getKey().versionKey();
+                    return store(key, data, baseVersion, latest != null)
+                            .thenCompose(stored -> stored ? CompletableFuture.completedFuture(UpdateStatus.UPDATED)
+                                    : retry(key, update, attempt));
+                });
+    }
+
+    /**
+     * Retries an update after a random backoff, unless it has been retried too many times.
+     * @param key is the key of the data, whose version is ignored.
+     * @param update is the change to apply to the latest version of the data.
+     * @param attempt is the number of the attempt just failed, starting from 0.
+     * @return a future for the outcome of the update.
+     */
+    private CompletableFuture<UpdateStatus> retry(Number640 key, Update update, int attempt) {
+        return retry(attempt, next -> attempt(key, update, next));
+    }
+
+    /**
+     * Retries any optimistic operation after a random backoff, unless it has been retried too many times,
+     * so that operations other than versioned updates share the same retry settings and metrics.
+     * @param attempt is the number of the attempt just failed, starting from 0.
+     * @param next makes the next attempt, given its number.
+     * @return a future for the outcome of the operation.
+     */
+    public CompletableFuture<UpdateStatus> retry(int attempt, IntFunction<CompletableFuture<UpdateStatus>> next) {
+        metrics.conflicted();
+        if (attempt == maxRetries) {
+            metrics.failed();
+            return CompletableFuture.completedFuture(UpdateStatus.FAILED);
+        }
+        return delay(backoff(attempt)).thenCompose(ignored -> next.apply(attempt + 1));
+    }
+
+    /**
+     * Stores a new version of the data, preparing it first and then confirming it if no version fork is reported.
+     * @param key is the key of the data, whose version is ignored.
+     * @param data is the new version of the data.
+     * @param baseVersion is the version the new version is based on.
+     * @param based whether a previous version exists.
+     * @return a future for true if the new version has been stored, false if it has to be retried.
+     */
+    private CompletableFuture<Boolean> store(Number640 key, Data data, Number160 baseVersion, boolean based) {
+        if (based) {
+            data.addBasedOn(baseVersion);
+        }
+        Number160 version = new Number160(baseVersion.timestamp() + 1, data.hash());
+        return toCompletable(dht.put(key.locationKey()).domainKey(key.domainKey())
+                .data(key.contentKey(), data.prepareFlag(), version).start()).thenCompose(prepare -> {
+            if (!prepare.isSuccess() || hasVersionFork(prepare)) {
+                return discard(key, version);
+            }
+            return toCompletable(dht.put(key.locationKey()).domainKey(key.domainKey())
+                    .data(key.contentKey(), new Data()).versionKey(version).putConfirm().start()).thenCompose(confirm -> {
+                if (!confirm.isSuccess()) {
+                    return discard(key, version);
+                }
+                // The version the update is based on is not needed anymore.
+                dht.remove(key.locationKey()).domainKey(key.domainKey()).contentKey(key.contentKey())
+                        .versionKey(baseVersion).start();
+                return CompletableFuture.completedFuture(true);
+            });
+        });
+    }
+
+    /**
+     * Removes a version of the data that has not been confirmed.
+     * @param key is the key of the data, whose version is ignored.
+     * @param version is the version to remove.
+     * @return a future for false, completed when the version has been removed.
+     */
+    private CompletableFuture<Boolean> discard(Number640 key, Number160 version) {
+        return toCompletable(dht.remove(key.locationKey()).domainKey(key.domainKey()).contentKey(key.contentKey())
+                .versionKey(version).start()).thenApply(ignored -> false);
+    }
+
+    /**
+     * Checks whether some peer has reported that the data has been updated concurrently.
+     * @param futurePut is the future for storing the data.
+     * @return true if there is a version fork, false otherwise.
+     */
+    private static boolean hasVersionFork(FuturePut futurePut) {
+        for (Map.Entry<PeerAddress, Map<Number640, Byte>> result: futurePut.rawResult().entrySet()) {
+            for (Byte status: result.getValue().values()) {
+                if (status == PutStatus.VERSION_FORK.ordinal()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Provides how long to wait before retrying an update, a random time up to a limit that doubles at each retry.
+     * @param attempt is the number of the attempt just failed, starting from 0.
+     * @return the time to wait in milliseconds.
+     */
+    private long backoff(int attempt) {
+        long limit = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt, MAX_SHIFT));
+        return ThreadLocalRandom.current().nextLong(limit + 1);
+    }
+
+    /**
+     * Provides the latest confirmed version among the given versions of the data.
+     * @param dataMap are the versions of the data.
+     * @return the latest version, null if there is none.
+     */
+    public static Map.Entry<Number640, Data> latestOf(Map<Number640, Data> dataMap) {
+        Map.Entry<Number640, Data> latest = null;
+        for (Map.Entry<Number640, Data> entry: dataMap.entrySet()) {
+            if (!entry.getValue().hasPrepareFlag()
+                    && (latest == null || entry.getKey().versionKey().compareTo(latest.getKey().versionKey()) > 0)) {
+                latest = entry;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Models a change to apply to the latest version of some data.
+     */
+    @FunctionalInterface
+    public interface Update {
+
+        /**
+         * Applies the change.
+         * It may be applied more than once, every time to the latest version, thus it must not have side effects
+         * other than remembering the outcome of the last time it has been applied.
+         * @param current is the latest version of the data, null if there is none.
+         * @return the new version of the data, null for leaving the data unchanged.
+         */
+        Data apply(Data current) throws IOException, ClassNotFoundException;
+    }
+
+    /**
+     * The DHT where data is stored.
+     */
+    private final PeerDHT dht;
+
+    /**
+     * Domain of the data, unless another one is given.
+     */
+    private final Number160 domainKey;
+
+    /**
+     * Maximum number of times an update is retried.
+     */
+    private final int maxRetries;
+
+    /**
+     * Base backoff in milliseconds, doubled at each retry.
+     */
+    private final long backoffMillis;
+
+    /**
+     * Maximum backoff in milliseconds.
+     */
+    private final long maxBackoffMillis;
+
+    /**
+     * Metrics about concurrent updates.
+     */
+    @Getter
+    private final ContentionMetrics metrics;
+
+    /**
+     * Maximum number of times the base backoff is doubled.
+     */
+    private static final int MAX_SHIFT = 16;
+}
@@ -0,0 +1,50 @@
+package it.unisa.studenti.citro.tiziano.sudoku.event;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Hands the events received about games to the handlers registered for their type,
+ * so that a peer updates its own state from an event instead of retrieving the game again.
+ */
+public class EventDispatcher {
+
+    /**
+     * Builds a dispatcher without handlers.
+     */
+    public EventDispatcher() {
+        this.handlers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registers a handler for a type of event.
+     * @param type is the class of the events.
+     * @param handler is the handler.
+     * @param <E> is the type of the events.
+     */
+    public <E extends GameEvent> void on(Class<E> type, Consumer<? super E> handler) {
+        handlers.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>())
+                .add(event -> handler.accept(type.cast(event)));
+    }
+
+    /**
+     * Hands an event to the handlers registered for its type, in the order they have been registered.
+     * @param event is the event.
+     */
+    public void dispatch(GameEvent event) {
+        List<Consumer<GameEvent>> registered = handlers.get(event.getClass());
+        if (registered != null) {
+            for (Consumer<GameEvent> handler: registered) {
+                handler.accept(event);
+            }
+        }
+    }
+
+    /**
+     * Handlers, by class of the events they handle.
+     */
+    private final Map<Class<? extends GameEvent>, List<Consumer<GameEvent>>> handlers;
+}
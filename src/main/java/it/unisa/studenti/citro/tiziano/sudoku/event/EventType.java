@@ -0,0 +1,43 @@
+package it.unisa.studenti.citro.tiziano.sudoku.event;
+
+import lombok.Getter;
+
+/**
+ * Models the types of the events about a game sent to its players, each with the byte it is encoded with.
+ */
+public enum EventType {
+
+    MOVE_APPLIED((byte) 1),
+    SCORE_CHANGED((byte) 2),
+    GAME_COMPLETED((byte) 3),
+    PLAYER_JOINED((byte) 4),
+    PLAYER_LEFT((byte) 5);
+
+    /**
+     * Builds a type of event.
+     * @param code is the byte the type is encoded with.
+     */
+    EventType(byte code) {
+        this.code = code;
+    }
+
+    /**
+     * Provides the type of event encoded with a byte.
+     * @param code is the byte.
+     * @return the type of event.
+     */
+    public static EventType of(byte code) {
+        for (EventType type: values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Invalid code " + code + " for an event type");
+    }
+
+    /**
+     * The byte the type is encoded with.
+     */
+    @Getter
+    private final byte code;
+}
@@ -0,0 +1,58 @@
+package it.unisa.studenti.citro.tiziano.sudoku.event;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Models a game completed, with the final scores of its players.
+ */
+@Getter
+public class GameCompleted extends GameEvent {
+
+    /**
+     * Builds the event.
+     * @param game is the game name.
+     * @param nickname is the nickname of the player who has placed the last number.
+     * @param scores are the scores of the players, by nickname, in the order they have joined the game.
+     */
+    public GameCompleted(String game, String nickname, LinkedHashMap<String, Integer> scores) {
+        super(game);
+        this.nickname = nickname;
+        this.scores = scores;
+    }
+
+    /**
+     * Provides the type of the event.
+     * @return the type of the event.
+     */
+    @Override
+    public EventType getType() {
+        return EventType.GAME_COMPLETED;
+    }
+
+    /**
+     * Shows the event.
+     * @return the event as text, with the scores.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(getGame()).append(SEPARATOR).append(nickname)
+                .append(" has completed the sudoku!\n").append("Scores:");
+        for (Map.Entry<String, Integer> score: scores.entrySet()) {
+            builder.append("\n- ").append(score.getKey()).append(": ").append(score.getValue());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The nickname of the player who has placed the last number.
+     */
+    private final String nickname;
+
+    /**
+     * The scores of the players, by nickname, in the order they have joined the game.
+     */
+    private final LinkedHashMap<String, Integer> scores;
+}
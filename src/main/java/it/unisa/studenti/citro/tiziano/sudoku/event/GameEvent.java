@@ -0,0 +1,35 @@
+package it.unisa.studenti.citro.tiziano.sudoku.event;
+
+import lombok.Getter;
+
+/**
+ * Models something that has happened in a game, sent to its players so that they can act on it
+ * instead of just showing it.
+ */
+@Getter
+public abstract class GameEvent {
+
+    /**
+     * Builds an event.
+     * @param game is the game name.
+     */
+    protected GameEvent(String game) {
+        this.game = game;
+    }
+
+    /**
+     * Provides the type of the event.
+     * @return the type of the event.
+     */
+    public abstract EventType getType();
+
+    /**
+     * The game name.
+     */
+    private final String game;
+
+    /**
+     * Separator between the game name and the rest of an event when it is shown.
+     */
+    public static final String SEPARATOR = " - ";
+}
@@ -0,0 +1,45 @@
+package it.unisa.studenti.citro.tiziano.sudoku.event;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import lombok.Getter;
+
+/**
+ * Models a correct number placed in the grid of a game.
+ */
+@Getter
+public class MoveApplied extends GameEvent {
+
+    /**
+     * Builds the event.
+     * @param game is the game name.
+     * @param move is the move appended to the game.
+     */
+    public MoveApplied(String game, Move move) {
+        super(game);
+        this.move = move;
+    }
+
+    /**
+     * Provides the type of the event.
+     * @return the type of the event.
+     */
+    @Override
+    public EventType getType() {
+        return EventType.MOVE_APPLIED;
+    }
+
+    /**
+     * Shows the event.
+     * @return the event as text.
+     */
+    @Override
+    public String toString() {
+        return getGame() + SEPARATOR + move.getPlayer() + " has placed " + move.getNumber()
+                + " in (" + move.getRow() + ", " + move.getColumn() + ")";
+    }
+
+    /**
+     * The move appended to the game.
+     */
+    private final Move move;
+}
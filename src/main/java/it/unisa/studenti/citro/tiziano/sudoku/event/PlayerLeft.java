@@ -0,0 +1,43 @@
+package it.unisa.studenti.citro.tiziano.sudoku.event;
+
+import lombok.Getter;
+
+/**
+ * Models a player who has left a game.
+ */
+@Getter
+public class PlayerLeft extends GameEvent {
+
+    /**
+     * Builds the event.
+     * @param game is the game name.
+     * @param nickname is the nickname of the player.
+     */
+    public PlayerLeft(String game, String nickname) {
+        super(game);
+        this.nickname = nickname;
+    }
+
+    /**
+     * Provides the type of the event.
+     * @return the type of the event.
+     */
+    @Override
+    public EventType getType() {
+        return EventType.PLAYER_LEFT;
+    }
+
+    /**
+     * Shows the event.
+     * @return the event as text.
+     */
+    @Override
+    public String toString() {
+        return getGame() + SEPARATOR + nickname + " has left the game";
+    }
+
+    /**
+     * The nickname of the player.
+     */
+    private final String nickname;
+}
@@ -0,0 +1,59 @@
+package it.unisa.studenti.citro.tiziano.sudoku.event;
+
+import lombok.Getter;
+
+/**
+ * Models the score of a player changed in a game.
+ */
+@Getter
+public class ScoreChanged extends GameEvent {
+
+    /**
+     * Builds the event.
+     * @param game is the game name.
+     * @param nickname is the nickname of the player.
+     * @param delta is how much the score has changed.
+     * @param score is the new score.
+     */
+    public ScoreChanged(String game, String nickname, int delta, int score) {
+        super(game);
+        this.nickname = nickname;
+        this.delta = delta;
+        this.score = score;
+    }
+
+    /**
+     * Provides the type of the event.
+     * @return the type of the event.
+     */
+    @Override
+    public EventType getType() {
+        return EventType.SCORE_CHANGED;
+    }
+
+    /**
+     * Shows the event.
+     * @return the event as text.
+     */
+    @Override
+    public String toString() {
+        int points = Math.abs(delta);
+        return getGame() + SEPARATOR + nickname + (delta > 0 ? " has scored " : " has lost ")
+                + (points == 1 ? "a point!" : points + " points!");
+    }
+
+    /**
+     * The nickname of the player.
+     */
+    private final String nickname;
+
+    /**
+     * How much the score has changed.
+     */
+    private final int delta;
+
+    /**
+     * The new score.
+     */
+    private final int score;
+}
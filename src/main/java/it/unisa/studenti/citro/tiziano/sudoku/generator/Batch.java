@@ -0,0 +1,47 @@
+package it.unisa.studenti.citro.tiziano.sudoku.generator;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Models the games generated by a batch together with the time it has taken,
+ * so that concurrent batches each report their own throughput.
+ */
+@Getter
+public class Batch {
+
+    /**
+     * Builds a batch.
+     * @param games are the games, in the same order as their names.
+     * @param time is the time taken by the batch, in nanoseconds.
+     */
+    public Batch(List<Sudoku> games, long time) {
+        this.games = games;
+        this.time = time;
+    }
+
+    /**
+     * Provides the throughput of the batch.
+     * @return the games generated per second.
+     */
+    public double getThroughput() {
+        return time == 0 ? 0 : games.size() * NANOS_PER_SECOND / time;
+    }
+
+    /**
+     * The games, in the same order as their names.
+     */
+    private final List<Sudoku> games;
+
+    /**
+     * Time taken by the batch, in nanoseconds.
+     */
+    private final long time;
+
+    /**
+     * Nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+}
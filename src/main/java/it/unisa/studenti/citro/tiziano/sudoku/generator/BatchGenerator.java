@@ -0,0 +1,157 @@
+package it.unisa.studenti.citro.tiziano.sudoku.generator;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku.DEFAULT_GRID_SIZE;
+
+/**
+ * Provides the generation of many games at once, in parallel on a fork/join pool.
+ * Each task splits its own source of random numbers for its subtasks,
+ * so that tasks never share a random stream and a seed always produces the same games.
+ */
+public class BatchGenerator {
+
+    /**
+     * Builds a batch generator running on a given pool.
+     * @param pool is the pool where games are generated.
+     */
+    public BatchGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Generates a game for each given name.
+     * @param names are the names for the games.
+     * @param difficulty is the difficulty for the games.
+     * @return the batch, with the games in the same order as the names.
+     */
+    public Batch generate(List<String> names, Difficulty difficulty) {
+        return generate(names, difficulty, new SplittableRandom());
+    }
+
+    /**
+     * Generates a game for each given name.
+     * @param names are the names for the games.
+     * @param difficulty is the difficulty for the games.
+     * @param random is the source of random numbers the tasks split their own from.
+     * @return the batch, with the games in the same order as the names.
+     */
+    public Batch generate(List<String> names, Difficulty difficulty, SplittableRandom random) {
+        return generate(names, difficulty, DEFAULT_GRID_SIZE, random);
+    }
+
+    /**
+     * Generates a game with a given grid size for each given name.
+     * @param names are the names for the games.
+     * @param difficulty is the difficulty for the games.
+     * @param gridSize is the size of the grid for the games.
+     * @param random is the source of random numbers the tasks split their own from.
+     * @return the batch, with the games in the same order as the names.
+     */
+    public Batch generate(List<String> names, Difficulty difficulty, GridSize gridSize,
+                                 SplittableRandom random) {
+        long start = System.nanoTime();
+        Sudoku[] games = new Sudoku[names.size()];
+        if (games.length > 0) {
+            pool.invoke(new GenerationTask(names, difficulty, gridSize, games, 0, games.length, random));
+        }
+        return new Batch(Arrays.asList(games), System.nanoTime() - start);
+    }
+
+    /**
+     * Provides the parallelism of the pool where games are generated.
+     * @return the parallelism of the pool.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Models the generation of a range of games, split in halves until a single game is left.
+     */
+    private static class GenerationTask extends RecursiveAction {
+
+        /**
+         * Builds the task for a range of games.
+         * @param names are the names for all the games.
+         * @param difficulty is the difficulty for the games.
+         * @param gridSize is the size of the grid for the games.
+         * @param games are where the generated games are stored.
+         * @param from is the index of the first game in the range.
+         * @param to is the index after the last game in the range.
+         * @param random is the source of random numbers for the task.
+         */
+        GenerationTask(List<String> names, Difficulty difficulty, GridSize gridSize, Sudoku[] games,
+                       int from, int to, SplittableRandom random) {
+            this.names = names;
+            this.difficulty = difficulty;
+            this.gridSize = gridSize;
+            this.games = games;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        /**
+         * Generates the game when a single one is left, splits the range otherwise.
+         */
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                games[from] = new Sudoku(names.get(from), random, difficulty, gridSize);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new GenerationTask(names, difficulty, gridSize, games, from, middle, random.split()),
+                    new GenerationTask(names, difficulty, gridSize, games, middle, to, random.split()));
+        }
+
+        /**
+         * Names for all the games.
+         */
+        private final List<String> names;
+
+        /**
+         * Difficulty for the games.
+         */
+        private final Difficulty difficulty;
+
+        /**
+         * Size of the grid for the games.
+         */
+        private final GridSize gridSize;
+
+        /**
+         * Where the generated games are stored.
+         */
+        private final Sudoku[] games;
+
+        /**
+         * Index of the first game in the range.
+         */
+        private final int from;
+
+        /**
+         * Index after the last game in the range.
+         */
+        private final int to;
+
+        /**
+         * Source of random numbers for the task.
+         */
+        private final SplittableRandom random;
+    }
+
+    /**
+     * The pool where games are generated.
+     */
+    private final ForkJoinPool pool;
+}
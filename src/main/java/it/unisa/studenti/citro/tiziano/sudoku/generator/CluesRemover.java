@@ -0,0 +1,160 @@
+package it.unisa.studenti.citro.tiziano.sudoku.generator;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
+import it.unisa.studenti.citro.tiziano.sudoku.solver.DancingLinksSolver;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.MAX_BLOCK_SIZE;
+
+/**
+ * Provides the removal of clues from a populated grid, so that it becomes a puzzle.
+ * Cells are visited in random order and a clue is removed only if the grid still has exactly one solution,
+ * until the target number of clues is reached or no other clue can be removed.
+ * Uniqueness checks that exceed the nodes budget keep the clue, which bounds the runtime for large grids.
+ * A single pass often stops a few clues above a low target, thus the populated grid is restored and the clues
+ * are removed again in another random order, keeping the puzzle with fewer clues,
+ * until the target is reached, the attempts run out or the time for retrying is over.
+ */
+public class CluesRemover {
+
+    /**
+     * Builds a remover with a given source of random numbers.
+     * @param random is the source of random numbers.
+     */
+    public CluesRemover(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Removes clues from a populated grid.
+     * @param grid is the grid to remove clues from.
+     * @param clues is the number of clues to leave in the grid.
+     * @return the number of clues left in the grid, more than asked for if the target has not been reached.
+     */
+    public int remove(Grid grid, int clues) {
+        long start = System.nanoTime();
+        DancingLinksSolver solver = solverFor(grid.getBlockSize());
+        byte[] populated = grid.getCells().clone();
+        byte[] best = null;
+        int bestLeft = Integer.MAX_VALUE;
+        attempts = 0;
+        do {
+            if (attempts > 0) {
+                fill(grid, populated);
+            }
+            attempts++;
+            int left = removeOnce(grid, clues, solver);
+            if (left < bestLeft) {
+                bestLeft = left;
+                best = grid.getCells().clone();
+            }
+        } while (bestLeft > clues && attempts < MAX_ATTEMPTS && System.nanoTime() - start < MAX_RETRY_NANOS);
+        if (!Arrays.equals(best, grid.getCells())) {
+            fill(grid, best);
+        }
+        removalTime = System.nanoTime() - start;
+        return bestLeft;
+    }
+
+    /**
+     * Removes clues from a populated grid in a single pass over its cells in random order.
+     * @param grid is the grid to remove clues from.
+     * @param clues is the number of clues to leave in the grid.
+     * @param solver is the solver for checking that the grid has only one solution.
+     * @return the number of clues left in the grid.
+     */
+    private int removeOnce(Grid grid, int clues, DancingLinksSolver solver) {
+        int gridSize = grid.getGridSize();
+        int[] order = shuffledCells(grid.getCellsSize());
+        int left = grid.getCellsSize();
+        for (int i = 0; i < order.length && left > clues; i++) {
+            int row = order[i] / gridSize + 1;
+            int column = order[i] % gridSize + 1;
+            int number = grid.getCellNumber(row, column);
+            grid.clearCell(row, column);
+            if (solver.countSolutions(grid, 2) == 1 && !solver.isBudgetExceeded()) {
+                left--;
+            } else {
+                grid.setCellNumber(number, row, column);
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Places the given numbers on every cell of a grid.
+     * @param grid is the grid.
+     * @param cells are the numbers, row by row, with empty cells cleared.
+     */
+    private static void fill(Grid grid, byte[] cells) {
+        int gridSize = grid.getGridSize();
+        for (int i = 0; i < cells.length; i++) {
+            grid.setCellNumber(cells[i], i / gridSize + 1, i % gridSize + 1);
+        }
+    }
+
+    /**
+     * Provides the solver of the current thread for a given block size, building it the first time.
+     * @param blockSize is the block size of the grids to solve.
+     * @return the solver.
+     */
+    private static DancingLinksSolver solverFor(int blockSize) {
+        DancingLinksSolver[] solvers = SOLVERS.get();
+        if (solvers[blockSize] == null) {
+            solvers[blockSize] = new DancingLinksSolver(blockSize, MAX_NODES);
+        }
+        return solvers[blockSize];
+    }
+
+    /**
+     * Provides the indexes of the cells in random order.
+     * @param cellsSize is the number of cells.
+     * @return the shuffled indexes of the cells.
+     */
+    private int[] shuffledCells(int cellsSize) {
+        int[] order = new int[cellsSize];
+        for (int i = 0; i < cellsSize; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Source of random numbers.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Time taken by the last removal, in nanoseconds.
+     */
+    @Getter
+    private long removalTime;
+
+    /**
+     * Passes over the cells taken by the last removal.
+     */
+    @Getter
+    private int attempts;
+
+    /**
+     * Solvers for counting solutions, one for each thread and block size, so that they are reused without allocating.
+     */
+    private static final ThreadLocal<DancingLinksSolver[]> SOLVERS =
+            ThreadLocal.withInitial(() -> new DancingLinksSolver[MAX_BLOCK_SIZE + 1]);
+
+    /**
+     * Maximum number of candidates to try when checking that a grid has only one solution.
+     */
+    public static final long MAX_NODES = 20_000;
+
+    /**
+     * Maximum number of passes over the cells, and time after which no other pass is started, in nanoseconds.
+     */
+    public static final int MAX_ATTEMPTS = 100;
+    public static final long MAX_RETRY_NANOS = 200_000_000L;
+}
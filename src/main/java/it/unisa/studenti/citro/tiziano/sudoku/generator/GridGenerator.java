@@ -0,0 +1,177 @@
+package it.unisa.studenti.citro.tiziano.sudoku.generator;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
+import lombok.Getter;
+
+import java.util.SplittableRandom;
+
+/**
+ * Provides a backtracking generator for fully populated grids.
+ * It fills the cells with an explicit stack instead of recursion, always moving to the empty cell
+ * with fewer candidates and trying them in random order, so that the same seed always produces the same grid.
+ * Attempts that take more than a given number of steps are restarted, which bounds the runtime.
+ */
+public class GridGenerator {
+
+    /**
+     * Builds a generator with a given seed.
+     * @param seed is the seed for the random numbers.
+     */
+    public GridGenerator(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * Builds a generator with a given source of random numbers.
+     * @param random is the source of random numbers.
+     */
+    public GridGenerator(SplittableRandom random) {
+        this(random, DEFAULT_MAX_STEPS);
+    }
+
+    /**
+     * Builds a generator with a given source of random numbers and a given steps budget.
+     * @param random is the source of random numbers.
+     * @param maxSteps is the maximum number of steps of an attempt before restarting it.
+     */
+    public GridGenerator(SplittableRandom random, int maxSteps) {
+        this.random = random;
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Generates a fully populated grid.
+     * @param blockSize is the block size for the grid.
+     * @return the populated grid.
+     */
+    public Grid generate(int blockSize) {
+        long start = System.nanoTime();
+        Grid grid = new Grid(blockSize);
+        int[] cells = new int[grid.getCellsSize()];
+        long[] candidates = new long[grid.getCellsSize()];
+        steps = 0;
+        restarts = 0;
+        while (!populate(grid, cells, candidates)) {
+            restarts++;
+            grid = new Grid(blockSize);
+        }
+        generationTime = System.nanoTime() - start;
+        return grid;
+    }
+
+    /**
+     * Populates the grid cell by cell, backtracking when a cell has no candidates left.
+     * Each time, the empty cell with fewer candidates is filled with one of them chosen at random.
+     * @param grid is the grid to populate.
+     * @param cells are the cells filled so far, in the order they have been filled.
+     * @param candidates are the candidates left to try for each filled cell.
+     * @return true if the grid has been populated, false if the steps budget has been exceeded.
+     */
+    private boolean populate(Grid grid, int[] cells, long[] candidates) {
+        int gridSize = grid.getGridSize();
+        int cellsSize = grid.getCellsSize();
+        int attemptSteps = 0;
+        int depth = 0;
+        chooseCell(grid, cells, candidates, depth);
+        while (depth < cellsSize) {
+            if (++attemptSteps > maxSteps || depth < 0) {
+                steps += attemptSteps;
+                return false;
+            }
+            if (candidates[depth] == 0) {
+                // No candidates left, thus going back to the previous cell
+                depth--;
+                if (depth >= 0) {
+                    grid.clearCell(cells[depth] / gridSize + 1, cells[depth] % gridSize + 1);
+                }
+                continue;
+            }
+            long candidate = pickCandidate(candidates[depth]);
+            candidates[depth] &= ~candidate;
+            grid.setCellNumber(Long.numberOfTrailingZeros(candidate) + 1,
+                    cells[depth] / gridSize + 1, cells[depth] % gridSize + 1);
+            depth++;
+            if (depth < cellsSize) {
+                chooseCell(grid, cells, candidates, depth);
+            }
+        }
+        steps += attemptSteps;
+        return true;
+    }
+
+    /**
+     * Chooses the empty cell with fewer candidates as the next one to fill.
+     * @param grid is the grid to populate.
+     * @param cells are the cells filled so far, in the order they have been filled.
+     * @param candidates are the candidates left to try for each filled cell.
+     * @param depth is the number of cells filled so far.
+     */
+    private void chooseCell(Grid grid, int[] cells, long[] candidates, int depth) {
+        int gridSize = grid.getGridSize();
+        int bestCell = -1;
+        long bestCandidates = 0;
+        int bestCount = Integer.MAX_VALUE;
+        for (int cell = 0; cell < grid.getCellsSize() && bestCount > 0; cell++) {
+            int row = cell / gridSize + 1;
+            int column = cell % gridSize + 1;
+            if (grid.isCellNotFilled(row, column)) {
+                long cellCandidates = grid.getCandidates(row, column);
+                int count = Long.bitCount(cellCandidates);
+                if (count < bestCount) {
+                    bestCell = cell;
+                    bestCandidates = cellCandidates;
+                    bestCount = count;
+                }
+            }
+        }
+        cells[depth] = bestCell;
+        candidates[depth] = bestCandidates;
+    }
+
+    /**
+     * Picks one of the candidates at random.
+     * @param cellCandidates are the candidates, one bit per number.
+     * @return the bit of the picked candidate.
+     */
+    private long pickCandidate(long cellCandidates) {
+        long remaining = cellCandidates;
+        for (int skip = random.nextInt(Long.bitCount(cellCandidates)); skip > 0; skip--) {
+            remaining &= remaining - 1;
+        }
+        return Long.lowestOneBit(remaining);
+    }
+
+    /**
+     * Source of random numbers.
+     */
+    @Getter
+    private final SplittableRandom random;
+
+    /**
+     * Maximum number of steps of an attempt before restarting it.
+     */
+    private final int maxSteps;
+
+    /**
+     * Time taken by the last generation, in nanoseconds.
+     */
+    @Getter
+    private long generationTime;
+
+    /**
+     * Steps taken by the last generation.
+     */
+    @Getter
+    private long steps;
+
+    /**
+     * Attempts restarted during the last generation.
+     */
+    @Getter
+    private int restarts;
+
+    /**
+     * Default maximum number of steps of an attempt before restarting it.
+     */
+    public static final int DEFAULT_MAX_STEPS = 100_000;
+}
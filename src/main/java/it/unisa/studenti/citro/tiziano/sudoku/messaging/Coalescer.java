@@ -0,0 +1,188 @@
+package it.unisa.studenti.citro.tiziano.sudoku.messaging;
+
+import it.unisa.studenti.citro.tiziano.sudoku.event.GameEvent;
+import it.unisa.studenti.citro.tiziano.sudoku.event.ScoreChanged;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.Futures.delay;
+
+/**
+ * Holds back the notifications about a game for a short window, so that the notifications made within the window
+ * are sent together in a single message to each player, with a single retrieval of the players.
+ * The window starts with the first notification held back, thus no notification is held back for longer than that,
+ * while urgent notifications, e.g. a completed game, are sent at once together with those held back.
+ * Scores changed more than once within the window are sent once, with their latest value.
+ * How many messages are saved and how long notifications are held back is recorded for each game.
+ */
+public class Coalescer {
+
+    /**
+     * Builds a coalescer.
+     * @param windowMillis is how long notifications are held back, in milliseconds, 0 for sending them at once.
+     * @param sender sends the events of a game to its players, returning a future
+     * for the number of players they have been delivered to.
+     */
+    public Coalescer(long windowMillis, BiFunction<String, List<GameEvent>, CompletableFuture<Integer>> sender) {
+        this.windowMillis = windowMillis;
+        this.sender = sender;
+        this.batches = new HashMap<>();
+        this.metrics = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Notifies the players of a game about events, holding them back with those of the same game within the window.
+     * @param game is the game name.
+     * @param events are the events.
+     * @param urgent whether the events, and those held back, are sent at once.
+     * @return a future for the number of players the message with the events has been delivered to.
+     */
+    public CompletableFuture<Integer> submit(String game, List<GameEvent> events, boolean urgent) {
+        if (windowMillis <= 0) {
+            return sender.apply(game, events);
+        }
+        Batch batch;
+        boolean opened = false;
+        synchronized (this) {
+            batch = batches.get(game);
+            if (batch == null) {
+                batch = new Batch();
+                batches.put(game, batch);
+                opened = true;
+            }
+            batch.events.addAll(events);
+            batch.submitted.add(System.nanoTime());
+        }
+        if (urgent) {
+            flush(game, batch);
+        } else if (opened) {
+            Batch held = batch;
+            delay(windowMillis).thenRun(() -> flush(game, held));
+        }
+        return batch.flushed;
+    }
+
+    /**
+     * Provides the metrics about the notifications of a game.
+     * @param game is the game name.
+     * @return the coalescing metrics, null if the game has had no notifications held back.
+     */
+    public CoalescingMetrics getMetrics(String game) {
+        return metrics.get(game);
+    }
+
+    /**
+     * Drops the metrics about the notifications of a game, e.g. once it has been left.
+     * @param game is the game name.
+     */
+    public void forget(String game) {
+        metrics.remove(game);
+    }
+
+    /**
+     * Sends the events held back for a game, unless they have been sent already.
+     * @param game is the game name.
+     * @param batch are the events held back.
+     */
+    private void flush(String game, Batch batch) {
+        synchronized (this) {
+            if (!batches.remove(game, batch)) {
+                return;
+            }
+        }
+        long now = System.nanoTime();
+        CoalescingMetrics gameMetrics = metrics.computeIfAbsent(game, g -> new CoalescingMetrics());
+        gameMetrics.flushed(batch.submitted.size());
+        for (long submitted: batch.submitted) {
+            gameMetrics.delayed(now - submitted);
+        }
+        CompletableFuture<Integer> sent;
+        try {
+            sent = sender.apply(game, merge(game, batch.events));
+        } catch (RuntimeException e) {
+            batch.flushed.completeExceptionally(e);
+            return;
+        }
+        sent.whenComplete((delivered, e) -> {
+            if (e == null) {
+                batch.flushed.complete(delivered);
+            } else {
+                batch.flushed.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Merges the events held back for a game, keeping a single change of score for each player,
+     * with the latest score and all the changes summed up.
+     * @param game is the game name.
+     * @param events are the events, in the order they have been held back.
+     * @return the merged events.
+     */
+    private static List<GameEvent> merge(String game, List<GameEvent> events) {
+        List<GameEvent> merged = new ArrayList<>();
+        Map<String, Integer> scores = new HashMap<>();
+        for (GameEvent event: events) {
+            if (event instanceof ScoreChanged) {
+                ScoreChanged changed = (ScoreChanged) event;
+                Integer index = scores.get(changed.getNickname());
+                if (index != null) {
+                    ScoreChanged previous = (ScoreChanged) merged.get(index);
+                    merged.set(index, new ScoreChanged(game, changed.getNickname(),
+                            previous.getDelta() + changed.getDelta(), changed.getScore()));
+                    continue;
+                }
+                scores.put(changed.getNickname(), merged.size());
+            }
+            merged.add(event);
+        }
+        return merged;
+    }
+
+    /**
+     * Models the events held back for a game.
+     */
+    private static class Batch {
+
+        /**
+         * The events, in the order they have been held back.
+         */
+        private final List<GameEvent> events = new ArrayList<>();
+
+        /**
+         * When each notification has been held back, as given by the nanosecond timer.
+         */
+        private final List<Long> submitted = new ArrayList<>();
+
+        /**
+         * Completed with the number of players the events have been delivered to, once they have been sent.
+         */
+        private final CompletableFuture<Integer> flushed = new CompletableFuture<>();
+    }
+
+    /**
+     * How long notifications are held back, in milliseconds.
+     */
+    private final long windowMillis;
+
+    /**
+     * Sends the events of a game to its players.
+     */
+    private final BiFunction<String, List<GameEvent>, CompletableFuture<Integer>> sender;
+
+    /**
+     * Events held back, by game name.
+     */
+    private final Map<String, Batch> batches;
+
+    /**
+     * Metrics about the notifications held back, by game name.
+     */
+    private final Map<String, CoalescingMetrics> metrics;
+}
@@ -0,0 +1,87 @@
+package it.unisa.studenti.citro.tiziano.sudoku.messaging;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Models the metrics about the notifications of a game held back for being sent together,
+ * so that it can be checked how many messages are saved and how much later they are sent.
+ */
+public class CoalescingMetrics {
+
+    /**
+     * Records that notifications have been sent together in a single message.
+     * @param notifications is the number of notifications sent together.
+     */
+    public void flushed(int notifications) {
+        messages.increment();
+        this.notifications.add(notifications);
+    }
+
+    /**
+     * Records how long a notification has been held back.
+     * @param nanos is how long the notification has been held back, in nanoseconds.
+     */
+    public void delayed(long nanos) {
+        delay.add(nanos);
+        maxDelay.accumulate(nanos);
+    }
+
+    /**
+     * Provides the number of notifications.
+     * @return the number of notifications.
+     */
+    public long getNotifications() {
+        return notifications.sum();
+    }
+
+    /**
+     * Provides the number of messages the notifications have been sent in.
+     * @return the number of messages.
+     */
+    public long getMessages() {
+        return messages.sum();
+    }
+
+    /**
+     * Provides the average time a notification has been held back.
+     * @return the average delay in milliseconds, 0 if there have been no notifications.
+     */
+    public double getAverageDelayMillis() {
+        long notifications = getNotifications();
+        return notifications == 0 ? 0 : delay.sum() / (double) NANOS_PER_MILLI / notifications;
+    }
+
+    /**
+     * Provides the longest time a notification has been held back.
+     * @return the maximum delay in milliseconds, 0 if there have been no notifications.
+     */
+    public double getMaxDelayMillis() {
+        return maxDelay.get() / (double) NANOS_PER_MILLI;
+    }
+
+    /**
+     * Number of notifications.
+     */
+    private final LongAdder notifications = new LongAdder();
+
+    /**
+     * Number of messages the notifications have been sent in.
+     */
+    private final LongAdder messages = new LongAdder();
+
+    /**
+     * Total time notifications have been held back, in nanoseconds.
+     */
+    private final LongAdder delay = new LongAdder();
+
+    /**
+     * Longest time a notification has been held back, in nanoseconds.
+     */
+    private final LongAccumulator maxDelay = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Nanoseconds in a millisecond.
+     */
+    private static final long NANOS_PER_MILLI = 1_000_000;
+}
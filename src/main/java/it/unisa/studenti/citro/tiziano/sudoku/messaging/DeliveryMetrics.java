@@ -0,0 +1,126 @@
+package it.unisa.studenti.citro.tiziano.sudoku.messaging;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Models the metrics about messages sent directly to players,
+ * so that it can be checked how long a delivery takes and how often it fails.
+ */
+public class DeliveryMetrics {
+
+    /**
+     * Records that a message has been sent.
+     */
+    public void sent() {
+        sends.increment();
+    }
+
+    /**
+     * Records that a message has been delivered.
+     * @param nanos is how long the delivery has taken, in nanoseconds.
+     */
+    public void delivered(long nanos) {
+        deliveries.increment();
+        latency.add(nanos);
+        maxLatency.accumulate(nanos);
+    }
+
+    /**
+     * Records that a message has not been delivered because of an error.
+     */
+    public void failed() {
+        failures.increment();
+    }
+
+    /**
+     * Records that a message has not been delivered before its deadline.
+     */
+    public void timedOut() {
+        timeouts.increment();
+    }
+
+    /**
+     * Provides the number of messages sent.
+     * @return the number of messages sent.
+     */
+    public long getSends() {
+        return sends.sum();
+    }
+
+    /**
+     * Provides the number of messages delivered.
+     * @return the number of messages delivered.
+     */
+    public long getDeliveries() {
+        return deliveries.sum();
+    }
+
+    /**
+     * Provides the number of messages not delivered because of an error.
+     * @return the number of failures.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Provides the number of messages not delivered before their deadline.
+     * @return the number of timeouts.
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Provides the average time a delivery has taken.
+     * @return the average latency in milliseconds, 0 if no message has been delivered.
+     */
+    public double getAverageLatencyMillis() {
+        long deliveries = getDeliveries();
+        return deliveries == 0 ? 0 : latency.sum() / (double) NANOS_PER_MILLI / deliveries;
+    }
+
+    /**
+     * Provides the longest time a delivery has taken.
+     * @return the maximum latency in milliseconds, 0 if no message has been delivered.
+     */
+    public double getMaxLatencyMillis() {
+        return maxLatency.get() / (double) NANOS_PER_MILLI;
+    }
+
+    /**
+     * Number of messages sent.
+     */
+    private final LongAdder sends = new LongAdder();
+
+    /**
+     * Number of messages delivered.
+     */
+    private final LongAdder deliveries = new LongAdder();
+
+    /**
+     * Number of messages not delivered because of an error.
+     */
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Number of messages not delivered before their deadline.
+     */
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Total time taken by deliveries, in nanoseconds.
+     */
+    private final LongAdder latency = new LongAdder();
+
+    /**
+     * Longest time taken by a delivery, in nanoseconds.
+     */
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Nanoseconds in a millisecond.
+     */
+    private static final long NANOS_PER_MILLI = 1_000_000;
+}
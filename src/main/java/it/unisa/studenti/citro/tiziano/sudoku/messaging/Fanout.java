@@ -0,0 +1,142 @@
+package it.unisa.studenti.citro.tiziano.sudoku.messaging;
+
+import lombok.Getter;
+import net.tomp2p.peers.PeerAddress;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.Futures.failed;
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.Futures.within;
+
+/**
+ * Sends a message to many players at once, starting every send before waiting for any of them,
+ * so that sending to many players takes about as long as the slowest send instead of the sum of all of them.
+ * Each send has its own deadline, and all of them together have an overall one,
+ * so that a player who is gone never holds the others up for longer than that.
+ * The latency of each send and the sends failed or timed out are recorded in the delivery metrics.
+ */
+public class Fanout {
+
+    /**
+     * Builds a fan-out.
+     * @param sender sends a message to a player, returning a future completed when the message has been delivered,
+     * or completed exceptionally when it could not be.
+     * @param peerTimeoutMillis is how long a single send may take, in milliseconds.
+     * @param deadlineMillis is how long all the sends may take together, in milliseconds.
+     */
+    public Fanout(BiFunction<PeerAddress, Object, CompletableFuture<?>> sender, long peerTimeoutMillis,
+                  long deadlineMillis) {
+        this.sender = sender;
+        this.peerTimeoutMillis = peerTimeoutMillis;
+        this.deadlineMillis = deadlineMillis;
+        this.metrics = new DeliveryMetrics();
+    }
+
+    /**
+     * Sends a message to players, all at once.
+     * @param players are the players.
+     * @param message is the message.
+     * @return a future for the number of players the message has been delivered to within the deadlines,
+     * completed at the latest at the overall deadline.
+     */
+    public CompletableFuture<Integer> send(Collection<PeerAddress> players, Object message) {
+        Map<PeerAddress, Object> messages = new LinkedHashMap<>();
+        for (PeerAddress player: players) {
+            messages.put(player, message);
+        }
+        return send(messages);
+    }
+
+    /**
+     * Sends a message of its own to each player, all at once.
+     * @param messages are the messages, by player.
+     * @return a future for the number of players their message has been delivered to within the deadlines,
+     * completed at the latest at the overall deadline.
+     */
+    public CompletableFuture<Integer> send(Map<PeerAddress, ?> messages) {
+        List<CompletableFuture<Boolean>> deliveries = new ArrayList<>();
+        List<CompletableFuture<Void>> settled = new ArrayList<>();
+        for (Map.Entry<PeerAddress, ?> message: messages.entrySet()) {
+            CompletableFuture<Boolean> delivery = new CompletableFuture<>();
+            deliveries.add(delivery);
+            settled.add(send(message.getKey(), message.getValue(), delivery));
+        }
+        // Waiting for the outcome of each send to be recorded as well, so that the metrics are up to date once done.
+        return within(CompletableFuture.allOf(settled.toArray(new CompletableFuture[0])), deadlineMillis)
+                .handle((ignored, e) -> {
+                    int delivered = 0;
+                    for (CompletableFuture<Boolean> delivery: deliveries) {
+                        if (delivery.complete(false)) {
+                            // Still on its way at the overall deadline.
+                            metrics.timedOut();
+                        } else if (delivery.join()) {
+                            delivered++;
+                        }
+                    }
+                    return delivered;
+                });
+    }
+
+    /**
+     * Sends a message to a player, with its own deadline.
+     * @param player is the player.
+     * @param message is the message.
+     * @param delivery is completed with true if the message has been delivered, false otherwise,
+     * by whichever comes first between the send and a deadline.
+     * @return a future completed once the outcome of the send has been recorded.
+     */
+    private CompletableFuture<Void> send(PeerAddress player, Object message, CompletableFuture<Boolean> delivery) {
+        long start = System.nanoTime();
+        metrics.sent();
+        CompletableFuture<?> sent;
+        try {
+            sent = sender.apply(player, message);
+        } catch (RuntimeException e) {
+            sent = failed(e);
+        }
+        return within(sent, peerTimeoutMillis).handle((ignored, e) -> {
+            if (e == null) {
+                if (delivery.complete(true)) {
+                    metrics.delivered(System.nanoTime() - start);
+                }
+            } else if (delivery.complete(false)) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    metrics.timedOut();
+                } else {
+                    metrics.failed();
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Sends a message to a player.
+     */
+    private final BiFunction<PeerAddress, Object, CompletableFuture<?>> sender;
+
+    /**
+     * How long a single send may take, in milliseconds.
+     */
+    private final long peerTimeoutMillis;
+
+    /**
+     * How long all the sends of a message may take together, in milliseconds.
+     */
+    private final long deadlineMillis;
+
+    /**
+     * Metrics about the sends.
+     */
+    @Getter
+    private final DeliveryMetrics metrics;
+}
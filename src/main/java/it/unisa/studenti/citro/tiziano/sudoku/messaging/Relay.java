@@ -0,0 +1,50 @@
+package it.unisa.studenti.citro.tiziano.sudoku.messaging;
+
+import it.unisa.studenti.citro.tiziano.sudoku.codec.AddressCodec;
+import lombok.Getter;
+import net.tomp2p.peers.PeerAddress;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Models a message relayed through a tree of players, with the players below the one receiving the relay,
+ * who passes the message on to them.
+ * The players are kept in their compact binary form, so that the relay does not grow by a serialized address each.
+ */
+public class Relay implements Serializable {
+
+    /**
+     * Builds a relay.
+     * @param message is the message.
+     * @param recipients are the players below the one receiving the relay.
+     */
+    public Relay(byte[] message, List<PeerAddress> recipients) {
+        this.message = message;
+        this.recipients = AddressCodec.encode(recipients);
+    }
+
+    /**
+     * Provides the players below the one receiving the relay.
+     * @return the players.
+     */
+    public List<PeerAddress> getRecipients() {
+        return AddressCodec.decode(recipients);
+    }
+
+    /**
+     * The message.
+     */
+    @Getter
+    private final byte[] message;
+
+    /**
+     * The players below the one receiving the relay, encoded.
+     */
+    private final byte[] recipients;
+
+    /**
+     * Version of the serialized form.
+     */
+    private static final long serialVersionUID = 2L;
+}
@@ -0,0 +1,68 @@
+package it.unisa.studenti.citro.tiziano.sudoku.messaging;
+
+import net.tomp2p.peers.PeerAddress;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spreads a message to many players through a tree, so that each player sends it to a few others only.
+ * The players are split into as many contiguous groups as the fan-out, and the first player of each group
+ * receives the message together with the rest of its group, which it splits again in the same way,
+ * so that the message reaches every player in a number of hops logarithmic in the number of players.
+ */
+public class RelayTree {
+
+    /**
+     * Builds a tree.
+     * @param fanout is the number of players each player sends the message to.
+     */
+    public RelayTree(int fanout) {
+        if (fanout < 1) {
+            throw new IllegalArgumentException("Invalid fan-out " + fanout + " for a relay tree");
+        }
+        this.fanout = fanout;
+    }
+
+    /**
+     * Plans the relays of a message from the root of the tree.
+     * @param players are the players to reach, not including the sender.
+     * @param message is the message.
+     * @return the relay to send to each child of the root, by child.
+     */
+    public Map<PeerAddress, Relay> plan(List<PeerAddress> players, byte[] message) {
+        return split(players, message);
+    }
+
+    /**
+     * Plans the relays of a received relay, to the children of the player who has received it.
+     * @param relay is the received relay.
+     * @return the relay to send to each child, by child, empty if the player is a leaf.
+     */
+    public Map<PeerAddress, Relay> forward(Relay relay) {
+        return split(relay.getRecipients(), relay.getMessage());
+    }
+
+    /**
+     * Splits players into contiguous groups, each relayed to its first player.
+     * @param players are the players.
+     * @param message is the message.
+     * @return the relay to send to the first player of each group, by player.
+     */
+    private Map<PeerAddress, Relay> split(List<PeerAddress> players, byte[] message) {
+        Map<PeerAddress, Relay> relays = new LinkedHashMap<>();
+        int groups = Math.min(fanout, players.size());
+        for (int group = 0; group < groups; group++) {
+            int start = players.size() * group / groups;
+            int end = players.size() * (group + 1) / groups;
+            relays.put(players.get(start), new Relay(message, players.subList(start + 1, end)));
+        }
+        return relays;
+    }
+
+    /**
+     * The number of players each player sends the message to.
+     */
+    private final int fanout;
+}
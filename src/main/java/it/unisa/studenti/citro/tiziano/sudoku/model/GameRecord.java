@@ -0,0 +1,78 @@
+package it.unisa.studenti.citro.tiziano.sudoku.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.tomp2p.peers.PeerAddress;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Models everything stored about a game, so that it is retrieved and stored at once.
+ * Scores are kept by nickname, in the order players have joined the game,
+ * so that a nickname and its score are always updated together.
+ */
+@Getter
+public class GameRecord {
+
+    /**
+     * Builds the record for a new game, with no players yet.
+     * @param sudoku is the game.
+     */
+    public GameRecord(Sudoku sudoku) {
+        this(sudoku.getGrid().getCellsNumbersAsMatrix(), sudoku.getSolution(),
+                new HashSet<>(), new LinkedHashMap<>());
+    }
+
+    /**
+     * Builds the record for a game.
+     * @param grid is the game grid.
+     * @param solution is the solution of the game grid, row by row.
+     * @param players are the players to notify.
+     * @param scores are the scores of the players, by nickname.
+     */
+    public GameRecord(Integer[][] grid, byte[] solution, Set<PeerAddress> players, LinkedHashMap<String, Integer> scores) {
+        this.grid = grid;
+        this.solution = solution;
+        this.players = players;
+        this.scores = scores;
+    }
+
+    /**
+     * Provides the nicknames the players have joined the game with.
+     * @return the nicknames, in the order players have joined the game.
+     */
+    public List<String> getNicknames() {
+        return new ArrayList<>(scores.keySet());
+    }
+
+    /**
+     * The game grid.
+     */
+    @Setter
+    private Integer[][] grid;
+
+    /**
+     * The sequence number of the latest move in the grid, 0 if no move has been made yet.
+     */
+    @Setter
+    private long sequence;
+
+    /**
+     * The solution of the game grid, row by row.
+     */
+    private final byte[] solution;
+
+    /**
+     * Players to notify about the game.
+     */
+    private final Set<PeerAddress> players;
+
+    /**
+     * Scores of the players, by the nicknames they have joined the game with.
+     */
+    private final LinkedHashMap<String, Integer> scores;
+}
@@ -6,6 +6,11 @@ import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.toExact;
 
 /**
  * Models the grid for a game.
+ * Numbers are stored in a flat array, while a bitmask for each row, column and box
+ * keeps track of the numbers already placed in it, so that placement checks are constant-time.
+ * Masks are long values, thus grids can have blocks up to 8 x 8.
+ * The number of empty cells and how many times each number is placed are kept up to date as well,
+ * so that completion and progress are known without scanning the cells.
  */
 @Getter
 public class Grid {
@@ -37,7 +42,17 @@ public class Grid {
      * @param column is the column where the cell is located.
      */
     public void clearCell(int row, int column) {
-        cells[toExact(row)][toExact(column)].clear();
+        int index = indexOf(row, column);
+        int number = cells[index];
+        if (number != EMPTY_CELL) {
+            long mask = ~toMask(number);
+            rowMasks[toExact(row)] &= mask;
+            columnMasks[toExact(column)] &= mask;
+            boxMasks[boxOf(row, column)] &= mask;
+            cells[index] = EMPTY_CELL;
+            numberCounts[number]--;
+            emptyCells++;
+        }
     }
 
     /**
@@ -47,7 +62,7 @@ public class Grid {
      * @return true if the cell is filled, false otherwise.
      */
     public boolean isCellNotFilled(int row, int column) {
-        return !cells[toExact(row)][toExact(column)].isFilled();
+        return cells[indexOf(row, column)] == EMPTY_CELL;
     }
 
     /**
@@ -55,9 +70,9 @@ public class Grid {
      * @return the grid as a matrix of cells.
      */
     public Integer[][] getCellsNumbersAsMatrix() {
-        Integer[][] cellsNumbers = new Integer[TOTAL_BLOCK_NUMBER][TOTAL_BLOCK_NUMBER];
-        for (int row = 0; row < TOTAL_BLOCK_NUMBER; row++) {
-            for (int column = 0; column < TOTAL_BLOCK_NUMBER; column++) {
+        Integer[][] cellsNumbers = new Integer[gridSize][gridSize];
+        for (int row = 0; row < gridSize; row++) {
+            for (int column = 0; column < gridSize; column++) {
                 cellsNumbers[row][column] = getCellNumber(row + 1, column + 1);
             }
         }
@@ -71,61 +86,174 @@ public class Grid {
      * @return the number placed on the cell identified by row and col.
      */
     public int getCellNumber(int row, int column) {
-        return cells[toExact(row)][toExact(column)].getNumber();
+        return cells[indexOf(row, column)];
     }
 
     /**
      * Place a number on a cell.
+     * Placing the empty value is the same as clearing the cell.
      * @param number is the number to place.
      * @param row is the row where the cell is located.
      * @param column is the column where the cell is located.
      */
     public void setCellNumber(int number, int row, int column) {
-        cells[toExact(row)][toExact(column)].setNumber(number);
+        if (number == EMPTY_CELL) {
+            clearCell(row, column);
+            return;
+        }
+        int index = indexOf(row, column);
+        clearCell(row, column);
+        long mask = toMask(number);
+        rowMasks[toExact(row)] |= mask;
+        columnMasks[toExact(column)] |= mask;
+        boxMasks[boxOf(row, column)] |= mask;
+        cells[index] = (byte) number;
+        numberCounts[number]++;
+        emptyCells--;
+    }
+
+    /**
+     * Checks whether all the cells are filled.
+     * @return true if there are no empty cells, false otherwise.
+     */
+    public boolean isFull() {
+        return emptyCells == 0;
     }
 
     /**
-     * Adds a number so that it appear as excluded.
-     * @param number is the number to exclude.
+     * Provides how many times a number is still to be placed in the grid.
+     * @param number is the number.
+     * @return the times the number is still to be placed.
+     */
+    public int getRemaining(int number) {
+        return gridSize - numberCounts[number];
+    }
+
+    /**
+     * Provides how many numbers are placed in a row.
+     * @param row is the row.
+     * @return the numbers placed in the row.
+     */
+    public int getFilledInRow(int row) {
+        return Long.bitCount(rowMasks[toExact(row)]);
+    }
+
+    /**
+     * Provides how many numbers are placed in a column.
+     * @param column is the column.
+     * @return the numbers placed in the column.
+     */
+    public int getFilledInColumn(int column) {
+        return Long.bitCount(columnMasks[toExact(column)]);
+    }
+
+    /**
+     * Provides how many numbers are placed in the box of a cell.
      * @param row is the row where the cell is located.
      * @param column is the column where the cell is located.
+     * @return the numbers placed in the box.
+     */
+    public int getFilledInBox(int row, int column) {
+        return Long.bitCount(boxMasks[boxOf(row, column)]);
+    }
+
+    /**
+     * Checks whether a number is not placed yet in the row, in the column and in the box of a cell.
+     * @param number is the number to check.
+     * @param row is the row where the cell is located.
+     * @param column is the column where the cell is located.
+     * @return true if the number can be placed, false otherwise.
+     */
+    public boolean isNumberAllowed(int number, int row, int column) {
+        return (getCandidates(row, column) & toMask(number)) != 0;
+    }
+
+    /**
+     * Provides the numbers that are not placed yet in the row, in the column and in the box of a cell.
+     * @param row is the row where the cell is located.
+     * @param column is the column where the cell is located.
+     * @return the numbers that can be placed, one bit per number starting from the lowest bit for 1.
+     */
+    public long getCandidates(int row, int column) {
+        long used = rowMasks[toExact(row)] | columnMasks[toExact(column)] | boxMasks[boxOf(row, column)];
+        return ~used & allNumbers;
+    }
+
+    /**
+     * Checks whether a number is placed in a row.
+     * @param number is the number to check.
+     * @param row is the row to check.
+     * @return true if the number is placed in the row, false otherwise.
+     */
+    public boolean isNumberInRow(int number, int row) {
+        return (rowMasks[toExact(row)] & toMask(number)) != 0;
+    }
+
+    /**
+     * Checks whether a number is placed in a column.
+     * @param number is the number to check.
+     * @param column is the column to check.
+     * @return true if the number is placed in the column, false otherwise.
      */
-    public void addNumberAsExcluded(int number, int row, int column) {
-        cells[toExact(row)][toExact(column)].addNumberAsExcluded(number);
+    public boolean isNumberInColumn(int number, int column) {
+        return (columnMasks[toExact(column)] & toMask(number)) != 0;
     }
 
     /**
-     * Checks whether the number has been already used for the cell.
+     * Checks whether a number is placed in the box of a cell.
      * @param number is the number to check.
      * @param row is the row where the cell is located.
      * @param column is the column where the cell is located.
-     * @return true if the number has been already used, false otherwise.
+     * @return true if the number is placed in the box, false otherwise.
      */
-    public boolean isNumberExcluded(int number, int row, int column) {
-        return cells[toExact(row)][toExact(column)].isExcluded(number);
+    public boolean isNumberInBox(int number, int row, int column) {
+        return (boxMasks[boxOf(row, column)] & toMask(number)) != 0;
     }
 
     /**
-     * Provides the number of excluded numbers.
+     * Provides the index of a cell in the flat array of cells.
      * @param row is the row where the cell is located.
      * @param column is the column where the cell is located.
-     * @return the number of excluded numbers.
+     * @return the index of the cell.
      */
-    public int getCellExcludedNumbers(int row, int column) {
-        return cells[toExact(row)][toExact(column)].getExcludedSize();
+    public int indexOf(int row, int column) {
+        return toExact(row) * gridSize + toExact(column);
+    }
+
+    /**
+     * Provides the index of the box a cell belongs to.
+     * @param row is the row where the cell is located.
+     * @param column is the column where the cell is located.
+     * @return the index of the box.
+     */
+    private int boxOf(int row, int column) {
+        return (toExact(row) / blockSize) * blockSize + toExact(column) / blockSize;
+    }
+
+    /**
+     * Provides the bit representing a number in the masks.
+     * @param number is the number.
+     * @return the bit representing the number.
+     */
+    private static long toMask(int number) {
+        return 1L << toExact(number);
     }
 
     /**
      * Initializes the cells in the grid.
      */
     private void initCells() {
-        cellsSize = gridSize * gridSize;
-        cells = new Cell[gridSize][gridSize];
-        for (int i = 0; i < gridSize; ++i) {
-            for (int j = 0; j < gridSize; ++j) {
-                cells[i][j] = new Cell();
-            }
+        if (blockSize < FIRST || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Block size must be between " + FIRST + " and " + MAX_BLOCK_SIZE);
         }
+        cellsSize = gridSize * gridSize;
+        cells = new byte[cellsSize];
+        rowMasks = new long[gridSize];
+        columnMasks = new long[gridSize];
+        boxMasks = new long[gridSize];
+        numberCounts = new int[gridSize + 1];
+        emptyCells = cellsSize;
+        allNumbers = gridSize == Long.SIZE ? -1L : (1L << gridSize) - 1;
     }
 
     /**
@@ -133,11 +261,10 @@ public class Grid {
      * @param cells are the numbers to place.
      */
     private void initCellsWithGivenCells(Integer[][] cells) {
-        cellsSize = gridSize * gridSize;
-        this.cells = new Cell[gridSize][gridSize];
+        initCells();
         for (int i = 0; i < gridSize; ++i) {
             for (int j = 0; j < gridSize; ++j) {
-                this.cells[i][j] = new Cell(cells[i][j]);
+                setCellNumber(cells[i][j], i + 1, j + 1);
             }
         }
     }
@@ -158,9 +285,49 @@ public class Grid {
     private int cellsSize;
 
     /**
-     * The cells in the grid.
+     * The numbers placed on the cells, row by row.
+     */
+    private byte[] cells;
+
+    /**
+     * Numbers placed in each row, one bit per number.
+     */
+    private long[] rowMasks;
+
+    /**
+     * Numbers placed in each column, one bit per number.
+     */
+    private long[] columnMasks;
+
+    /**
+     * Numbers placed in each box, one bit per number.
+     */
+    private long[] boxMasks;
+
+    /**
+     * How many times each number is placed in the grid, by number.
+     */
+    private int[] numberCounts;
+
+    /**
+     * Number of empty cells.
+     */
+    private int emptyCells;
+
+    /**
+     * All the numbers that can be placed in the grid, one bit per number.
+     */
+    private long allNumbers;
+
+    /**
+     * Value for an empty cell.
+     */
+    public static final int EMPTY_CELL = 0;
+
+    /**
+     * Maximum block size, so that every number fits in the masks.
      */
-    private Cell[][] cells;
+    public static final int MAX_BLOCK_SIZE = 8;
 
     /**
      * Number of blocks in a subgrid.
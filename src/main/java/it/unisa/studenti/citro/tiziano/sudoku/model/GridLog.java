@@ -0,0 +1,60 @@
+package it.unisa.studenti.citro.tiziano.sudoku.model;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.copyOf;
+
+/**
+ * Models the grid of a game with the moves made since it has been last stored as a snapshot.
+ * It is never changed once built, so that it can be replaced at once with each move.
+ */
+@Getter
+public class GridLog {
+
+    /**
+     * Builds the log of a grid.
+     * @param grid is the grid, with every move applied.
+     * @param sequence is the sequence number of the last move made on the grid, 0 if there is none.
+     * @param moves are the moves made since the grid has been last stored as a snapshot.
+     */
+    public GridLog(Integer[][] grid, long sequence, List<Move> moves) {
+        this.grid = grid;
+        this.sequence = sequence;
+        this.moves = moves;
+    }
+
+    /**
+     * Provides the log with a new move, dropping the previous moves when a snapshot is due.
+     * @param move is the new move.
+     * @param snapshotInterval is the number of moves after which a snapshot is taken.
+     * @return the new log.
+     */
+    public GridLog append(Move move, int snapshotInterval) {
+        Integer[][] next = copyOf(grid);
+        move.applyTo(next);
+        List<Move> nextMoves = new ArrayList<>();
+        if (move.getSequence() % snapshotInterval != 0) {
+            nextMoves.addAll(moves);
+            nextMoves.add(move);
+        }
+        return new GridLog(next, move.getSequence(), nextMoves);
+    }
+
+    /**
+     * The grid, with every move applied.
+     */
+    private final Integer[][] grid;
+
+    /**
+     * The sequence number of the last move.
+     */
+    private final long sequence;
+
+    /**
+     * The moves made since the grid has been last stored as a snapshot, in the order they have been made.
+     */
+    private final List<Move> moves;
+}
@@ -0,0 +1,54 @@
+package it.unisa.studenti.citro.tiziano.sudoku.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Models what a peer keeps about a game it has joined, so that placing a number needs nothing else from the store.
+ */
+@Getter
+public class JoinedGame {
+
+    /**
+     * Builds a joined game.
+     * @param player is the player the peer has joined the game as.
+     * @param grid is the grid of the game.
+     * @param sequence is the sequence number of the latest move in the grid.
+     * @param solution is the solution of the game grid, row by row.
+     */
+    public JoinedGame(Player player, Grid grid, long sequence, byte[] solution) {
+        this.player = player;
+        this.grid = grid;
+        this.sequence = sequence;
+        this.solution = solution;
+    }
+
+    /**
+     * The player the peer has joined the game as.
+     */
+    private final Player player;
+
+    /**
+     * The grid of the game, as last retrieved.
+     */
+    @Setter
+    private Grid grid;
+
+    /**
+     * The sequence number up to which every move is in the grid, without any move missed before it.
+     * Moves after it may be in the grid too, when they have been notified before the ones preceding them.
+     */
+    @Setter
+    private long sequence;
+
+    /**
+     * Whether the grid is being retrieved again, to catch up with the moves missed.
+     */
+    @Setter
+    private boolean catchingUp;
+
+    /**
+     * The solution of the game grid, row by row.
+     */
+    private final byte[] solution;
+}
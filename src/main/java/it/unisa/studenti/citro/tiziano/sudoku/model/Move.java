@@ -0,0 +1,47 @@
+package it.unisa.studenti.citro.tiziano.sudoku.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Models a number placed in the grid of a game, stored as an entry of the log of the moves of the game.
+ * Moves are numbered in the order they have been made, so that the grid is rebuilt
+ * by applying them one after the other to the latest snapshot of the grid.
+ */
+@Getter
+@AllArgsConstructor
+public class Move {
+
+    /**
+     * Places the number of the move in a grid.
+     * @param cells are the numbers in the grid, changed in place.
+     */
+    public void applyTo(Integer[][] cells) {
+        cells[row - 1][column - 1] = number;
+    }
+
+    /**
+     * The sequence number of the move in the game, starting from 1.
+     */
+    private final long sequence;
+
+    /**
+     * The row where the number has been placed, starting from 1.
+     */
+    private final int row;
+
+    /**
+     * The column where the number has been placed, starting from 1.
+     */
+    private final int column;
+
+    /**
+     * The number placed.
+     */
+    private final int number;
+
+    /**
+     * The nickname of the player who has placed the number.
+     */
+    private final String player;
+}
@@ -0,0 +1,34 @@
+package it.unisa.studenti.citro.tiziano.sudoku.model;
+
+import lombok.Getter;
+import net.tomp2p.peers.Number160;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.SudokuUtils.scoreKey;
+
+/**
+ * Models a player of a game, with an identifier assigned when the game is joined and kept for as long as it is played.
+ * The identifier is the content key of the score of the player, so that the score is addressed directly
+ * whatever the other players do, without looking the nickname up again.
+ */
+@Getter
+public class Player {
+
+    /**
+     * Builds a player, assigning its identifier.
+     * @param nickname is the nickname the player joins the game with.
+     */
+    public Player(String nickname) {
+        this.nickname = nickname;
+        this.id = scoreKey(nickname);
+    }
+
+    /**
+     * The nickname the player has joined the game with.
+     */
+    private final String nickname;
+
+    /**
+     * The identifier of the player in the game.
+     */
+    private final Number160 id;
+}
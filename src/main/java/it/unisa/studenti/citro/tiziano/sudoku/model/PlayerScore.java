@@ -0,0 +1,28 @@
+package it.unisa.studenti.citro.tiziano.sudoku.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Models the score of a player in a game, stored on its own so that players never update the same data.
+ * It keeps when the player has joined the game, so that scores are listed in the order players have joined.
+ */
+@Getter
+@AllArgsConstructor
+public class PlayerScore {
+
+    /**
+     * The nickname the player has joined the game with.
+     */
+    private final String nickname;
+
+    /**
+     * The score of the player.
+     */
+    private final int score;
+
+    /**
+     * When the player has joined the game, in milliseconds since the epoch.
+     */
+    private final long joined;
+}
@@ -0,0 +1,69 @@
+package it.unisa.studenti.citro.tiziano.sudoku.model;
+
+import lombok.Getter;
+
+/**
+ * Models the progress of a game, taken from the counters kept by its grid.
+ */
+@Getter
+public class Progress {
+
+    /**
+     * Builds the progress of a grid.
+     * @param grid is the grid.
+     */
+    public Progress(Grid grid) {
+        this.gridSize = grid.getGridSize();
+        this.cellsSize = grid.getCellsSize();
+        this.emptyCells = grid.getEmptyCells();
+        this.remaining = new int[gridSize];
+        for (int number = 1; number <= gridSize; number++) {
+            remaining[number - 1] = grid.getRemaining(number);
+        }
+    }
+
+    /**
+     * Checks whether the game has been completed.
+     * @return true if there are no empty cells, false otherwise.
+     */
+    public boolean isCompleted() {
+        return emptyCells == 0;
+    }
+
+    /**
+     * Provides the percentage of filled cells.
+     * @return the percentage of filled cells, between 0 and 100.
+     */
+    public double getPercentage() {
+        return 100.0 * (cellsSize - emptyCells) / cellsSize;
+    }
+
+    /**
+     * Provides how many times a number is still to be placed.
+     * @param number is the number.
+     * @return the times the number is still to be placed.
+     */
+    public int getRemaining(int number) {
+        return remaining[number - 1];
+    }
+
+    /**
+     * Grid size.
+     */
+    private final int gridSize;
+
+    /**
+     * Number of cells.
+     */
+    private final int cellsSize;
+
+    /**
+     * Number of empty cells.
+     */
+    private final int emptyCells;
+
+    /**
+     * How many times each number is still to be placed, starting from 1.
+     */
+    private final int[] remaining;
+}
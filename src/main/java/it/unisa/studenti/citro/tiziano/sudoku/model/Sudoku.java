@@ -1,17 +1,20 @@
 package it.unisa.studenti.citro.tiziano.sudoku.model;
 
+import it.unisa.studenti.citro.tiziano.sudoku.generator.CluesRemover;
+import it.unisa.studenti.citro.tiziano.sudoku.generator.GridGenerator;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.SplittableRandom;
 
-import static it.unisa.studenti.citro.tiziano.sudoku.model.Cell.EMPTY_CELL;
 import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.*;
-import static it.unisa.studenti.citro.tiziano.sudoku.model.Position.nextCellPosition;
-import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.getRandomCellNumber;
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.toBlockSize;
 import static it.unisa.studenti.citro.tiziano.sudoku.utils.Scores.*;
-import static it.unisa.studenti.citro.tiziano.sudoku.verifier.GridVerifier.verifyGridNumber;
-import static it.unisa.studenti.citro.tiziano.sudoku.verifier.SudokuVerifier.verifyPosition;
+import static it.unisa.studenti.citro.tiziano.sudoku.verifier.SudokuVerifier.verifySolution;
 
 /**
  * Models a Sudoku game.
@@ -19,16 +22,90 @@ import static it.unisa.studenti.citro.tiziano.sudoku.verifier.SudokuVerifier.ver
 @Getter
 public class Sudoku {
 
+    /**
+     * Builds a Sudoku game without a name, so that it can be given one later.
+     * It initializes the game grid with random values.
+     */
+    public Sudoku() {
+        this(null);
+    }
+
     /**
      * Builds a Sudoku game with a given name.
      * It initializes the game grid with random values.
      * @param name is the name for the game.
      */
     public Sudoku(String name) {
+        this(name, new SplittableRandom());
+    }
+
+    /**
+     * Builds a Sudoku game with a given name.
+     * It initializes the game grid with random values generated from a given seed,
+     * so that the same seed always produces the same game.
+     * @param name is the name for the game.
+     * @param seed is the seed for the random values.
+     */
+    public Sudoku(String name, long seed) {
+        this(name, new SplittableRandom(seed));
+    }
+
+    /**
+     * Builds a Sudoku game with a given name.
+     * It initializes the game grid with random values taken from a given source.
+     * @param name is the name for the game.
+     * @param random is the source of random values.
+     */
+    public Sudoku(String name, SplittableRandom random) {
+        this(name, random, DEFAULT_DIFFICULTY);
+    }
+
+    /**
+     * Builds a Sudoku game with a given name and a given difficulty.
+     * It initializes the game grid with random values.
+     * @param name is the name for the game.
+     * @param difficulty is the difficulty for the game.
+     */
+    public Sudoku(String name, Difficulty difficulty) {
+        this(name, new SplittableRandom(), difficulty);
+    }
+
+    /**
+     * Builds a Sudoku game with a given name and a given difficulty.
+     * It initializes the game grid with random values taken from a given source.
+     * @param name is the name for the game.
+     * @param random is the source of random values.
+     * @param difficulty is the difficulty for the game.
+     */
+    public Sudoku(String name, SplittableRandom random, Difficulty difficulty) {
+        this(name, random, difficulty, DEFAULT_GRID_SIZE);
+    }
+
+    /**
+     * Builds a Sudoku game with a given name, a given difficulty and a given grid size.
+     * It initializes the game grid with random values.
+     * @param name is the name for the game.
+     * @param difficulty is the difficulty for the game.
+     * @param gridSize is the size for the game grid.
+     */
+    public Sudoku(String name, Difficulty difficulty, GridSize gridSize) {
+        this(name, new SplittableRandom(), difficulty, gridSize);
+    }
+
+    /**
+     * Builds a Sudoku game with a given name, a given difficulty and a given grid size.
+     * It initializes the game grid with random values taken from a given source.
+     * @param name is the name for the game.
+     * @param random is the source of random values.
+     * @param difficulty is the difficulty for the game.
+     * @param gridSize is the size for the game grid.
+     */
+    public Sudoku(String name, SplittableRandom random, Difficulty difficulty, GridSize gridSize) {
         this.name = name;
+        this.difficulty = difficulty;
         players = new LinkedList<>();
         scores = new LinkedList<>();
-        initGrid(CELL_TO_CLEAN);
+        initGrid(random, gridSize.getBlockSize(), difficulty.getClues(gridSize));
     }
 
     /**
@@ -36,12 +113,14 @@ public class Sudoku {
      * It initializes the game grid with given values.
      * @param name is the name for the game.
      * @param cells the values for the grid.
+     * @param solution is the solution for the grid, row by row.
      */
-    public Sudoku(String name, Integer[][] cells) {
+    public Sudoku(String name, Integer[][] cells, byte[] solution) {
         this.name = name;
         players = new LinkedList<>();
         scores = new LinkedList<>();
-        grid = new Grid(BLOCK_NUMBER, cells);
+        grid = new Grid(toBlockSize(cells.length), cells);
+        this.solution = solution;
     }
 
     /**
@@ -64,7 +143,7 @@ public class Sudoku {
         }
 
         // Number to place is correct
-        if (verifyPosition(this, row, column, number)) {
+        if (verifySolution(this, row, column, number)) {
             grid.setCellNumber(number, row, column);
             return CORRECT_NUMBER.getScore();
         }
@@ -78,79 +157,54 @@ public class Sudoku {
      * @return true if the game has been completed, false otherwise.
      */
     public boolean isCompleted() {
-        for (int i = FIRST; i <= TOTAL_BLOCK_NUMBER; i++) {
-            for (int j = FIRST; j <= TOTAL_BLOCK_NUMBER; j++) {
-                if (grid.getCellNumber(i, j) == EMPTY_CELL)
-                    return false;
-            }
-        }
-        return true;
+        return grid.isFull();
     }
 
     /**
-     * Initializes the game grid with random values and cleans some cells for placing numbers in them.
-     * @param cellsToClean is the number of cells to clean.
+     * Provides the progress of the game.
+     * @return the progress of the game.
      */
-    private void initGrid(int cellsToClean) {
-        grid = new Grid(BLOCK_NUMBER);
-        populateGrid(FIRST, FIRST);
-        cleanCells(cellsToClean);
-    }
-
-    /**
-     * Populates the game grid with random values.
-     * @param row is the row for starting populating.
-     * @param column is the column for starting populating.
-     */
-    private void populateGrid(int row, int column) {
-        int gridSize = grid.getGridSize();
-        if (grid.isCellNotFilled(gridSize, gridSize)) {
-            while (grid.getCellExcludedNumbers(row, column) < gridSize) {
-                int candidate;
-                do {
-                    candidate = getRandomCellNumber(gridSize);
-                } while (grid.isNumberExcluded(candidate, row, column));
-                if (verifyGridNumber(grid, candidate, row, column)) {
-                    grid.setCellNumber(candidate, row, column);
-                    Position nextPosition = nextCellPosition(grid, row, column);
-                    int positionRow = nextPosition.getRow();
-                    int positionColumn = nextPosition.getColumn();
-                    if (positionRow <= gridSize && positionColumn <= gridSize) {
-                        populateGrid(positionRow, positionColumn);
-                    }
-                } else {
-                    grid.addNumberAsExcluded(candidate, row, column);
-                }
-            }
-            if (grid.isCellNotFilled(gridSize, gridSize)) {
-                grid.clearCell(row, column);
-            }
-        }
+    public Progress getProgress() {
+        return new Progress(grid);
     }
 
     /**
-     * Cleans some cells for placing numbers in them.
-     * @param cellsToClean is the number of cells to clean.
+     * Initializes the game grid with random values and removes clues for placing numbers in them,
+     * as long as the grid keeps only one solution.
+     * @param random is the source of random values.
+     * @param blockSize is the block size for the grid.
+     * @param clues is the number of clues to leave.
      */
-    private void cleanCells(int cellsToClean) {
-        int round = TOTAL_BLOCK_NUMBER + 1;
-        for (int cell = 0; cell < cellsToClean; cell++) {
-            int row = (int) (Math.random() * round) % TOTAL_BLOCK_NUMBER;
-            int column = (int) (Math.random() * round) % TOTAL_BLOCK_NUMBER;
-            grid.setCellNumber(EMPTY_CELL, row + 1, column + 1);
-        }
+    private void initGrid(SplittableRandom random, int blockSize, int clues) {
+        GridGenerator generator = new GridGenerator(random);
+        grid = generator.generate(blockSize);
+        solution = grid.getCells().clone();
+        CluesRemover remover = new CluesRemover(random);
+        this.clues = remover.remove(grid, clues);
+        generationTime = generator.getGenerationTime() + remover.getRemovalTime();
     }
 
     /**
      * The game name.
      */
+    @Setter
     private String name;
 
+    /**
+     * The game difficulty.
+     */
+    private Difficulty difficulty;
+
     /**
      * The game grid.
      */
     private Grid grid;
 
+    /**
+     * The solution for the game grid, row by row.
+     */
+    private byte[] solution;
+
     /**
      * Users who have been playing the game.
      */
@@ -162,7 +216,23 @@ public class Sudoku {
     private List<Integer> scores;
 
     /**
-     * The default number of cells to clean.
+     * Time taken to generate the game grid, in nanoseconds.
+     */
+    private long generationTime;
+
+    /**
+     * The clues the game grid has been generated with, more than its difficulty asks for
+     * when no more clues could be removed in time, 0 for a game built from given cells.
+     */
+    private int clues;
+
+    /**
+     * The default difficulty for a game.
+     */
+    public static final Difficulty DEFAULT_DIFFICULTY = Difficulty.TRIVIAL;
+
+    /**
+     * The default size for a game grid.
      */
-    public static final Integer CELL_TO_CLEAN = 6;
+    public static final GridSize DEFAULT_GRID_SIZE = GridSize.NINE;
 }
@@ -0,0 +1,228 @@
+package it.unisa.studenti.citro.tiziano.sudoku.pool;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import lombok.Getter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Models a pool of games generated in advance, so that creating a game does not have to wait for its generation.
+ * A low priority background producer tops the pool up to its capacity
+ * whenever the number of games left falls to the low-water mark.
+ */
+public class SudokuPool {
+
+    /**
+     * Builds a pool of games.
+     * @param capacity is the maximum number of games in the pool, 0 for generating every game on demand.
+     * @param lowWaterMark is the number of games left in the pool that triggers a refill.
+     * @param factory is the factory for generating games.
+     */
+    public SudokuPool(int capacity, int lowWaterMark, Supplier<Sudoku> factory) {
+        this.capacity = capacity;
+        this.lowWaterMark = Math.min(lowWaterMark, capacity);
+        this.factory = factory;
+        games = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        lock = new ReentrantLock();
+        belowLowWaterMark = lock.newCondition();
+        hits = new LongAdder();
+        misses = new LongAdder();
+        refills = new LongAdder();
+        generated = new LongAdder();
+    }
+
+    /**
+     * Starts the background producer.
+     */
+    public void start() {
+        if (capacity == 0 || producer != null) {
+            return;
+        }
+        running = true;
+        producer = new Thread(this::produce, PRODUCER_NAME);
+        producer.setDaemon(true);
+        producer.setPriority(Thread.MIN_PRIORITY);
+        producer.start();
+    }
+
+    /**
+     * Takes a game from the pool, generating it on the spot when the pool is empty.
+     * @param name is the name for the game.
+     * @return the game.
+     */
+    public Sudoku take(String name) {
+        Sudoku sudoku = games.poll();
+        if (sudoku == null) {
+            misses.increment();
+            sudoku = factory.get();
+        } else {
+            hits.increment();
+        }
+        if (games.size() <= lowWaterMark) {
+            signalProducer();
+        }
+        sudoku.setName(name);
+        return sudoku;
+    }
+
+    /**
+     * Stops the background producer.
+     */
+    public void shutdown() {
+        running = false;
+        if (producer != null) {
+            producer.interrupt();
+            producer = null;
+        }
+    }
+
+    /**
+     * Provides the number of games ready in the pool.
+     * @return the number of games ready in the pool.
+     */
+    public int size() {
+        return games.size();
+    }
+
+    /**
+     * Provides the number of games taken from the pool.
+     * @return the number of games taken from the pool.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Provides the number of games generated on demand because the pool was empty.
+     * @return the number of games generated on demand.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Provides the number of times the pool has been topped up.
+     * @return the number of refills.
+     */
+    public long getRefills() {
+        return refills.sum();
+    }
+
+    /**
+     * Provides the number of games generated by the background producer.
+     * @return the number of games generated in background.
+     */
+    public long getGenerated() {
+        return generated.sum();
+    }
+
+    /**
+     * Waits for the pool to fall to the low-water mark and then tops it up, until the pool is shut down.
+     */
+    private void produce() {
+        while (running) {
+            lock.lock();
+            try {
+                while (running && games.size() > lowWaterMark) {
+                    belowLowWaterMark.await();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            refills.increment();
+            while (running && games.size() < capacity) {
+                if (!games.offer(factory.get())) {
+                    break;
+                }
+                generated.increment();
+            }
+        }
+    }
+
+    /**
+     * Wakes the background producer up.
+     */
+    private void signalProducer() {
+        lock.lock();
+        try {
+            belowLowWaterMark.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Maximum number of games in the pool.
+     */
+    @Getter
+    private final int capacity;
+
+    /**
+     * Number of games left in the pool that triggers a refill.
+     */
+    @Getter
+    private final int lowWaterMark;
+
+    /**
+     * Factory for generating games.
+     */
+    private final Supplier<Sudoku> factory;
+
+    /**
+     * Games ready to be taken.
+     */
+    private final BlockingQueue<Sudoku> games;
+
+    /**
+     * Lock for waking the producer up.
+     */
+    private final Lock lock;
+
+    /**
+     * Condition the producer waits on until the pool falls to the low-water mark.
+     */
+    private final Condition belowLowWaterMark;
+
+    /**
+     * Games taken from the pool.
+     */
+    private final LongAdder hits;
+
+    /**
+     * Games generated on demand because the pool was empty.
+     */
+    private final LongAdder misses;
+
+    /**
+     * Times the pool has been topped up.
+     */
+    private final LongAdder refills;
+
+    /**
+     * Games generated by the background producer.
+     */
+    private final LongAdder generated;
+
+    /**
+     * The background producer.
+     */
+    private Thread producer;
+
+    /**
+     * Whether the background producer has to keep running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Name for the background producer thread.
+     */
+    public static final String PRODUCER_NAME = "sudoku-pool-producer";
+}
@@ -2,11 +2,11 @@ package it.unisa.studenti.citro.tiziano.sudoku.printer;
 
 import org.beryx.textio.TextTerminal;
 
-import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.BLOCK_NUMBER;
-import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.TOTAL_BLOCK_NUMBER;
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.toBlockSize;
 
 /**
  * Provides pretty printing capabilities for making the game more comfortable.
+ * Grids of any size are supported, with cells as wide as the largest number.
  */
 public class SudokuPrettyPrinter {
 
@@ -16,41 +16,46 @@ public class SudokuPrettyPrinter {
      * @param terminal is the terminal where to print th grid.
      */
     public static void printOnTerminal(Integer[][] cellsNumbers, TextTerminal<?> terminal) {
+        int gridSize = cellsNumbers.length;
+        int blockSize = toBlockSize(gridSize);
+        int width = String.valueOf(gridSize).length();
+        String number = "%" + width + "d";
+        String padding = String.format("%" + width + "s", "");
         terminal.println();
-        terminal.print("    ");
-        for (int i = 0; i < TOTAL_BLOCK_NUMBER; i++) {
-            terminal.printf(" %d", i + 1);
-            if (i % BLOCK_NUMBER == 2) {
+        terminal.print("   " + padding);
+        for (int i = 0; i < gridSize; i++) {
+            terminal.printf(" " + number, i + 1);
+            if (i % blockSize == blockSize - 1) {
                 terminal.print(" ");
             }
         }
         terminal.println();
-        terminal.print("     ");
-        int stop = TOTAL_BLOCK_NUMBER + 1;
+        terminal.print("    " + padding);
+        int stop = gridSize + 1;
         for (int k = 0; k < stop; k++) {
-            terminal.print("__");
+            terminal.print("_" + padding.replace(' ', '_'));
         }
         terminal.println();
-        for (int i = 0; i < TOTAL_BLOCK_NUMBER; i++) {
-            terminal.printf("  %d ", i + 1);
-            for (int j = 0; j < TOTAL_BLOCK_NUMBER; j++) {
-                if (j % BLOCK_NUMBER == 0) {
+        for (int i = 0; i < gridSize; i++) {
+            terminal.printf("  " + number + " ", i + 1);
+            for (int j = 0; j < gridSize; j++) {
+                if (j % blockSize == 0) {
                     terminal.print("|");
                 }
                 if (cellsNumbers[i][j] == 0) {
-                    terminal.print("X ");
+                    terminal.print(padding.substring(1) + "X ");
                 } else {
-                    terminal.printf("%d ", cellsNumbers[i][j]);
+                    terminal.printf(number + " ", cellsNumbers[i][j]);
                 }
-                if (j == TOTAL_BLOCK_NUMBER - 1) {
+                if (j == gridSize - 1) {
                     terminal.print("|");
                 }
             }
             terminal.println();
-            if (i % BLOCK_NUMBER == 2) {
-                terminal.print("     ");
+            if (i % blockSize == blockSize - 1) {
+                terminal.print("    " + padding);
                 for (int k = 0; k < stop; k++) {
-                    terminal.print("__");
+                    terminal.print("_" + padding.replace(' ', '_'));
                 }
                 terminal.println();
             }
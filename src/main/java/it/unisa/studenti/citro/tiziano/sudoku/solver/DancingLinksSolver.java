@@ -0,0 +1,458 @@
+package it.unisa.studenti.citro.tiziano.sudoku.solver;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
+import lombok.Getter;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.EMPTY_CELL;
+
+/**
+ * Provides a solver based on Knuth's Algorithm X with Dancing Links.
+ * Sudoku is modeled as an exact cover problem, where every candidate (row, column, number)
+ * covers one cell, one number in a row, one number in a column and one number in a box.
+ * The node matrix is built once, with links kept in primitive arrays,
+ * and every solve restores it, so that the same solver can be reused without allocating.
+ * A solver is not thread-safe, thus each thread has to use its own.
+ */
+public class DancingLinksSolver implements SudokuSolver {
+
+    /**
+     * Builds a solver for grids with a given block size.
+     * @param blockSize is the block size of the grids to solve.
+     */
+    public DancingLinksSolver(int blockSize) {
+        this(blockSize, Long.MAX_VALUE);
+    }
+
+    /**
+     * Builds a solver for grids with a given block size and a given nodes budget.
+     * A search that tries more candidates than the budget is stopped, as if no other solution existed.
+     * @param blockSize is the block size of the grids to solve.
+     * @param maxNodes is the maximum number of candidates to try in a search.
+     */
+    public DancingLinksSolver(int blockSize, long maxNodes) {
+        this.blockSize = blockSize;
+        this.maxNodes = maxNodes;
+        gridSize = blockSize * blockSize;
+        cellsSize = gridSize * gridSize;
+        int columns = CONSTRAINTS * cellsSize;
+        int candidates = cellsSize * gridSize;
+        int nodes = 1 + columns + candidates * CONSTRAINTS;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        columnOf = new int[nodes];
+        candidateOf = new int[nodes];
+        sizes = new int[1 + columns];
+        covered = new boolean[1 + columns];
+        givens = new int[cellsSize];
+        choices = new int[cellsSize];
+        solution = new byte[cellsSize];
+        buildMatrix(columns, candidates);
+    }
+
+    /**
+     * Counts the solutions of a grid, stopping as soon as the limit is reached.
+     * @param grid is the grid to solve.
+     * @param limit is the maximum number of solutions to count.
+     * @return the number of solutions, at most the limit.
+     */
+    @Override
+    public int countSolutions(Grid grid, int limit) {
+        return run(checkSize(grid).getCells(), limit, false);
+    }
+
+    /**
+     * Counts the solutions of a grid, stopping as soon as the limit is reached.
+     * @param cells are the numbers in the grid, 0 for empty cells.
+     * @param limit is the maximum number of solutions to count.
+     * @return the number of solutions, at most the limit.
+     */
+    @Override
+    public int countSolutions(Integer[][] cells, int limit) {
+        return run(toCells(cells), limit, false);
+    }
+
+    /**
+     * Solves a grid.
+     * @param grid is the grid to solve.
+     * @return the first solution found, row by row, or null if the grid has no solution.
+     */
+    @Override
+    public byte[] solve(Grid grid) {
+        if (run(checkSize(grid).getCells(), 1, true) == 0) {
+            return null;
+        }
+        return solution.clone();
+    }
+
+    /**
+     * Solves a grid.
+     * @param cells are the numbers in the grid, 0 for empty cells.
+     * @return the first solution found, or null if the grid has no solution.
+     */
+    @Override
+    public Integer[][] solve(Integer[][] cells) {
+        if (run(toCells(cells), 1, true) == 0) {
+            return null;
+        }
+        Integer[][] solved = new Integer[gridSize][gridSize];
+        for (int i = 0; i < cellsSize; i++) {
+            solved[i / gridSize][i % gridSize] = (int) solution[i];
+        }
+        return solved;
+    }
+
+    /**
+     * Selects the candidates given by the grid, searches for solutions and then restores the matrix.
+     * @param cells are the numbers in the grid, row by row.
+     * @param limit is the maximum number of solutions to count.
+     * @param record whether the first solution found has to be recorded.
+     * @return the number of solutions, at most the limit.
+     */
+    private int run(byte[] cells, int limit, boolean record) {
+        recordSolution = record;
+        nodesVisited = 0;
+        budgetExceeded = false;
+        int selected = 0;
+        boolean consistent = true;
+        for (int cell = 0; cell < cellsSize && consistent; cell++) {
+            if (cells[cell] != EMPTY_CELL) {
+                int node = firstNodeOf(cell * gridSize + cells[cell] - 1);
+                consistent = isSelectable(node);
+                if (consistent) {
+                    select(node);
+                    givens[selected++] = node;
+                }
+            }
+        }
+        int found = consistent ? search(0, limit, selected) : 0;
+        while (selected > 0) {
+            unselect(givens[--selected]);
+        }
+        return found;
+    }
+
+    /**
+     * Searches for solutions by choosing each time the column with fewer candidates.
+     * @param depth is the number of candidates chosen so far.
+     * @param limit is the maximum number of solutions to count.
+     * @param selected is the number of candidates given by the grid.
+     * @return the number of solutions found, at most the limit.
+     */
+    private int search(int depth, int limit, int selected) {
+        if (right[ROOT] == ROOT) {
+            if (recordSolution) {
+                recordSolution(depth, selected);
+                recordSolution = false;
+            }
+            return 1;
+        }
+        int column = right[ROOT];
+        for (int c = right[column]; c != ROOT && sizes[column] > 1; c = right[c]) {
+            if (sizes[c] < sizes[column]) {
+                column = c;
+            }
+        }
+        if (sizes[column] == 0) {
+            return 0;
+        }
+        cover(column);
+        int found = 0;
+        for (int node = down[column]; node != column && found < limit && !budgetExceeded; node = down[node]) {
+            if (++nodesVisited > maxNodes) {
+                budgetExceeded = true;
+                break;
+            }
+            choices[depth] = node;
+            for (int j = right[node]; j != node; j = right[j]) {
+                cover(columnOf[j]);
+            }
+            found += search(depth + 1, limit - found, selected);
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(columnOf[j]);
+            }
+        }
+        uncover(column);
+        return found;
+    }
+
+    /**
+     * Checks whether none of the columns of a candidate has been covered yet.
+     * @param node is the first node of the candidate.
+     * @return true if the candidate can be selected, false otherwise.
+     */
+    private boolean isSelectable(int node) {
+        for (int k = 0; k < CONSTRAINTS; k++) {
+            if (covered[columnOf[node + k]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Selects a candidate by covering all of its columns.
+     * @param node is the first node of the candidate.
+     */
+    private void select(int node) {
+        cover(columnOf[node]);
+        for (int j = right[node]; j != node; j = right[j]) {
+            cover(columnOf[j]);
+        }
+    }
+
+    /**
+     * Undoes the selection of a candidate.
+     * @param node is the first node of the candidate.
+     */
+    private void unselect(int node) {
+        for (int j = left[node]; j != node; j = left[j]) {
+            uncover(columnOf[j]);
+        }
+        uncover(columnOf[node]);
+    }
+
+    /**
+     * Removes a column from the matrix, along with all the candidates in it.
+     * @param column is the column to cover.
+     */
+    private void cover(int column) {
+        covered[column] = true;
+        right[left[column]] = right[column];
+        left[right[column]] = left[column];
+        for (int i = down[column]; i != column; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                sizes[columnOf[j]]--;
+            }
+        }
+    }
+
+    /**
+     * Puts a covered column back in the matrix, along with all the candidates in it.
+     * @param column is the column to uncover.
+     */
+    private void uncover(int column) {
+        for (int i = up[column]; i != column; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                sizes[columnOf[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[column]] = column;
+        left[right[column]] = column;
+        covered[column] = false;
+    }
+
+    /**
+     * Records the solution made of the given candidates and of the chosen ones.
+     * @param depth is the number of chosen candidates.
+     * @param selected is the number of given candidates.
+     */
+    private void recordSolution(int depth, int selected) {
+        for (int i = 0; i < selected; i++) {
+            recordCandidate(candidateOf[givens[i]]);
+        }
+        for (int i = 0; i < depth; i++) {
+            recordCandidate(candidateOf[choices[i]]);
+        }
+    }
+
+    /**
+     * Records a candidate in the solution.
+     * @param candidate is the candidate to record.
+     */
+    private void recordCandidate(int candidate) {
+        solution[candidate / gridSize] = (byte) (candidate % gridSize + 1);
+    }
+
+    /**
+     * Builds the node matrix, with a column for each constraint and a row for each candidate.
+     * @param columns is the number of columns.
+     * @param candidates is the number of candidates.
+     */
+    private void buildMatrix(int columns, int candidates) {
+        for (int c = 0; c <= columns; c++) {
+            left[c] = c == 0 ? columns : c - 1;
+            right[c] = c == columns ? ROOT : c + 1;
+            up[c] = c;
+            down[c] = c;
+            columnOf[c] = c;
+        }
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            int cell = candidate / gridSize;
+            int row = cell / gridSize;
+            int column = cell % gridSize;
+            int number = candidate % gridSize;
+            int box = (row / blockSize) * blockSize + column / blockSize;
+            int first = firstNodeOf(candidate);
+            int[] constraints = {
+                    cell,
+                    cellsSize + row * gridSize + number,
+                    2 * cellsSize + column * gridSize + number,
+                    3 * cellsSize + box * gridSize + number
+            };
+            for (int k = 0; k < CONSTRAINTS; k++) {
+                int node = first + k;
+                int header = 1 + constraints[k];
+                left[node] = k == 0 ? first + CONSTRAINTS - 1 : node - 1;
+                right[node] = k == CONSTRAINTS - 1 ? first : node + 1;
+                up[node] = up[header];
+                down[node] = header;
+                down[up[header]] = node;
+                up[header] = node;
+                columnOf[node] = header;
+                candidateOf[node] = candidate;
+                sizes[header]++;
+            }
+        }
+    }
+
+    /**
+     * Provides the first node of a candidate.
+     * @param candidate is the candidate.
+     * @return the first node of the candidate.
+     */
+    private int firstNodeOf(int candidate) {
+        return 1 + CONSTRAINTS * cellsSize + candidate * CONSTRAINTS;
+    }
+
+    /**
+     * Checks that a grid has the size the solver has been built for.
+     * @param grid is the grid to check.
+     * @return the grid.
+     */
+    private Grid checkSize(Grid grid) {
+        if (grid.getBlockSize() != blockSize) {
+            throw new IllegalArgumentException("Grid block size " + grid.getBlockSize()
+                    + " does not match solver block size " + blockSize);
+        }
+        return grid;
+    }
+
+    /**
+     * Converts a matrix of numbers to the numbers row by row.
+     * @param cells are the numbers in the grid.
+     * @return the numbers row by row.
+     */
+    private byte[] toCells(Integer[][] cells) {
+        if (cells.length != gridSize) {
+            throw new IllegalArgumentException("Grid size " + cells.length
+                    + " does not match solver grid size " + gridSize);
+        }
+        byte[] flat = new byte[cellsSize];
+        for (int i = 0; i < gridSize; i++) {
+            for (int j = 0; j < gridSize; j++) {
+                flat[i * gridSize + j] = cells[i][j].byteValue();
+            }
+        }
+        return flat;
+    }
+
+    /**
+     * Block size of the grids to solve.
+     */
+    @Getter
+    private final int blockSize;
+
+    /**
+     * Size of the grids to solve.
+     */
+    private final int gridSize;
+
+    /**
+     * Number of cells in the grids to solve.
+     */
+    private final int cellsSize;
+
+    /**
+     * Left link of each node.
+     */
+    private final int[] left;
+
+    /**
+     * Right link of each node.
+     */
+    private final int[] right;
+
+    /**
+     * Up link of each node.
+     */
+    private final int[] up;
+
+    /**
+     * Down link of each node.
+     */
+    private final int[] down;
+
+    /**
+     * Column header of each node.
+     */
+    private final int[] columnOf;
+
+    /**
+     * Candidate each node belongs to.
+     */
+    private final int[] candidateOf;
+
+    /**
+     * Number of candidates left in each column.
+     */
+    private final int[] sizes;
+
+    /**
+     * Whether each column is covered.
+     */
+    private final boolean[] covered;
+
+    /**
+     * First nodes of the candidates given by the grid being solved.
+     */
+    private final int[] givens;
+
+    /**
+     * First nodes of the candidates chosen by the search.
+     */
+    private final int[] choices;
+
+    /**
+     * The last recorded solution, row by row.
+     */
+    private final byte[] solution;
+
+    /**
+     * Whether the next solution found has to be recorded.
+     */
+    private boolean recordSolution;
+
+    /**
+     * Candidates tried by the last search.
+     */
+    @Getter
+    private long nodesVisited;
+
+    /**
+     * Maximum number of candidates to try in a search.
+     */
+    @Getter
+    private final long maxNodes;
+
+    /**
+     * Whether the last search has been stopped because it exceeded the nodes budget.
+     */
+    @Getter
+    private boolean budgetExceeded;
+
+    /**
+     * Index of the root header.
+     */
+    private static final int ROOT = 0;
+
+    /**
+     * Number of constraints each candidate covers.
+     */
+    private static final int CONSTRAINTS = 4;
+}
@@ -0,0 +1,39 @@
+package it.unisa.studenti.citro.tiziano.sudoku.solver;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
+
+/**
+ * Models a solver for Sudoku grids.
+ */
+public interface SudokuSolver {
+
+    /**
+     * Counts the solutions of a grid, stopping as soon as the limit is reached.
+     * @param grid is the grid to solve.
+     * @param limit is the maximum number of solutions to count.
+     * @return the number of solutions, at most the limit.
+     */
+    int countSolutions(Grid grid, int limit);
+
+    /**
+     * Counts the solutions of a grid, stopping as soon as the limit is reached.
+     * @param cells are the numbers in the grid, 0 for empty cells.
+     * @param limit is the maximum number of solutions to count.
+     * @return the number of solutions, at most the limit.
+     */
+    int countSolutions(Integer[][] cells, int limit);
+
+    /**
+     * Solves a grid.
+     * @param grid is the grid to solve.
+     * @return the first solution found, row by row, or null if the grid has no solution.
+     */
+    byte[] solve(Grid grid);
+
+    /**
+     * Solves a grid.
+     * @param cells are the numbers in the grid, 0 for empty cells.
+     * @return the first solution found, or null if the grid has no solution.
+     */
+    Integer[][] solve(Integer[][] cells);
+}
@@ -0,0 +1,141 @@
+package it.unisa.studenti.citro.tiziano.sudoku.store;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Models the metrics about reads of grids kept in a cache,
+ * so that it can be checked how often a grid is read without retrieving it from the store.
+ */
+public class CacheMetrics {
+
+    /**
+     * Records that a grid has been read from the cache, without any request to the store.
+     */
+    public void hit() {
+        hits.increment();
+    }
+
+    /**
+     * Records that a cached grid older than the staleness bound has been found still up to date
+     * by checking its sequence number only.
+     */
+    public void revalidated() {
+        revalidations.increment();
+    }
+
+    /**
+     * Records that a grid has been retrieved from the store.
+     */
+    public void missed() {
+        misses.increment();
+    }
+
+    /**
+     * Records that a cached grid has been dropped, since it has been changed by some peer.
+     */
+    public void invalidated() {
+        invalidations.increment();
+    }
+
+    /**
+     * Records that a move made by another peer has been applied to a cached grid, without any request to the store.
+     */
+    public void applied() {
+        applications.increment();
+    }
+
+    /**
+     * Records that a cached grid has been retrieved again from the store, since some moves were missing.
+     */
+    public void filled() {
+        fills.increment();
+    }
+
+    /**
+     * Provides the number of grids read from the cache without any request to the store.
+     * @return the number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Provides the number of cached grids found up to date by checking their sequence number.
+     * @return the number of revalidations.
+     */
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    /**
+     * Provides the number of grids retrieved from the store.
+     * @return the number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Provides the number of cached grids dropped.
+     * @return the number of invalidations.
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Provides the number of moves made by other peers applied to cached grids.
+     * @return the number of applied moves.
+     */
+    public long getApplications() {
+        return applications.sum();
+    }
+
+    /**
+     * Provides the number of cached grids retrieved again since some moves were missing.
+     * @return the number of fills.
+     */
+    public long getFills() {
+        return fills.sum();
+    }
+
+    /**
+     * Provides the share of reads that have not retrieved the grid from the store.
+     * @return the hit rate, between 0 and 1, 0 if there have been no reads.
+     */
+    public double getHitRate() {
+        long hits = getHits() + getRevalidations();
+        long reads = hits + getMisses();
+        return reads == 0 ? 0 : (double) hits / reads;
+    }
+
+    /**
+     * Number of reads from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of cached grids found up to date by checking their sequence number.
+     */
+    private final LongAdder revalidations = new LongAdder();
+
+    /**
+     * Number of reads from the store.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Number of cached grids dropped.
+     */
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Number of moves made by other peers applied to cached grids.
+     */
+    private final LongAdder applications = new LongAdder();
+
+    /**
+     * Number of cached grids retrieved again since some moves were missing.
+     */
+    private final LongAdder fills = new LongAdder();
+}
@@ -0,0 +1,407 @@
+package it.unisa.studenti.citro.tiziano.sudoku.store;
+
+import it.unisa.studenti.citro.tiziano.sudoku.dht.ContentionMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.UpdateStatus;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GameRecord;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GridLog;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Player;
+import lombok.Getter;
+import net.tomp2p.peers.PeerAddress;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.copyOf;
+
+/**
+ * Keeps the grids read from another store in memory, so that reading a grid again costs no request to that store.
+ * A cached grid is read as it is until it is older than the staleness bound, then it is checked by retrieving
+ * the sequence number of the last move only, and retrieved again only if some move has been made in the meantime.
+ * A grid is cached again after each move made through this store, and the moves made by other peers
+ * are applied to it as the peer is notified about them, so that it is kept up to date as a live replica
+ * and the staleness bound only matters for lost notifications.
+ * Everything else goes straight to the other store.
+ */
+public class CachingGameStore implements GameStore {
+
+    /**
+     * Builds a cache for the grids of another store.
+     * @param store is the store the grids are read from.
+     * @param maxStalenessMillis is how long a cached grid is read without checking it against the store.
+     */
+    public CachingGameStore(GameStore store, long maxStalenessMillis) {
+        this.store = store;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.grids = new ConcurrentHashMap<>();
+        this.fills = new ConcurrentHashMap<>();
+        this.metrics = new CacheMetrics();
+    }
+
+    /**
+     * Drops the cached grid of a game, so that it is retrieved again at the next read.
+     * @param name is the game name.
+     */
+    public void invalidate(String name) {
+        if (grids.remove(name) != null) {
+            metrics.invalidated();
+        }
+    }
+
+    /**
+     * Applies a move made by another peer to the cached grid of a game, so that it is read up to date
+     * without retrieving it again.
+     * A move already applied is ignored, while a move coming after some missing ones, or a move for a grid
+     * not cached yet, makes the grid be retrieved with a single request, shared by the moves arriving meanwhile.
+     * @param name is the game name.
+     * @param move is the move, already appended to the game.
+     * @return a future completed once the move is part of the cached grid.
+     */
+    public CompletableFuture<Void> apply(String name, Move move) {
+        CompletableFuture<Void> filling = fills.get(name);
+        if (filling != null) {
+            // The grid being retrieved may have been read before the move was appended.
+            return filling.thenRun(() -> applyCached(name, move));
+        }
+        return applyCached(name, move) ? CompletableFuture.completedFuture(null) : fill(name, move);
+    }
+
+    /**
+     * Checks whether a game exists.
+     * @param name is the game name.
+     * @return a future for true if the game exists, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> exists(String name) {
+        return store.exists(name);
+    }
+
+    /**
+     * Stores a new game.
+     * @param name is the game name.
+     * @param game is the game.
+     * @return a future for true if the game has been stored, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> create(String name, GameRecord game) {
+        return store.create(name, game);
+    }
+
+    /**
+     * Retrieves everything about a game.
+     * @param name is the game name.
+     * @return a future for the game, null if it does not exist.
+     */
+    @Override
+    public CompletableFuture<GameRecord> getGame(String name) {
+        return store.getGame(name);
+    }
+
+    /**
+     * Reads the grid of a game from the cache, checking it or retrieving it from the store when needed.
+     * @param name is the game name.
+     * @return a future for the grid as a matrix of numbers, null if the game does not exist.
+     */
+    @Override
+    public CompletableFuture<Integer[][]> getGrid(String name) {
+        CachedGrid cached = grids.get(name);
+        if (cached == null) {
+            return load(name);
+        }
+        if (System.currentTimeMillis() - cached.checked <= maxStalenessMillis) {
+            metrics.hit();
+            return CompletableFuture.completedFuture(copyOf(cached.log.getGrid()));
+        }
+        return store.getSequence(name).thenCompose(sequence -> {
+            if (sequence != cached.log.getSequence()) {
+                return load(name);
+            }
+            metrics.revalidated();
+            grids.replace(name, cached, new CachedGrid(cached.log, System.currentTimeMillis()));
+            return CompletableFuture.completedFuture(copyOf(cached.log.getGrid()));
+        });
+    }
+
+    /**
+     * Retrieves the players of a game.
+     * @param name is the game name.
+     * @return a future for the players, null if the game does not exist.
+     */
+    @Override
+    public CompletableFuture<Set<PeerAddress>> getPlayers(String name) {
+        return store.getPlayers(name);
+    }
+
+    /**
+     * Retrieves the scores of a game.
+     * @param name is the game name.
+     * @return a future for the scores of the players, by nickname, in the order they have joined the game,
+     * empty if there are none.
+     */
+    @Override
+    public CompletableFuture<LinkedHashMap<String, Integer>> getScores(String name) {
+        return store.getScores(name);
+    }
+
+    /**
+     * Retrieves the latest grid of a game from the store, caching it.
+     * @param name is the game name.
+     * @return a future for the grid, null if the game does not exist.
+     */
+    @Override
+    public CompletableFuture<GridLog> getLog(String name) {
+        return store.getLog(name).thenApply(log -> {
+            cache(name, log);
+            return log;
+        });
+    }
+
+    /**
+     * Retrieves the sequence number of the last move of a game.
+     * @param name is the game name.
+     * @return a future for the sequence number of the last move, 0 if there is none, -1 if it is not known.
+     */
+    @Override
+    public CompletableFuture<Long> getSequence(String name) {
+        return store.getSequence(name);
+    }
+
+    /**
+     * Retrieves the latest moves of a game.
+     * @param name is the game name.
+     * @return a future for the moves, in the order they have been made, empty if there are none.
+     */
+    @Override
+    public CompletableFuture<List<Move>> getMoves(String name) {
+        return store.getMoves(name);
+    }
+
+    /**
+     * Appends a move to the log of a game, caching the grid with the move once it has been appended.
+     * @param name is the game name.
+     * @param move makes the move, given the latest grid, null if the game does not exist,
+     * and the sequence number the move takes. It returns null for making no move.
+     * @return a future for the outcome of the update.
+     */
+    @Override
+    public CompletableFuture<UpdateStatus> appendMove(String name, BiFunction<Integer[][], Long, Move> move) {
+        Integer[][][] latest = new Integer[1][][];
+        Move[] made = new Move[1];
+        return store.appendMove(name, (grid, sequence) -> {
+            latest[0] = grid == null ? null : copyOf(grid);
+            made[0] = move.apply(grid, sequence);
+            return made[0];
+        }).thenApply(status -> {
+            if (status == UpdateStatus.UPDATED) {
+                made[0].applyTo(latest[0]);
+                cache(name, new GridLog(latest[0], made[0].getSequence(), new ArrayList<>()));
+            }
+            return status;
+        });
+    }
+
+    /**
+     * Updates the players of a game.
+     * @param name is the game name.
+     * @param update is the change to apply to the latest players, given null if there are none.
+     * @return a future for the outcome of the update.
+     */
+    @Override
+    public CompletableFuture<UpdateStatus> updatePlayers(String name, UnaryOperator<Set<PeerAddress>> update) {
+        return store.updatePlayers(name, update);
+    }
+
+    /**
+     * Updates the score of a player in a game.
+     * @param name is the game name.
+     * @param player is the player, as joined the game.
+     * @param update is the change to apply to the latest score, given null if the player has no score yet.
+     * @return a future for the outcome of the update.
+     */
+    @Override
+    public CompletableFuture<UpdateStatus> updateScore(String name, Player player, UnaryOperator<Integer> update) {
+        return store.updateScore(name, player, update);
+    }
+
+    /**
+     * Removes the score of a player from a game.
+     * @param name is the game name.
+     * @param player is the player, as joined the game.
+     * @return a future for true if the score has been removed, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> removeScore(String name, Player player) {
+        return store.removeScore(name, player);
+    }
+
+    /**
+     * Removes everything about a game, dropping its cached grid.
+     * @param name is the game name.
+     * @return a future for true if the game has been removed, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> delete(String name) {
+        return store.delete(name).thenApply(deleted -> {
+            invalidate(name);
+            return deleted;
+        });
+    }
+
+    /**
+     * Provides the metrics about updates that have conflicted with concurrent ones.
+     * @return the contention metrics.
+     */
+    @Override
+    public ContentionMetrics getContentionMetrics() {
+        return store.getContentionMetrics();
+    }
+
+    /**
+     * Provides how much is stored about games at the moment, not counting the cached grids.
+     * @return the storage metrics.
+     */
+    @Override
+    public StorageMetrics getStorageMetrics() {
+        return store.getStorageMetrics();
+    }
+
+    /**
+     * Retrieves the grid of a game from the store, caching it.
+     * @param name is the game name.
+     * @return a future for the grid as a matrix of numbers, null if the game does not exist.
+     */
+    private CompletableFuture<Integer[][]> load(String name) {
+        metrics.missed();
+        return store.getLog(name).thenApply(log -> {
+            cache(name, log);
+            return log == null ? null : copyOf(log.getGrid());
+        });
+    }
+
+    /**
+     * Applies a move to the cached grid of a game, if it is the next one.
+     * @param name is the game name.
+     * @param move is the move.
+     * @return true if the move is part of the cached grid, false if the grid is not cached or some moves are missing.
+     */
+    private boolean applyCached(String name, Move move) {
+        boolean[] applied = new boolean[1];
+        grids.computeIfPresent(name, (key, cached) -> {
+            long sequence = cached.log.getSequence();
+            if (move.getSequence() > sequence + 1) {
+                return cached;
+            }
+            applied[0] = true;
+            if (move.getSequence() <= sequence) {
+                return cached;
+            }
+            metrics.applied();
+            Integer[][] next = copyOf(cached.log.getGrid());
+            move.applyTo(next);
+            // Every move up to this one is known, thus the grid counts as just checked.
+            return new CachedGrid(new GridLog(next, move.getSequence(), new ArrayList<>()), System.currentTimeMillis());
+        });
+        return applied[0];
+    }
+
+    /**
+     * Retrieves the grid of a game from the store, caching it, unless it is being retrieved already.
+     * @param name is the game name.
+     * @param move is the move that has found the grid missing or out of date.
+     * @return a future completed once the grid has been retrieved and cached.
+     */
+    private CompletableFuture<Void> fill(String name, Move move) {
+        CompletableFuture<Void> filled = new CompletableFuture<>();
+        CompletableFuture<Void> filling = fills.putIfAbsent(name, filled);
+        if (filling != null) {
+            return filling.thenRun(() -> applyCached(name, move));
+        }
+        metrics.filled();
+        // The move has been appended before being notified, thus the grid retrieved now has it.
+        store.getLog(name).whenComplete((log, e) -> {
+            if (e == null) {
+                cache(name, log);
+            }
+            fills.remove(name, filled);
+            if (e == null) {
+                filled.complete(null);
+            } else {
+                filled.completeExceptionally(e);
+            }
+        });
+        return filled;
+    }
+
+    /**
+     * Caches the grid of a game, unless a more recent one is cached already.
+     * @param name is the game name.
+     * @param log is the grid, null if the game does not exist.
+     */
+    private void cache(String name, GridLog log) {
+        if (log == null) {
+            grids.remove(name);
+            return;
+        }
+        grids.merge(name, new CachedGrid(log, System.currentTimeMillis()),
+                (cached, fresh) -> fresh.log.getSequence() >= cached.log.getSequence() ? fresh : cached);
+    }
+
+    /**
+     * Models a cached grid with when it has been last checked against the store.
+     */
+    private static class CachedGrid {
+
+        /**
+         * Builds a cached grid.
+         * @param log is the grid.
+         * @param checked is when the grid has been last checked, in milliseconds since the epoch.
+         */
+        private CachedGrid(GridLog log, long checked) {
+            this.log = log;
+            this.checked = checked;
+        }
+
+        /**
+         * The grid, with the sequence number of its last move.
+         */
+        private final GridLog log;
+
+        /**
+         * When the grid has been last checked against the store, in milliseconds since the epoch.
+         */
+        private final long checked;
+    }
+
+    /**
+     * The store the grids are read from.
+     */
+    private final GameStore store;
+
+    /**
+     * How long a cached grid is read without checking it against the store, in milliseconds.
+     */
+    private final long maxStalenessMillis;
+
+    /**
+     * Cached grids, by game name.
+     */
+    private final Map<String, CachedGrid> grids;
+
+    /**
+     * Grids being retrieved since some moves were missing, by game name.
+     */
+    private final Map<String, CompletableFuture<Void>> fills;
+
+    /**
+     * Metrics about reads of cached grids.
+     */
+    @Getter
+    private final CacheMetrics metrics;
+}
@@ -0,0 +1,561 @@
+package it.unisa.studenti.citro.tiziano.sudoku.store;
+
+import it.unisa.studenti.citro.tiziano.sudoku.codec.GridCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.codec.MoveCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.codec.ScoreCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.config.GameConfig;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.ContentionMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.UpdateStatus;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.VersionedUpdater;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GameRecord;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GridLog;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Player;
+import it.unisa.studenti.citro.tiziano.sudoku.model.PlayerScore;
+import net.tomp2p.dht.FuturePut;
+import net.tomp2p.dht.FutureRemove;
+import net.tomp2p.dht.PeerDHT;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number640;
+import net.tomp2p.peers.PeerAddress;
+import net.tomp2p.storage.Data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.Futures.failed;
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.Futures.toCompletable;
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.VersionedUpdater.latestOf;
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.copyOf;
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.SudokuUtils.*;
+
+/**
+ * Stores games in the DHT, under the name of the game as location key and with a content key for each part.
+ * Each player score is stored on its own, in the score domain under the same location key,
+ * with the nickname as content key, so that a score update only writes that score.
+ * The grid is changed by appending moves to a log in the move domain, each claiming the next sequence number
+ * with a put that fails if the number is taken already, and it is stored as a whole only every now and then,
+ * as a snapshot whose version key is the sequence number of its last move. The grid is rebuilt from the latest
+ * snapshot and the few moves after it, so that a move only writes a few bytes instead of the whole grid.
+ * Grids, moves and scores are stored with compact codecs, while everything else is serialized.
+ * Other parts are updated with versions, so that concurrent updates by other peers are never lost.
+ * Everything is stored with a time to live, so that games nobody plays any more are eventually dropped by the DHT:
+ * each write is stored with a fresh one, and the solution, which is never written again,
+ * has its own refreshed whenever players join the game and whenever a snapshot is taken.
+ */
+public class DhtGameStore implements GameStore {
+
+    /**
+     * Builds a store for a given DHT.
+     * @param dht is the DHT where games are stored.
+     * @param config are the settings for updating games.
+     */
+    public DhtGameStore(PeerDHT dht, GameConfig config) {
+        this.dht = dht;
+        this.snapshotInterval = config.getSnapshotInterval();
+        this.ttlSeconds = config.getGameTtlSeconds();
+        this.updater = new VersionedUpdater(dht, GAME_DOMAIN, config.getUpdateMaxRetries(),
+                config.getUpdateBackoffMillis(), config.getUpdateMaxBackoffMillis());
+    }
+
+    /**
+     * Checks whether a game exists, looking for its solution, which is never changed once stored.
+     * @param name is the game name.
+     * @return a future for true if the game exists, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> exists(String name) {
+        return toCompletable(dht.get(gameKey(name)).domainKey(GAME_DOMAIN).contentKey(SOLUTION).start())
+                .thenApply(futureGet -> !futureGet.isSuccess() || !futureGet.isEmpty());
+    }
+
+    /**
+     * Stores a new game, with all its parts at once, unless a game with the same name exists already.
+     * A new game has no players yet, thus scores are stored only as players join it.
+     * @param name is the game name.
+     * @param game is the game.
+     * @return a future for true if the game has been stored, false if it exists already or it has not been stored.
+     */
+    @Override
+    public CompletableFuture<Boolean> create(String name, GameRecord game) {
+        Map<Number160, Data> content = new HashMap<>();
+        try {
+            content.put(GRID, expiring(new Data(GridCodec.encode(game.getGrid()))));
+            content.put(SOLUTION, expiring(new Data(GridCodec.encode(game.getSolution()))));
+            content.put(PLAYERS, expiring(new Data(game.getPlayers())));
+        } catch (IOException e) {
+            return failed(e);
+        }
+        return toCompletable(dht.put(gameKey(name)).domainKey(GAME_DOMAIN).dataMapContent(content).putIfAbsent().start())
+                .thenApply(FuturePut::isSuccess);
+    }
+
+    /**
+     * Retrieves everything about a game, getting its moves, then its parts, and its scores at the same time.
+     * @param name is the game name.
+     * @return a future for the game, null if it does not exist.
+     */
+    @Override
+    public CompletableFuture<GameRecord> getGame(String name) {
+        Number160 locationKey = gameKey(name);
+        CompletableFuture<LinkedHashMap<String, Integer>> scores = getScores(name);
+        // Moves are read before the grid, so that moves dropped in the meantime are always in the grid read.
+        return toCompletable(dht.get(locationKey).domainKey(MOVE_DOMAIN).all().start()).thenCompose(moves ->
+                toCompletable(dht.get(locationKey).domainKey(GAME_DOMAIN).all().start())
+                        .thenCombine(scores, (futureGet, gameScores) -> {
+                            if (moves.isSuccess() && futureGet.isSuccess() && !futureGet.isEmpty()) {
+                                try {
+                                    return toGameRecord(futureGet.dataMap(), moves.dataMap(), gameScores);
+                                } catch (IOException | ClassNotFoundException e) {
+                                    throw new CompletionException(e);
+                                }
+                            }
+                            return null;
+                        }));
+    }
+
+    /**
+     * Retrieves the latest grid of a game, rebuilt from its latest snapshot and the moves after it.
+     * @param name is the game name.
+     * @return a future for the grid as a matrix of numbers, null if the game does not exist.
+     */
+    @Override
+    public CompletableFuture<Integer[][]> getGrid(String name) {
+        return readLog(gameKey(name)).thenApply(log -> log == null ? null : log.getGrid());
+    }
+
+    /**
+     * Retrieves the latest players of a game.
+     * @param name is the game name.
+     * @return a future for the players, null if the game does not exist.
+     */
+    @Override
+    public CompletableFuture<Set<PeerAddress>> getPlayers(String name) {
+        return getLatest(name, PLAYERS).thenApply(data -> {
+            try {
+                return data == null ? null : toPlayers(data);
+            } catch (IOException | ClassNotFoundException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Retrieves the latest score of each player of a game, with a single get.
+     * @param name is the game name.
+     * @return a future for the scores of the players, by nickname, in the order they have joined the game,
+     * empty if there are none.
+     */
+    @Override
+    public CompletableFuture<LinkedHashMap<String, Integer>> getScores(String name) {
+        return toCompletable(dht.get(gameKey(name)).domainKey(SCORE_DOMAIN).all().start())
+                .thenApply(futureGet -> {
+                    List<PlayerScore> scores = new ArrayList<>();
+                    if (futureGet.isSuccess()) {
+                        for (Data data: latestByContentKey(futureGet.dataMap()).values()) {
+                            scores.add(ScoreCodec.decode(data.toBytes()));
+                        }
+                    }
+                    scores.sort(Comparator.comparingLong(PlayerScore::getJoined).thenComparing(PlayerScore::getNickname));
+                    LinkedHashMap<String, Integer> byNickname = new LinkedHashMap<>();
+                    for (PlayerScore score: scores) {
+                        byNickname.put(score.getNickname(), score.getScore());
+                    }
+                    return byNickname;
+                });
+    }
+
+    /**
+     * Retrieves the latest grid of a game, rebuilt from its latest snapshot and the moves after it.
+     * @param name is the game name.
+     * @return a future for the grid, null if the game does not exist.
+     */
+    @Override
+    public CompletableFuture<GridLog> getLog(String name) {
+        return readLog(gameKey(name));
+    }
+
+    /**
+     * Retrieves the sequence number of the last move of a game from its moves only, without its snapshot,
+     * since the moves after the previous snapshot are always kept.
+     * @param name is the game name.
+     * @return a future for the sequence number of the last move, 0 if there is none, -1 if the moves cannot be read.
+     */
+    @Override
+    public CompletableFuture<Long> getSequence(String name) {
+        return toCompletable(dht.get(gameKey(name)).domainKey(MOVE_DOMAIN).all().start()).thenApply(futureGet -> {
+            if (!futureGet.isSuccess()) {
+                return -1L;
+            }
+            long sequence = 0;
+            for (Number640 key: futureGet.dataMap().keySet()) {
+                sequence = Math.max(sequence, key.contentKey().longValue());
+            }
+            return sequence;
+        });
+    }
+
+    /**
+     * Retrieves the moves of a game made after its latest snapshot.
+     * @param name is the game name.
+     * @return a future for the moves, in the order they have been made, empty if there are none.
+     */
+    @Override
+    public CompletableFuture<List<Move>> getMoves(String name) {
+        return readLog(gameKey(name)).thenApply(log -> log == null ? new ArrayList<>() : log.getMoves());
+    }
+
+    /**
+     * Appends a move to the log of a game, claiming the sequence number after the last move read,
+     * and retrying from the latest grid when another move has claimed it in the meantime.
+     * @param name is the game name.
+     * @param move makes the move, given the latest grid, null if the game does not exist,
+     * and the sequence number the move takes. It returns null for making no move.
+     * @return a future for the outcome of the update.
+     */
+    @Override
+    public CompletableFuture<UpdateStatus> appendMove(String name, BiFunction<Integer[][], Long, Move> move) {
+        updater.getMetrics().operationStarted();
+        return append(gameKey(name), move, 0);
+    }
+
+    /**
+     * Updates the players of a game with a new version, refreshing the time to live of its solution.
+     * @param name is the game name.
+     * @param update is the change to apply to the latest players, given null if there are none.
+     * @return a future for the outcome of the update.
+     */
+    @Override
+    public CompletableFuture<UpdateStatus> updatePlayers(String name, UnaryOperator<Set<PeerAddress>> update) {
+        Number160 locationKey = gameKey(name);
+        return updater.update(locationKey, PLAYERS, current -> {
+            Set<PeerAddress> players = update.apply(current == null ? null : toPlayers(current));
+            return players == null ? null : expiring(new Data(players));
+        }).thenApply(status -> {
+            if (status == UpdateStatus.UPDATED) {
+                refresh(locationKey);
+            }
+            return status;
+        });
+    }
+
+    /**
+     * Updates the score of a player in a game with a new version, without touching the scores of the other players.
+     * @param name is the game name.
+     * @param player is the player, as joined the game.
+     * @param update is the change to apply to the latest score, given null if the player has no score yet.
+     * @return a future for the outcome of the update.
+     */
+    @Override
+    public CompletableFuture<UpdateStatus> updateScore(String name, Player player, UnaryOperator<Integer> update) {
+        return updater.update(gameKey(name), SCORE_DOMAIN, player.getId(), current -> {
+            PlayerScore score = current == null ? null : ScoreCodec.decode(current.toBytes());
+            Integer updated = update.apply(score == null ? null : score.getScore());
+            if (updated == null) {
+                return null;
+            }
+            long joined = score == null ? System.currentTimeMillis() : score.getJoined();
+            return expiring(new Data(ScoreCodec.encode(new PlayerScore(player.getNickname(), updated, joined))));
+        });
+    }
+
+    /**
+     * Removes every version of the score of a player from a game.
+     * @param name is the game name.
+     * @param player is the player, as joined the game.
+     * @return a future for true if the score has been removed, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> removeScore(String name, Player player) {
+        Number160 locationKey = gameKey(name);
+        Number160 contentKey = player.getId();
+        return toCompletable(dht.remove(locationKey)
+                .from(new Number640(locationKey, SCORE_DOMAIN, contentKey, Number160.ZERO))
+                .to(new Number640(locationKey, SCORE_DOMAIN, contentKey, Number160.MAX_VALUE)).start())
+                .thenApply(FutureRemove::isSuccess);
+    }
+
+    /**
+     * Removes everything stored under the location key of a game, with a single remove.
+     * @param name is the game name.
+     * @return a future for true if the game has been removed, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> delete(String name) {
+        Number160 locationKey = gameKey(name);
+        return toCompletable(dht.remove(locationKey)
+                .from(new Number640(locationKey, Number160.ZERO, Number160.ZERO, Number160.ZERO))
+                .to(new Number640(locationKey, Number160.MAX_VALUE, Number160.MAX_VALUE, Number160.MAX_VALUE)).start())
+                .thenApply(FutureRemove::isSuccess);
+    }
+
+    /**
+     * Provides the metrics about updates that have conflicted with updates by other peers.
+     * @return the contention metrics.
+     */
+    @Override
+    public ContentionMetrics getContentionMetrics() {
+        return updater.getMetrics();
+    }
+
+    /**
+     * Provides how much is stored about games by this peer, including what it stores for other peers.
+     * @return the storage metrics.
+     */
+    @Override
+    public StorageMetrics getStorageMetrics() {
+        Set<Number160> games = new HashSet<>();
+        int keys = 0;
+        long bytes = 0;
+        for (Map.Entry<Number640, Data> entry: dht.storageLayer().get().entrySet()) {
+            Number160 domainKey = entry.getKey().domainKey();
+            if (domainKey.equals(GAME_DOMAIN) || domainKey.equals(MOVE_DOMAIN) || domainKey.equals(SCORE_DOMAIN)) {
+                games.add(entry.getKey().locationKey());
+                keys++;
+                bytes += entry.getValue().length();
+            }
+        }
+        return new StorageMetrics(games.size(), keys, bytes);
+    }
+
+    /**
+     * Attempts to append a move to the log of a game.
+     * @param locationKey is the location key of the game.
+     * @param move makes the move, given the latest grid and the sequence number the move takes.
+     * @param attempt is the number of the attempt, starting from 0.
+     * @return a future for the outcome of the update.
+     */
+    private CompletableFuture<UpdateStatus> append(Number160 locationKey, BiFunction<Integer[][], Long, Move> move,
+                                                   int attempt) {
+        ContentionMetrics metrics = updater.getMetrics();
+        metrics.attempted();
+        return readLog(locationKey).thenCompose(log -> {
+            long sequence = log == null ? 1 : log.getSequence() + 1;
+            Move made = move.apply(log == null ? null : copyOf(log.getGrid()), sequence);
+            if (made == null) {
+                return CompletableFuture.completedFuture(UpdateStatus.UNCHANGED);
+            }
+            if (log == null) {
+                // There is no game to update.
+                metrics.failed();
+                return CompletableFuture.completedFuture(UpdateStatus.FAILED);
+            }
+            return toCompletable(dht.put(locationKey).domainKey(MOVE_DOMAIN)
+                    .data(moveKey(sequence), expiring(new Data(MoveCodec.encode(made)))).putIfAbsent().start())
+                    .thenCompose(futurePut -> {
+                        if (!futurePut.isSuccess()) {
+                            return updater.retry(attempt, next -> append(locationKey, move, next));
+                        }
+                        if (sequence % snapshotInterval == 0) {
+                            compact(locationKey, log.append(made, snapshotInterval));
+                        }
+                        return CompletableFuture.completedFuture(UpdateStatus.UPDATED);
+                    });
+        });
+    }
+
+    /**
+     * Stores the grid of a game as a snapshot and then removes the older snapshots and the moves
+     * made before the previous snapshot, in the background, refreshing the time to live of the solution.
+     * Moves made after the previous snapshot are kept, so that a move made on a grid read before this snapshot
+     * still finds its sequence number taken, instead of taking the place of a removed move.
+     * A compaction that fails only leaves more moves for the next one to remove.
+     * @param locationKey is the location key of the game.
+     * @param log is the grid with the move that has made the snapshot due.
+     */
+    private void compact(Number160 locationKey, GridLog log) {
+        Number160 version = moveKey(log.getSequence());
+        toCompletable(dht.put(locationKey).domainKey(GAME_DOMAIN)
+                .data(GRID, expiring(new Data(GridCodec.encode(log.getGrid()))), version).start()).thenAccept(futurePut -> {
+            if (futurePut.isSuccess()) {
+                refresh(locationKey);
+                dht.remove(locationKey).from(new Number640(locationKey, GAME_DOMAIN, GRID, Number160.ZERO))
+                        .to(new Number640(locationKey, GAME_DOMAIN, GRID, moveKey(log.getSequence() - 1))).start();
+                dht.remove(locationKey).from(new Number640(locationKey, MOVE_DOMAIN, Number160.ZERO, Number160.ZERO))
+                        .to(new Number640(locationKey, MOVE_DOMAIN, moveKey(log.getSequence() - snapshotInterval),
+                                Number160.MAX_VALUE)).start();
+            }
+        });
+    }
+
+    /**
+     * Refreshes the time to live of the solution of a game in the background, updating its metadata only,
+     * so that the solution of a game still played never expires before its grid.
+     * @param locationKey is the location key of the game.
+     */
+    private void refresh(Number160 locationKey) {
+        if (ttlSeconds > 0) {
+            dht.put(locationKey).domainKey(GAME_DOMAIN).data(SOLUTION, new Data().ttlSeconds(ttlSeconds)).putMeta().start();
+        }
+    }
+
+    /**
+     * Sets the time to live of some data to be stored, unless data is kept forever.
+     * @param data is the data.
+     * @return the data.
+     */
+    private Data expiring(Data data) {
+        return ttlSeconds > 0 ? data.ttlSeconds(ttlSeconds) : data;
+    }
+
+    /**
+     * Retrieves the latest grid of a game with the moves made after its latest snapshot.
+     * Moves are read before the snapshot, so that moves removed in the meantime are always in the snapshot read.
+     * @param locationKey is the location key of the game.
+     * @return a future for the grid, null if the game does not exist.
+     */
+    private CompletableFuture<GridLog> readLog(Number160 locationKey) {
+        return toCompletable(dht.get(locationKey).domainKey(MOVE_DOMAIN).all().start()).thenCompose(moves -> {
+            if (!moves.isSuccess()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return toCompletable(dht.get(locationKey).domainKey(GAME_DOMAIN).contentKey(GRID).getLatest().start())
+                    .thenApply(snapshots -> snapshots.isSuccess()
+                            ? replay(latestOf(snapshots.dataMap()), moves.dataMap()) : null);
+        });
+    }
+
+    /**
+     * Rebuilds a grid by applying to a snapshot the moves made after it, in order,
+     * stopping at the first missing one, whose later moves are not known by every peer yet.
+     * @param snapshot is the latest snapshot of the grid, with the sequence number of its last move as version key.
+     * @param dataMap is the data stored for the moves.
+     * @return the grid with the moves applied, null if there is no snapshot.
+     */
+    private static GridLog replay(Map.Entry<Number640, Data> snapshot, Map<Number640, Data> dataMap) {
+        if (snapshot == null) {
+            return null;
+        }
+        Integer[][] grid = GridCodec.decode(snapshot.getValue().toBytes());
+        long sequence = snapshot.getKey().versionKey().longValue();
+        List<Move> moves = new ArrayList<>();
+        for (Data data: dataMap.values()) {
+            moves.add(MoveCodec.decode(data.toBytes()));
+        }
+        moves.sort(Comparator.comparingLong(Move::getSequence));
+        List<Move> applied = new ArrayList<>();
+        for (Move move: moves) {
+            if (move.getSequence() > sequence + 1) {
+                break;
+            }
+            if (move.getSequence() == sequence + 1) {
+                move.applyTo(grid);
+                applied.add(move);
+                sequence++;
+            }
+        }
+        return new GridLog(grid, sequence, applied);
+    }
+
+    /**
+     * Retrieves the latest version of a part of a game.
+     * @param name is the game name.
+     * @param contentKey is the content key of the part.
+     * @return a future for the latest version, null if there is none.
+     */
+    private CompletableFuture<Data> getLatest(String name, Number160 contentKey) {
+        return toCompletable(dht.get(gameKey(name)).domainKey(GAME_DOMAIN).contentKey(contentKey).getLatest().start())
+                .thenApply(futureGet -> futureGet.isSuccess() ? latestData(futureGet.dataMap()) : null);
+    }
+
+    /**
+     * Builds a game from the data stored for its parts, taking the latest version of each part,
+     * and rebuilding its grid from the latest snapshot and the moves after it.
+     * @param dataMap is the data stored for the parts of the game.
+     * @param moves is the data stored for the moves of the game.
+     * @param scores are the scores of the players.
+     * @return the game, null if its grid or its solution are missing.
+     */
+    private static GameRecord toGameRecord(Map<Number640, Data> dataMap, Map<Number640, Data> moves,
+                                           LinkedHashMap<String, Integer> scores)
+            throws IOException, ClassNotFoundException {
+        Map<Number640, Data> snapshots = new HashMap<>();
+        for (Map.Entry<Number640, Data> entry: dataMap.entrySet()) {
+            if (entry.getKey().contentKey().equals(GRID)) {
+                snapshots.put(entry.getKey(), entry.getValue());
+            }
+        }
+        GridLog grid = replay(latestOf(snapshots), moves);
+        Map<Number160, Data> parts = latestByContentKey(dataMap);
+        Data solution = parts.get(SOLUTION);
+        if (grid == null || solution == null) {
+            return null;
+        }
+        Data players = parts.get(PLAYERS);
+        GameRecord record = new GameRecord(grid.getGrid(), GridCodec.decodeCells(solution.toBytes()),
+                players == null ? new HashSet<>() : toPlayers(players), scores);
+        record.setSequence(grid.getSequence());
+        return record;
+    }
+
+    /**
+     * Provides the latest version of some data.
+     * @param versions are the versions of the data, null if there are none.
+     * @return the latest version, null if there is none.
+     */
+    private static Data latestData(Map<Number640, Data> versions) {
+        Map.Entry<Number640, Data> latest = versions == null ? null : latestOf(versions);
+        return latest == null ? null : latest.getValue();
+    }
+
+    /**
+     * Provides the latest version of the data for each content key.
+     * @param dataMap are the versions of the data, for any content key.
+     * @return the latest version of the data, by content key.
+     */
+    private static Map<Number160, Data> latestByContentKey(Map<Number640, Data> dataMap) {
+        Map<Number160, Map<Number640, Data>> versions = new HashMap<>();
+        for (Map.Entry<Number640, Data> entry: dataMap.entrySet()) {
+            versions.computeIfAbsent(entry.getKey().contentKey(), k -> new HashMap<>()).put(entry.getKey(), entry.getValue());
+        }
+        Map<Number160, Data> latest = new HashMap<>();
+        for (Map.Entry<Number160, Map<Number640, Data>> entry: versions.entrySet()) {
+            Data data = latestData(entry.getValue());
+            if (data != null) {
+                latest.put(entry.getKey(), data);
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Provides the players stored for a game.
+     * @param data is the data stored for the players.
+     * @return the players.
+     */
+    @SuppressWarnings("unchecked")
+    private static Set<PeerAddress> toPlayers(Data data) throws IOException, ClassNotFoundException {
+        return (Set<PeerAddress>) data.object();
+    }
+
+    /**
+     * The DHT where games are stored.
+     */
+    private final PeerDHT dht;
+
+    /**
+     * Number of moves after which the grid of a game is stored as a snapshot.
+     */
+    private final int snapshotInterval;
+
+    /**
+     * How long in seconds the data of a game is kept since it has been last written, 0 for keeping it forever.
+     */
+    private final int ttlSeconds;
+
+    /**
+     * Updater for the parts of games shared with other peers.
+     */
+    private final VersionedUpdater updater;
+}
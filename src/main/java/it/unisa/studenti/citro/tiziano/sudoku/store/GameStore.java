@@ -0,0 +1,150 @@
+package it.unisa.studenti.citro.tiziano.sudoku.store;
+
+import it.unisa.studenti.citro.tiziano.sudoku.dht.ContentionMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.UpdateStatus;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GameRecord;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GridLog;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Player;
+import net.tomp2p.peers.PeerAddress;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Models where games are stored, so that the game logic does not depend on how and where they are kept.
+ * Every operation returns at once with a future, completed when the operation is done.
+ * Updates are applied to the latest value of a part of a game, and are never lost when concurrent with others:
+ * an update may be applied more than once, every time to the latest value, thus it must not have side effects
+ * other than remembering the outcome of the last time it has been applied.
+ * It may change the value it is given, and returns null for leaving the part unchanged.
+ * Each player score is a part on its own, so that players never conflict when updating their scores.
+ * The grid is changed only by appending moves to the log of the game, in the order they are made,
+ * and it is kept as a snapshot updated every now and then, so that older moves are dropped.
+ */
+public interface GameStore {
+
+    /**
+     * Checks whether a game exists.
+     * @param name is the game name.
+     * @return a future for true if the game exists, false otherwise.
+     */
+    CompletableFuture<Boolean> exists(String name);
+
+    /**
+     * Stores a new game, with all its parts.
+     * @param name is the game name.
+     * @param game is the game.
+     * @return a future for true if the game has been stored, false otherwise.
+     */
+    CompletableFuture<Boolean> create(String name, GameRecord game);
+
+    /**
+     * Retrieves everything about a game, at once.
+     * @param name is the game name.
+     * @return a future for the game, null if it does not exist.
+     */
+    CompletableFuture<GameRecord> getGame(String name);
+
+    /**
+     * Retrieves the grid of a game.
+     * @param name is the game name.
+     * @return a future for the grid as a matrix of numbers, null if the game does not exist.
+     */
+    CompletableFuture<Integer[][]> getGrid(String name);
+
+    /**
+     * Retrieves the players of a game.
+     * @param name is the game name.
+     * @return a future for the players, null if the game does not exist.
+     */
+    CompletableFuture<Set<PeerAddress>> getPlayers(String name);
+
+    /**
+     * Retrieves the scores of a game.
+     * @param name is the game name.
+     * @return a future for the scores of the players, by nickname, in the order they have joined the game,
+     * empty if there are none.
+     */
+    CompletableFuture<LinkedHashMap<String, Integer>> getScores(String name);
+
+    /**
+     * Retrieves the latest grid of a game, with the sequence number of its last move
+     * and the moves made since it has been last stored as a snapshot.
+     * @param name is the game name.
+     * @return a future for the grid, null if the game does not exist.
+     */
+    CompletableFuture<GridLog> getLog(String name);
+
+    /**
+     * Retrieves the sequence number of the last move of a game, so that a copy of its grid can be checked
+     * without retrieving the grid again.
+     * @param name is the game name.
+     * @return a future for the sequence number of the last move, 0 if there is none, -1 if it is not known.
+     */
+    CompletableFuture<Long> getSequence(String name);
+
+    /**
+     * Retrieves the latest moves of a game, made since its grid has been last stored as a snapshot.
+     * @param name is the game name.
+     * @return a future for the moves, in the order they have been made, empty if there are none.
+     */
+    CompletableFuture<List<Move>> getMoves(String name);
+
+    /**
+     * Appends a move to the log of a game, made on its latest grid.
+     * @param name is the game name.
+     * @param move makes the move, given the latest grid, null if the game does not exist,
+     * and the sequence number the move takes. It returns null for making no move.
+     * @return a future for the outcome of the update.
+     */
+    CompletableFuture<UpdateStatus> appendMove(String name, BiFunction<Integer[][], Long, Move> move);
+
+    /**
+     * Updates the players of a game.
+     * @param name is the game name.
+     * @param update is the change to apply to the latest players, given null if there are none.
+     * @return a future for the outcome of the update.
+     */
+    CompletableFuture<UpdateStatus> updatePlayers(String name, UnaryOperator<Set<PeerAddress>> update);
+
+    /**
+     * Updates the score of a player in a game, without touching the scores of the other players.
+     * @param name is the game name.
+     * @param player is the player, as joined the game.
+     * @param update is the change to apply to the latest score, given null if the player has no score yet.
+     * @return a future for the outcome of the update.
+     */
+    CompletableFuture<UpdateStatus> updateScore(String name, Player player, UnaryOperator<Integer> update);
+
+    /**
+     * Removes the score of a player from a game.
+     * @param name is the game name.
+     * @param player is the player, as joined the game.
+     * @return a future for true if the score has been removed, false otherwise.
+     */
+    CompletableFuture<Boolean> removeScore(String name, Player player);
+
+    /**
+     * Removes everything about a game: its parts, its moves and its scores.
+     * @param name is the game name.
+     * @return a future for true if the game has been removed, false otherwise.
+     */
+    CompletableFuture<Boolean> delete(String name);
+
+    /**
+     * Provides the metrics about updates that have conflicted with concurrent ones.
+     * @return the contention metrics.
+     */
+    ContentionMetrics getContentionMetrics();
+
+    /**
+     * Provides how much is stored about games at the moment.
+     * @return the storage metrics.
+     */
+    StorageMetrics getStorageMetrics();
+}
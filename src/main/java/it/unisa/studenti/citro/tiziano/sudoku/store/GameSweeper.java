@@ -0,0 +1,264 @@
+package it.unisa.studenti.citro.tiziano.sudoku.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.EMPTY_CELL;
+
+/**
+ * Purges from a store the games a peer knows about once they are completed or abandoned, in the background.
+ * A game is purged when no move has been made on it for a while and either its grid is full
+ * or no player is playing it any more, after someone has played it, so that a game nobody has joined yet is kept.
+ * Games expire anyway once their time to live has elapsed,
+ * so this only drops earlier the games nobody will play again.
+ * A game is forgotten once it does not exist any more, whoever has removed it.
+ */
+public class GameSweeper {
+
+    /**
+     * Builds a sweeper for a store.
+     * @param store is the store games are purged from.
+     * @param idleMillis is how long a completed or abandoned game is kept with no moves before being purged.
+     */
+    public GameSweeper(GameStore store, long idleMillis) {
+        this.store = store;
+        this.idleMillis = idleMillis;
+        this.games = new ConcurrentHashMap<>();
+        this.purged = new LongAdder();
+    }
+
+    /**
+     * Starts sweeping games periodically in the background.
+     * @param periodMillis is the time in milliseconds between two sweeps.
+     */
+    public synchronized void start(long periodMillis) {
+        if (periodMillis <= 0 || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, SWEEPER_NAME);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sweep().join();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sweeping games.
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Adds a game to the games to sweep.
+     * @param name is the game name.
+     */
+    public void track(String name) {
+        games.putIfAbsent(name, new Activity(-1, System.currentTimeMillis(), false));
+    }
+
+    /**
+     * Adds a game joined by the peer to the games to sweep, so that it counts as abandoned once it has no players,
+     * even if it is left before any sweep has seen it played.
+     * @param name is the game name.
+     */
+    public void trackJoined(String name) {
+        games.merge(name, new Activity(-1, System.currentTimeMillis(), true),
+                (last, joined) -> last.played ? last : new Activity(last.sequence, last.since, true));
+    }
+
+    /**
+     * Checks every game known and purges the ones that are completed or abandoned, all at once.
+     * @return a future for the names of the games purged.
+     */
+    public CompletableFuture<List<String>> sweep() {
+        List<String> names = new ArrayList<>(games.keySet());
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>();
+        for (String name: names) {
+            checks.add(check(name));
+        }
+        return CompletableFuture.allOf(checks.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<String> swept = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (checks.get(i).join()) {
+                    swept.add(names.get(i));
+                }
+            }
+            return swept;
+        });
+    }
+
+    /**
+     * Provides the number of games known, to be checked at the next sweep.
+     * @return the number of games known.
+     */
+    public int size() {
+        return games.size();
+    }
+
+    /**
+     * Provides the number of games purged so far.
+     * @return the number of games purged.
+     */
+    public long getPurged() {
+        return purged.sum();
+    }
+
+    /**
+     * Checks a game, purging it if it has been idle for long enough and it is either completed or abandoned.
+     * @param name is the game name.
+     * @return a future for true if the game has been purged, false otherwise.
+     */
+    private CompletableFuture<Boolean> check(String name) {
+        return store.getPlayers(name).thenCompose(players -> {
+            if (players == null) {
+                // The game does not exist any more.
+                games.remove(name);
+                return CompletableFuture.completedFuture(false);
+            }
+            if (!players.isEmpty()) {
+                trackJoined(name);
+            }
+            return store.getSequence(name).thenCompose(sequence -> {
+                if (sequence < 0 || !isIdle(name, sequence)) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                if (players.isEmpty()) {
+                    // Abandoned only after the last player has left, not while waiting for the first one.
+                    Activity activity = games.get(name);
+                    return activity != null && activity.played ? purge(name) : CompletableFuture.completedFuture(false);
+                }
+                return store.getGrid(name).thenCompose(grid -> grid != null && isCompleted(grid)
+                        ? purge(name) : CompletableFuture.completedFuture(false));
+            });
+        }).exceptionally(e -> {
+            e.printStackTrace();
+            return false;
+        });
+    }
+
+    /**
+     * Records the last move seen on a game and checks whether no move has been made since long enough.
+     * @param name is the game name.
+     * @param sequence is the sequence number of the last move of the game.
+     * @return true if the game has been idle for long enough, false otherwise.
+     */
+    private boolean isIdle(String name, long sequence) {
+        long now = System.currentTimeMillis();
+        Activity activity = games.computeIfPresent(name,
+                (game, last) -> last.sequence == sequence ? last : new Activity(sequence, now, last.played));
+        return activity != null && now - activity.since >= idleMillis;
+    }
+
+    /**
+     * Removes a game from the store and forgets it.
+     * @param name is the game name.
+     * @return a future for true if the game has been removed, false otherwise.
+     */
+    private CompletableFuture<Boolean> purge(String name) {
+        return store.delete(name).thenApply(deleted -> {
+            if (deleted) {
+                games.remove(name);
+                purged.increment();
+            }
+            return deleted;
+        });
+    }
+
+    /**
+     * Checks whether a grid has been completed.
+     * @param grid is the grid.
+     * @return true if there are no empty cells, false otherwise.
+     */
+    private static boolean isCompleted(Integer[][] grid) {
+        for (Integer[] row: grid) {
+            for (Integer cell: row) {
+                if (cell == EMPTY_CELL) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Models the last move seen on a game and since when it has been seen, and whether the game has been played.
+     */
+    private static class Activity {
+
+        /**
+         * Builds the activity of a game.
+         * @param sequence is the sequence number of the last move seen, -1 if none has been seen yet.
+         * @param since is when the move has been first seen, in milliseconds since the epoch.
+         * @param played whether the game has had players.
+         */
+        private Activity(long sequence, long since, boolean played) {
+            this.sequence = sequence;
+            this.since = since;
+            this.played = played;
+        }
+
+        /**
+         * The sequence number of the last move seen, -1 if none has been seen yet.
+         */
+        private final long sequence;
+
+        /**
+         * When the last move has been first seen, in milliseconds since the epoch.
+         */
+        private final long since;
+
+        /**
+         * Whether the game has had players, either seen by a sweep or joined by the peer.
+         */
+        private final boolean played;
+    }
+
+    /**
+     * The store games are purged from.
+     */
+    private final GameStore store;
+
+    /**
+     * How long in milliseconds a completed or abandoned game is kept with no moves before being purged.
+     */
+    private final long idleMillis;
+
+    /**
+     * Games known, with the last move seen on each of them.
+     */
+    private final Map<String, Activity> games;
+
+    /**
+     * Number of games purged so far.
+     */
+    private final LongAdder purged;
+
+    /**
+     * Scheduler of the sweeps, null if sweeps are not running.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Name of the thread sweeping games.
+     */
+    public static final String SWEEPER_NAME = "game-sweeper";
+}
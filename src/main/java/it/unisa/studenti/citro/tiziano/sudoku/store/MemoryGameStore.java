@@ -0,0 +1,407 @@
+package it.unisa.studenti.citro.tiziano.sudoku.store;
+
+import it.unisa.studenti.citro.tiziano.sudoku.codec.GridCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.codec.MoveCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.codec.ScoreCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.ContentionMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.UpdateStatus;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GameRecord;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GridLog;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Player;
+import it.unisa.studenti.citro.tiziano.sudoku.model.PlayerScore;
+import net.tomp2p.peers.PeerAddress;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.config.GameConfig.DEFAULT_SNAPSHOT_INTERVAL;
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.copyOf;
+
+/**
+ * Stores games in memory, so that the game logic runs without any network, e.g. for a single node or for profiling.
+ * Games are kept in a concurrent map and each part of a game in an atomic reference,
+ * updated with compare-and-set without locks, retrying when another update has been made in the meantime.
+ * Player scores are kept in a concurrent map for each game and updated with compare-and-set one by one.
+ * The grid is kept with the moves made since it has been last compacted, and both are replaced at once with each move.
+ * Values are copied whenever they go in or out, so that no caller ever sees a change it has not made.
+ * Every future is already completed when it is returned.
+ */
+public class MemoryGameStore implements GameStore {
+
+    /**
+     * Builds an empty store.
+     */
+    public MemoryGameStore() {
+        this(DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Builds an empty store, compacting the moves of a game every given number of moves.
+     * @param snapshotInterval is the number of moves after which the moves of a game are dropped.
+     */
+    public MemoryGameStore(int snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+        this.games = new ConcurrentHashMap<>();
+        this.joins = new AtomicLong();
+        this.metrics = new ContentionMetrics();
+    }
+
+    /**
+     * Checks whether a game exists.
+     * @param name is the game name.
+     * @return a future for true if the game exists, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> exists(String name) {
+        return CompletableFuture.completedFuture(games.containsKey(name));
+    }
+
+    /**
+     * Stores a new game, unless a game with the same name exists already.
+     * @param name is the game name.
+     * @param game is the game.
+     * @return a future for true if the game has been stored, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> create(String name, GameRecord game) {
+        return CompletableFuture.completedFuture(games.putIfAbsent(name, new StoredGame(game)) == null);
+    }
+
+    /**
+     * Retrieves everything about a game.
+     * @param name is the game name.
+     * @return a future for the game, null if it does not exist.
+     */
+    @Override
+    public CompletableFuture<GameRecord> getGame(String name) {
+        StoredGame game = games.get(name);
+        if (game == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        GridLog log = game.log.get();
+        GameRecord record = new GameRecord(copyOf(log.getGrid()), game.solution.clone(),
+                new HashSet<>(game.players.get()), toScores(game));
+        record.setSequence(log.getSequence());
+        return CompletableFuture.completedFuture(record);
+    }
+
+    /**
+     * Retrieves the grid of a game.
+     * @param name is the game name.
+     * @return a future for the grid as a matrix of numbers, null if the game does not exist.
+     */
+    @Override
+    public CompletableFuture<Integer[][]> getGrid(String name) {
+        StoredGame game = games.get(name);
+        return CompletableFuture.completedFuture(game == null ? null : copyOf(game.log.get().getGrid()));
+    }
+
+    /**
+     * Retrieves the players of a game.
+     * @param name is the game name.
+     * @return a future for the players, null if the game does not exist.
+     */
+    @Override
+    public CompletableFuture<Set<PeerAddress>> getPlayers(String name) {
+        StoredGame game = games.get(name);
+        return CompletableFuture.completedFuture(game == null ? null : new HashSet<>(game.players.get()));
+    }
+
+    /**
+     * Retrieves the scores of a game.
+     * @param name is the game name.
+     * @return a future for the scores of the players, by nickname, in the order they have joined the game,
+     * empty if there are none.
+     */
+    @Override
+    public CompletableFuture<LinkedHashMap<String, Integer>> getScores(String name) {
+        StoredGame game = games.get(name);
+        return CompletableFuture.completedFuture(game == null ? new LinkedHashMap<>() : toScores(game));
+    }
+
+    /**
+     * Retrieves the grid of a game, with the sequence number of its last move and the moves since it has been compacted.
+     * @param name is the game name.
+     * @return a future for the grid, null if the game does not exist.
+     */
+    @Override
+    public CompletableFuture<GridLog> getLog(String name) {
+        StoredGame game = games.get(name);
+        if (game == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        GridLog log = game.log.get();
+        return CompletableFuture.completedFuture(
+                new GridLog(copyOf(log.getGrid()), log.getSequence(), new ArrayList<>(log.getMoves())));
+    }
+
+    /**
+     * Retrieves the sequence number of the last move of a game.
+     * @param name is the game name.
+     * @return a future for the sequence number of the last move, 0 if there is none, -1 if the game does not exist.
+     */
+    @Override
+    public CompletableFuture<Long> getSequence(String name) {
+        StoredGame game = games.get(name);
+        return CompletableFuture.completedFuture(game == null ? -1 : game.log.get().getSequence());
+    }
+
+    /**
+     * Retrieves the moves of a game made since its grid has been last compacted.
+     * @param name is the game name.
+     * @return a future for the moves, in the order they have been made, empty if there are none.
+     */
+    @Override
+    public CompletableFuture<List<Move>> getMoves(String name) {
+        StoredGame game = games.get(name);
+        return CompletableFuture.completedFuture(game == null ? new ArrayList<>() : new ArrayList<>(game.log.get().getMoves()));
+    }
+
+    /**
+     * Appends a move to the log of a game with compare-and-set, replacing the grid and the moves at once.
+     * @param name is the game name.
+     * @param move makes the move, given the latest grid, null if the game does not exist,
+     * and the sequence number the move takes. It returns null for making no move.
+     * @return a future for the outcome of the update.
+     */
+    @Override
+    public CompletableFuture<UpdateStatus> appendMove(String name, BiFunction<Integer[][], Long, Move> move) {
+        StoredGame game = games.get(name);
+        metrics.operationStarted();
+        while (true) {
+            metrics.attempted();
+            GridLog current = game == null ? null : game.log.get();
+            long sequence = current == null ? 1 : current.getSequence() + 1;
+            Move made = move.apply(current == null ? null : copyOf(current.getGrid()), sequence);
+            if (made == null) {
+                return CompletableFuture.completedFuture(UpdateStatus.UNCHANGED);
+            }
+            if (game == null) {
+                // There is no game to update.
+                metrics.failed();
+                return CompletableFuture.completedFuture(UpdateStatus.FAILED);
+            }
+            if (game.log.compareAndSet(current, current.append(made, snapshotInterval))) {
+                return CompletableFuture.completedFuture(UpdateStatus.UPDATED);
+            }
+            metrics.conflicted();
+        }
+    }
+
+    /**
+     * Updates the players of a game.
+     * @param name is the game name.
+     * @param update is the change to apply to the latest players, given null if there are none.
+     * @return a future for the outcome of the update.
+     */
+    @Override
+    public CompletableFuture<UpdateStatus> updatePlayers(String name, UnaryOperator<Set<PeerAddress>> update) {
+        StoredGame game = games.get(name);
+        return update(game == null ? null : game.players, update, HashSet::new);
+    }
+
+    /**
+     * Updates the score of a player in a game with compare-and-set, without touching the scores of the other players.
+     * @param name is the game name.
+     * @param player is the player, as joined the game.
+     * @param update is the change to apply to the latest score, given null if the player has no score yet.
+     * @return a future for the outcome of the update.
+     */
+    @Override
+    public CompletableFuture<UpdateStatus> updateScore(String name, Player player, UnaryOperator<Integer> update) {
+        StoredGame game = games.get(name);
+        String nickname = player.getNickname();
+        metrics.operationStarted();
+        while (true) {
+            metrics.attempted();
+            PlayerScore current = game == null ? null : game.scores.get(nickname);
+            Integer updated = update.apply(current == null ? null : current.getScore());
+            if (updated == null) {
+                return CompletableFuture.completedFuture(UpdateStatus.UNCHANGED);
+            }
+            if (game == null) {
+                // There is no game to update.
+                metrics.failed();
+                return CompletableFuture.completedFuture(UpdateStatus.FAILED);
+            }
+            boolean stored = current == null
+                    ? game.scores.putIfAbsent(nickname, new PlayerScore(nickname, updated, joins.incrementAndGet())) == null
+                    : game.scores.replace(nickname, current, new PlayerScore(nickname, updated, current.getJoined()));
+            if (stored) {
+                return CompletableFuture.completedFuture(UpdateStatus.UPDATED);
+            }
+            metrics.conflicted();
+        }
+    }
+
+    /**
+     * Removes the score of a player from a game.
+     * @param name is the game name.
+     * @param player is the player, as joined the game.
+     * @return a future for true if the score has been removed, false otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> removeScore(String name, Player player) {
+        StoredGame game = games.get(name);
+        return CompletableFuture.completedFuture(game != null && game.scores.remove(player.getNickname()) != null);
+    }
+
+    /**
+     * Removes everything about a game.
+     * @param name is the game name.
+     * @return a future for true if the game has been removed, false if it does not exist.
+     */
+    @Override
+    public CompletableFuture<Boolean> delete(String name) {
+        return CompletableFuture.completedFuture(games.remove(name) != null);
+    }
+
+    /**
+     * Provides the metrics about updates that have conflicted with concurrent ones.
+     * @return the contention metrics.
+     */
+    @Override
+    public ContentionMetrics getContentionMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Provides how much is stored about games at the moment,
+     * counting the bytes the grids, the solutions, the scores and the moves would take once encoded.
+     * @return the storage metrics.
+     */
+    @Override
+    public StorageMetrics getStorageMetrics() {
+        int count = 0;
+        int keys = 0;
+        long bytes = 0;
+        for (StoredGame game: games.values()) {
+            GridLog log = game.log.get();
+            count++;
+            // The grid, the solution and the players, then each score and each move.
+            keys += 3 + game.scores.size() + log.getMoves().size();
+            bytes += GridCodec.encode(log.getGrid()).length + game.solution.length;
+            for (PlayerScore score: game.scores.values()) {
+                bytes += ScoreCodec.encode(score).length;
+            }
+            for (Move move: log.getMoves()) {
+                bytes += MoveCodec.encode(move).length;
+            }
+        }
+        return new StorageMetrics(count, keys, bytes);
+    }
+
+    /**
+     * Updates a part of a game with compare-and-set, retrying until no other update has been made in the meantime.
+     * @param part is the part of the game, null if the game does not exist.
+     * @param update is the change to apply to the latest value of the part.
+     * @param copy copies a value of the part, so that the change is applied to a copy.
+     * @param <T> is the type of the part.
+     * @return a future for the outcome of the update.
+     */
+    private <T> CompletableFuture<UpdateStatus> update(AtomicReference<T> part, UnaryOperator<T> update,
+                                                       UnaryOperator<T> copy) {
+        metrics.operationStarted();
+        while (true) {
+            metrics.attempted();
+            T current = part == null ? null : part.get();
+            T updated = update.apply(current == null ? null : copy.apply(current));
+            if (updated == null) {
+                return CompletableFuture.completedFuture(UpdateStatus.UNCHANGED);
+            }
+            if (part == null) {
+                // There is no game to update.
+                metrics.failed();
+                return CompletableFuture.completedFuture(UpdateStatus.FAILED);
+            }
+            if (part.compareAndSet(current, updated)) {
+                return CompletableFuture.completedFuture(UpdateStatus.UPDATED);
+            }
+            metrics.conflicted();
+        }
+    }
+
+    /**
+     * Provides the scores of a game.
+     * @param game is the game.
+     * @return the scores of the players, by nickname, in the order they have joined the game.
+     */
+    private static LinkedHashMap<String, Integer> toScores(StoredGame game) {
+        List<PlayerScore> scores = new ArrayList<>(game.scores.values());
+        scores.sort(Comparator.comparingLong(PlayerScore::getJoined));
+        LinkedHashMap<String, Integer> byNickname = new LinkedHashMap<>();
+        for (PlayerScore score: scores) {
+            byNickname.put(score.getNickname(), score.getScore());
+        }
+        return byNickname;
+    }
+
+    /**
+     * Models a game as stored in memory, with a reference for each part that can be updated.
+     */
+    private static class StoredGame {
+
+        /**
+         * Builds the stored game from a game, copying all its parts.
+         * @param game is the game.
+         */
+        private StoredGame(GameRecord game) {
+            this.log = new AtomicReference<>(new GridLog(copyOf(game.getGrid()), 0, new ArrayList<>()));
+            this.solution = game.getSolution().clone();
+            this.players = new AtomicReference<>(new HashSet<>(game.getPlayers()));
+            this.scores = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * The game grid, with the latest moves.
+         */
+        private final AtomicReference<GridLog> log;
+
+        /**
+         * The solution of the game grid, row by row.
+         */
+        private final byte[] solution;
+
+        /**
+         * Players to notify about the game.
+         */
+        private final AtomicReference<Set<PeerAddress>> players;
+
+        /**
+         * Scores of the players, by nickname, added as players join the game.
+         */
+        private final Map<String, PlayerScore> scores;
+    }
+
+    /**
+     * Number of moves after which the moves of a game are dropped.
+     */
+    private final int snapshotInterval;
+
+    /**
+     * Games stored, by name.
+     */
+    private final Map<String, StoredGame> games;
+
+    /**
+     * Number of scores added so far, so that scores are listed in the order players have joined.
+     */
+    private final AtomicLong joins;
+
+    /**
+     * Metrics about concurrent updates.
+     */
+    private final ContentionMetrics metrics;
+}
@@ -0,0 +1,37 @@
+package it.unisa.studenti.citro.tiziano.sudoku.store;
+
+import lombok.Getter;
+
+/**
+ * Models how much is stored about games at a given time, so that the memory used by a long-running peer can be watched.
+ */
+@Getter
+public class StorageMetrics {
+
+    /**
+     * Builds the storage metrics.
+     * @param games is the number of games stored.
+     * @param keys is the number of keys stored for the games, counting each version on its own.
+     * @param bytes is the number of bytes stored for the games.
+     */
+    public StorageMetrics(int games, int keys, long bytes) {
+        this.games = games;
+        this.keys = keys;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Number of games stored.
+     */
+    private final int games;
+
+    /**
+     * Number of keys stored for the games, counting each version on its own.
+     */
+    private final int keys;
+
+    /**
+     * Number of bytes stored for the games.
+     */
+    private final long bytes;
+}
@@ -0,0 +1,9 @@
+package it.unisa.studenti.citro.tiziano.sudoku.store;
+
+/**
+ * Models where a peer stores games.
+ */
+public enum StoreType {
+    DHT,
+    MEMORY
+}
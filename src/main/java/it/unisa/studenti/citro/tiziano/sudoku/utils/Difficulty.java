@@ -0,0 +1,35 @@
+package it.unisa.studenti.citro.tiziano.sudoku.utils;
+
+import lombok.Getter;
+
+/**
+ * Models the difficulty of a game, as the number of clues left in a 9 x 9 grid.
+ * Fewer clues make a harder game, and every game keeps only one solution.
+ * Larger grids keep the same share of clues.
+ */
+public enum Difficulty {
+    TRIVIAL(75),
+    EASY(40),
+    MEDIUM(32),
+    HARD(26),
+    EXPERT(22);
+
+    Difficulty(int clues) {
+        this.clues = clues;
+    }
+
+    /**
+     * Provides the number of clues to leave in a grid of a given size.
+     * @param gridSize is the size of the grid.
+     * @return the number of clues to leave.
+     */
+    public int getClues(GridSize gridSize) {
+        return Math.round((float) clues * gridSize.getCellsSize() / GridSize.NINE.getCellsSize());
+    }
+
+    /**
+     * The number of clues to leave in a 9 x 9 grid.
+     */
+    @Getter
+    private int clues;
+}
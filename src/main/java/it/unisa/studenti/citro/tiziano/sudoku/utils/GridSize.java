@@ -0,0 +1,52 @@
+package it.unisa.studenti.citro.tiziano.sudoku.utils;
+
+import lombok.Getter;
+
+/**
+ * Models the sizes a game grid can have.
+ */
+public enum GridSize {
+    NINE(3),
+    SIXTEEN(4),
+    TWENTY_FIVE(5);
+
+    GridSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Provides the number of rows, columns and numbers of the grid.
+     * @return the grid size.
+     */
+    public int getGridSize() {
+        return blockSize * blockSize;
+    }
+
+    /**
+     * Provides the number of cells of the grid.
+     * @return the number of cells.
+     */
+    public int getCellsSize() {
+        return getGridSize() * getGridSize();
+    }
+
+    /**
+     * Provides the grid size with a given number of rows.
+     * @param gridSize is the number of rows of the grid.
+     * @return the grid size, or null if no grid has that number of rows.
+     */
+    public static GridSize of(int gridSize) {
+        for (GridSize size: values()) {
+            if (size.getGridSize() == gridSize) {
+                return size;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The size of the blocks in the grid.
+     */
+    @Getter
+    private int blockSize;
+}
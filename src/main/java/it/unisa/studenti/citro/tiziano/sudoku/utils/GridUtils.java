@@ -1,24 +1,10 @@
 package it.unisa.studenti.citro.tiziano.sudoku.utils;
 
-import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
-
-import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.TOTAL_BLOCK_NUMBER;
-
 /**
  * Provides utility functionalities.
  */
 public class GridUtils {
 
-    /**
-     * Provides a random number for placing it in a cell.
-     * @param gridSize is the grid size.
-     * @return a random number for placing it in a cell.
-     */
-    public static int getRandomCellNumber(int gridSize) {
-        int n = TOTAL_BLOCK_NUMBER + 1;
-        return (int) (Math.random() * n) % gridSize + 1;
-    }
-
     /**
      * Returns the exact values from a given value.
      * @param n is the original value.
@@ -29,19 +15,24 @@ public class GridUtils {
     }
 
     /**
-     * Calculates the value to use from the given value.
-     * @param grid is the grid for which the value has to be calculated.
-     * @param n is the value to use for calculating the needed value.
-     * @return the calculated value.
+     * Provides the block size of a grid from its size.
+     * @param gridSize is the number of rows of the grid.
+     * @return the block size.
+     */
+    public static int toBlockSize(int gridSize) {
+        return (int) Math.round(Math.sqrt(gridSize));
+    }
+
+    /**
+     * Copies a grid.
+     * @param grid is the grid.
+     * @return the copy of the grid.
      */
-    public static int calc(Grid grid, int n) {
-        int blockSize = grid.getBlockSize();
-        int calculated = n;
-        if (calculated % blockSize == 0) {
-            calculated -= blockSize - 1;
-        } else {
-            calculated = (calculated / blockSize) * blockSize + 1;
+    public static Integer[][] copyOf(Integer[][] grid) {
+        Integer[][] copy = new Integer[grid.length][];
+        for (int i = 0; i < grid.length; i++) {
+            copy[i] = grid[i].clone();
         }
-        return calculated;
+        return copy;
     }
 }
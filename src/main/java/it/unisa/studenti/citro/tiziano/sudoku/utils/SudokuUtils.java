@@ -1,51 +1,73 @@
 package it.unisa.studenti.citro.tiziano.sudoku.utils;
 
+import net.tomp2p.peers.Number160;
+
 /**
  * Provides some utility functionalities.
+ * Everything about a game is stored under the game name as location key, in the game domain,
+ * with a content key for each part of it, while each player score is stored in the score domain
+ * under the same location key, with the nickname as content key.
+ * Moves are stored in the move domain under the same location key, with their sequence number as content key,
+ * while the grid is stored as a snapshot every now and then, with the sequence number of its last move as version key.
  */
 public class SudokuUtils {
 
     /**
-     * Provides the identifier for players.
+     * Provides the location key for a game.
      * @param _game_name is the game name.
-     * @return the identifier for players.
+     * @return the location key for the game.
      */
-    public static String withPlayers(String _game_name) {
-        return new StringBuilder(_game_name).append(PLAYERS).toString();
+    public static Number160 gameKey(String _game_name) {
+        return Number160.createHash(_game_name);
     }
 
     /**
-     * Provides the identifier for players nicknames.
-     * @param _game_name is the game name.
-     * @return the identifier for players nicknames.
+     * Provides the content key for the score of a player.
+     * @param _nickname is the nickname the player has joined the game with.
+     * @return the content key for the score.
      */
-    public static String withNicknames(String _game_name) {
-        return new StringBuilder(_game_name).append(NICKNAMES).toString();
+    public static Number160 scoreKey(String _nickname) {
+        return Number160.createHash(_nickname);
     }
 
     /**
-     * Provides the identifier for players scores.
-     * @param _game_name is the game name.
-     * @return the identifier for players scores.
+     * Provides the content key for a move, or the version key for the snapshot of the grid taken after it.
+     * @param sequence is the sequence number of the move.
+     * @return the key for the move, ordered as the sequence numbers.
      */
-    public static String withScores(String _game_name) {
-        return new StringBuilder(_game_name).append(SCORES).toString();
+    public static Number160 moveKey(long sequence) {
+        return new Number160(sequence);
     }
 
     /**
-     * Suffix for players identifier.
+     * Domain for games.
+     */
+    public static final Number160 GAME_DOMAIN = Number160.createHash("sudoku");
+
+    /**
+     * Content key for the game grid.
+     */
+    public static final Number160 GRID = Number160.createHash("grid");
+
+    /**
+     * Content key for the solution of the game grid.
+     */
+    public static final Number160 SOLUTION = Number160.createHash("solution");
+
+    /**
+     * Content key for players.
      */
-    public static final String PLAYERS = "_players";
+    public static final Number160 PLAYERS = Number160.createHash("players");
 
     /**
-     * Suffix for players nicknames identifier.
+     * Domain for players scores.
      */
-    public static final String NICKNAMES = "_nicknames";
+    public static final Number160 SCORE_DOMAIN = Number160.createHash("score");
 
     /**
-     * Suffix for players scores identifier.
+     * Domain for moves.
      */
-    public static final String SCORES = "_scores";
+    public static final Number160 MOVE_DOMAIN = Number160.createHash("move");
 
     /**
      * Default port for a peer in the network.
@@ -1,12 +1,8 @@
 package it.unisa.studenti.citro.tiziano.sudoku.verifier;
 
 import lombok.AllArgsConstructor;
-import it.unisa.studenti.citro.tiziano.sudoku.model.Cell;
 import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
 
-import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.calc;
-import static it.unisa.studenti.citro.tiziano.sudoku.utils.GridUtils.toExact;
-
 /**
  * Provides functionalities to verify the state of the grid.
  * So that it becomes possible to verify whether an action ca be performed or not.
@@ -23,9 +19,7 @@ public class GridVerifier {
      * @return true if the number csn be placed, false otherwise.
      */
     public static boolean verifyGridNumber(Grid grid, int number, int row, int column) {
-        return (verifyNumber(grid, number, row, column)
-                && verifyRowNumber(grid, number, row)
-                && verifyColumnNumber(grid, number, column));
+        return grid.isNumberAllowed(number, row, column);
     }
 
     /**
@@ -37,7 +31,7 @@ public class GridVerifier {
      * @return true if the number csn be placed, false otherwise.
      */
     public static boolean verifyNumber(Grid grid, int number, int row, int column) {
-        return verifyCellsNumber(grid, number, calc(grid, row), calc(grid, column));
+        return !grid.isNumberInBox(number, row, column);
     }
 
     /**
@@ -48,13 +42,7 @@ public class GridVerifier {
      * @return true if the number csn be placed, false otherwise.
      */
     public static boolean verifyRowNumber(Grid grid, int number, int row) {
-        for (int j = 0; j < grid.getGridSize(); ++j) {
-            Cell cell = grid.getCells()[toExact(row)][j];
-            if (verifyCellNumber(cell, number)) {
-                return false;
-            }
-        }
-        return true;
+        return !grid.isNumberInRow(number, row);
     }
 
     /**
@@ -65,43 +53,6 @@ public class GridVerifier {
      * @return true if the number csn be placed, false otherwise.
      */
     public static boolean verifyColumnNumber(Grid grid, int number, int column) {
-        for (int i = 0; i < grid.getGridSize(); ++i) {
-            Cell cell = grid.getCells()[i][toExact(column)];
-            if (verifyCellNumber(cell, number)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    /**
-     * Verifies if the number to place is the same for every cell in the grid.
-     * @param grid is the grid to verify.
-     * @param number is the number to verify.
-     * @param row is the row where the number has to be placed.
-     * @param column is the column where the number has to be placed.
-     * @return true if the number csn be placed, false otherwise.
-     */
-    private static boolean verifyCellsNumber(Grid grid, int number, int row, int column) {
-        int blockSize = grid.getBlockSize();
-        for (int i = row; i < row + blockSize; ++i) {
-            for (int j = column; j < column + blockSize; ++j) {
-                Cell cell = grid.getCells()[toExact(i)][toExact(j)];
-                if (verifyCellNumber(cell, number)) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
-    /**
-     * Verifies if the number to place is the same in the cell.
-     * @param cell is the cell to check.
-     * @param number is the number to check.
-     * @return true if the number to place is the same in the cell, false otherwise.
-     */
-    private static boolean verifyCellNumber(Cell cell, int number) {
-        return cell.isFilled() && cell.getNumber() == number;
+        return !grid.isNumberInColumn(number, column);
     }
 }
@@ -11,8 +11,9 @@ public enum GameOptions {
     JOINED(3),
     GET_GAME(4),
     PLACE_NUMBER(5),
-    LEAVE(6),
-    EXIT(7),
+    PROGRESS(6),
+    LEAVE(7),
+    EXIT(8),
     DEFAULT(-1);
 
     GameOptions(int option) {
@@ -2,10 +2,9 @@ package it.unisa.studenti.citro.tiziano.utils;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.List;
+import java.util.Collection;
 
 import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.FIRST;
-import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.TOTAL_BLOCK_NUMBER;
 
 public class GameUtils {
 
@@ -15,17 +14,19 @@ public class GameUtils {
      * @param row is the row to check.
      * @param column is the column.
      * @param number is the number to check.
+     * @param gridSize is the size of the game grid.
      * @param gamesNames are the names of the games for a user.
      * @return true if the values are valid, false otherwise.
      */
-    public static boolean isGameValid(String gameName, int row, int column, int number, List<String> gamesNames) {
-        if (row < FIRST || row > TOTAL_BLOCK_NUMBER) {
+    public static boolean isGameValid(String gameName, int row, int column, int number, int gridSize,
+                                      Collection<String> gamesNames) {
+        if (row < FIRST || row > gridSize) {
             return false;
         }
-        if (column < FIRST || column > TOTAL_BLOCK_NUMBER) {
+        if (column < FIRST || column > gridSize) {
             return false;
         }
-        if (number < FIRST || number > TOTAL_BLOCK_NUMBER) {
+        if (number < FIRST || number > gridSize) {
             return false;
         }
         // Check whether the game has been joined,
@@ -41,7 +42,7 @@ public class GameUtils {
      * @param gamesNames are the names of the games for a user.
      * @return true if the values are valid, false otherwise.
      */
-    public static boolean isGameValid(String gameName, String nickname, List<String> gamesNames) {
+    public static boolean isGameValid(String gameName, String nickname, Collection<String> gamesNames) {
         return StringUtils.isNotBlank(gameName)
                 && StringUtils.isNotBlank(nickname)
                 && !gamesNames.contains(gameName);
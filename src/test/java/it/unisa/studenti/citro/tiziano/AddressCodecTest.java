@@ -0,0 +1,47 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.codec.AddressCodec;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.PeerAddress;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the address codec.
+ */
+public class AddressCodecTest {
+
+    /**
+     * Tests that a list of addresses is encoded in the bytes of the addresses only and decoded back as it was,
+     * in the same order.
+     */
+    @Test
+    public void encodeAddresses() {
+        List<PeerAddress> addresses = new ArrayList<>();
+        int size = Short.BYTES;
+        for (int i = 0; i < ADDRESSES; i++) {
+            PeerAddress address = new PeerAddress(Number160.createHash(i));
+            addresses.add(address);
+            size += Byte.BYTES + address.toByteArray().length;
+        }
+        byte[] data = AddressCodec.encode(addresses);
+        assertEquals(size, data.length, "Each address takes its own bytes and its length");
+        assertEquals(addresses, AddressCodec.decode(data), "The addresses have been decoded as they were, in the same order");
+        assertTrue(AddressCodec.decode(AddressCodec.encode(new ArrayList<>())).isEmpty(), "An empty list is decoded as empty");
+
+        assertThrows(IllegalArgumentException.class, () -> AddressCodec.decode(Arrays.copyOf(data, data.length - 1)),
+                "The data is too short for the list");
+        assertThrows(IllegalArgumentException.class, () -> AddressCodec.decode(Arrays.copyOf(data, data.length + 1)),
+                "The data is too long for the list");
+    }
+
+    /**
+     * Number of addresses used for testing purposes.
+     */
+    public static final int ADDRESSES = 100;
+}
@@ -0,0 +1,138 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.model.MemoryGame;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.UpdateStatus;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import it.unisa.studenti.citro.tiziano.sudoku.store.CacheMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.store.CachingGameStore;
+import it.unisa.studenti.citro.tiziano.sudoku.store.GameStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the cache of grids.
+ */
+public class CachingGameStoreTest {
+
+    /**
+     * Tests that a grid read again, or changed by a move made through the cache, is read without the store.
+     */
+    @Test
+    public void readCachedGrid() {
+        CachingGameStore cache = new CachingGameStore(store, LONG_STALENESS_MILLIS);
+        Integer[][] grid = cache.getGrid(GAME).join();
+        assertArrayEquals(grid, cache.getGrid(GAME).join(), "The cached grid is the grid read");
+        Move move = nextMove(grid);
+        assertEquals(UpdateStatus.UPDATED, cache.appendMove(GAME, (current, sequence) -> move).join(),
+                "The move has been made through the cache");
+        assertEquals(move.getNumber(), cache.getGrid(GAME).join()[move.getRow() - 1][move.getColumn() - 1],
+                "The cached grid has the move made through the cache");
+
+        CacheMetrics metrics = cache.getMetrics();
+        assertEquals(1, metrics.getMisses(), "The grid has been retrieved from the store only once");
+        assertEquals(2, metrics.getHits(), "The grid has been read from the cache afterwards");
+    }
+
+    /**
+     * Tests that a grid changed by another peer is retrieved again once it is dropped or checked.
+     */
+    @Test
+    public void readChangedGrid() {
+        CachingGameStore cache = new CachingGameStore(store, LONG_STALENESS_MILLIS);
+        CachingGameStore checked = new CachingGameStore(store, 0);
+        Integer[][] grid = cache.getGrid(GAME).join();
+        assertArrayEquals(grid, checked.getGrid(GAME).join(), "Both caches have read the same grid");
+        assertArrayEquals(grid, checked.getGrid(GAME).join(), "The grid has not changed");
+        assertEquals(1, checked.getMetrics().getRevalidations(), "The grid has been checked without retrieving it");
+
+        Move move = nextMove(grid);
+        assertEquals(UpdateStatus.UPDATED, store.appendMove(GAME, (current, sequence) -> move).join(),
+                "The move has been made by another peer");
+        assertArrayEquals(grid, cache.getGrid(GAME).join(), "The cached grid is read until it is dropped");
+        cache.invalidate(GAME);
+        assertEquals(move.getNumber(), cache.getGrid(GAME).join()[move.getRow() - 1][move.getColumn() - 1],
+                "The dropped grid has been retrieved again");
+        assertEquals(move.getNumber(), checked.getGrid(GAME).join()[move.getRow() - 1][move.getColumn() - 1],
+                "The checked grid has been retrieved again");
+        assertEquals(2, cache.getMetrics().getMisses(), "The grid has been retrieved again after being dropped");
+        assertEquals(2, checked.getMetrics().getMisses(), "The grid has been retrieved again after being checked");
+    }
+
+    /**
+     * Tests that the moves made by another peer are applied to the cached grid as they are notified,
+     * and that missing moves are filled by retrieving the grid once.
+     */
+    @Test
+    public void applyNotifiedMoves() {
+        CachingGameStore cache = new CachingGameStore(store, LONG_STALENESS_MILLIS);
+        cache.getGrid(GAME).join();
+        Move first = appendNextMove();
+        cache.apply(GAME, first).join();
+        assertEquals(first.getNumber(), cache.getGrid(GAME).join()[first.getRow() - 1][first.getColumn() - 1],
+                "The notified move has been applied to the cached grid");
+
+        Move second = appendNextMove();
+        Move third = appendNextMove();
+        cache.apply(GAME, third).join();
+        cache.apply(GAME, second).join();
+        Integer[][] grid = cache.getGrid(GAME).join();
+        assertEquals(second.getNumber(), grid[second.getRow() - 1][second.getColumn() - 1],
+                "The missing move has been filled");
+        assertEquals(third.getNumber(), grid[third.getRow() - 1][third.getColumn() - 1],
+                "The move after the missing one has been applied");
+        assertArrayEquals(store.getGrid(GAME).join(), grid, "The cached grid is the grid in the store");
+
+        CacheMetrics metrics = cache.getMetrics();
+        assertEquals(1, metrics.getApplications(), "Only the next move has been applied");
+        assertEquals(1, metrics.getFills(), "The grid has been retrieved again once for the missing move");
+        assertEquals(1, metrics.getMisses(), "The grid has been read from the cache after the first read");
+    }
+
+    /**
+     * Stores a new game in memory.
+     */
+    @BeforeEach
+    public void setup() {
+        game = new MemoryGame(GAME);
+        store = game.getStore();
+    }
+
+    /**
+     * Provides a correct move on the first empty cell of a grid.
+     * @param grid is the grid.
+     * @return the move.
+     */
+    private Move nextMove(Integer[][] grid) {
+        return game.nextMove(grid, 1);
+    }
+
+    /**
+     * Appends a correct move on the first empty cell of the grid, as another peer would.
+     * @return the move, with the sequence number it has taken.
+     */
+    private Move appendNextMove() {
+        return game.appendNextMove();
+    }
+
+    /**
+     * Game the cached grids are read from.
+     */
+    private MemoryGame game;
+
+    /**
+     * Store the cached grids are read from.
+     */
+    private GameStore store;
+
+    /**
+     * Game name used for testing purposes.
+     */
+    public static final String GAME = "CACHE";
+
+    /**
+     * Staleness bound long enough for a cached grid to be never checked during a test.
+     */
+    public static final long LONG_STALENESS_MILLIS = 60_000;
+}
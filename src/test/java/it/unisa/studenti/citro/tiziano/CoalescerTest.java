@@ -0,0 +1,112 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.event.GameCompleted;
+import it.unisa.studenti.citro.tiziano.sudoku.event.GameEvent;
+import it.unisa.studenti.citro.tiziano.sudoku.event.MoveApplied;
+import it.unisa.studenti.citro.tiziano.sudoku.event.ScoreChanged;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.CoalescingMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.Coalescer;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for holding back notifications for sending them together.
+ */
+public class CoalescerTest {
+
+    /**
+     * Tests that the notifications made within the window are sent together in a single message,
+     * with the changes of score of a player merged.
+     */
+    @Test
+    public void sendWithinWindow() {
+        List<List<GameEvent>> sent = Collections.synchronizedList(new ArrayList<>());
+        Coalescer coalescer = new Coalescer(LONG_WINDOW_MILLIS, (game, events) -> {
+            sent.add(events);
+            return CompletableFuture.completedFuture(PLAYERS);
+        });
+        List<CompletableFuture<Integer>> notified = new ArrayList<>();
+        for (int sequence = 1; sequence <= MOVES; sequence++) {
+            notified.add(coalescer.submit(GAME, moveEvents(sequence), false));
+        }
+        assertTrue(sent.isEmpty(), "The notifications are held back");
+        for (CompletableFuture<Integer> future: notified) {
+            assertEquals(PLAYERS, future.join(), "The notification has been delivered once the window has passed");
+        }
+
+        assertEquals(1, sent.size(), "The notifications have been sent in a single message");
+        List<GameEvent> events = sent.get(0);
+        assertEquals(MOVES + 1, events.size(), "Every move has been sent with a single change of score");
+        ScoreChanged changed = (ScoreChanged) events.get(1);
+        assertEquals(MOVES, changed.getDelta(), "The changes of score have been summed up");
+        assertEquals(MOVES, changed.getScore(), "The latest score has been sent");
+        assertEquals(MOVES, ((MoveApplied) events.get(events.size() - 1)).getMove().getSequence(),
+                "The moves have been sent in the order they have been made");
+
+        CoalescingMetrics metrics = coalescer.getMetrics(GAME);
+        assertEquals(MOVES, metrics.getNotifications(), "Every notification has been recorded");
+        assertEquals(1, metrics.getMessages(), "A single message has been recorded");
+        assertTrue(metrics.getMaxDelayMillis() >= metrics.getAverageDelayMillis(), "The delays have been recorded");
+        coalescer.forget(GAME);
+        assertNull(coalescer.getMetrics(GAME), "The metrics of the game have been dropped");
+    }
+
+    /**
+     * Tests that an urgent notification is sent at once, together with those held back,
+     * and that notifications are not held back without a window.
+     */
+    @Test
+    public void sendUrgentAtOnce() {
+        List<List<GameEvent>> sent = Collections.synchronizedList(new ArrayList<>());
+        Coalescer coalescer = new Coalescer(LONG_WINDOW_MILLIS, (game, events) -> {
+            sent.add(events);
+            return CompletableFuture.completedFuture(PLAYERS);
+        });
+        CompletableFuture<Integer> held = coalescer.submit(GAME, moveEvents(1), false);
+        CompletableFuture<Integer> urgent = coalescer.submit(GAME,
+                Collections.singletonList(new GameCompleted(GAME, PLAYER, new LinkedHashMap<>())), true);
+        assertTrue(held.isDone() && urgent.isDone(), "The notifications have been sent at once");
+        assertEquals(1, sent.size(), "The notifications have been sent in a single message");
+        assertEquals(3, sent.get(0).size(), "The held back notification has been sent with the urgent one");
+
+        Coalescer immediate = new Coalescer(0, (game, events) -> {
+            sent.add(events);
+            return CompletableFuture.completedFuture(PLAYERS);
+        });
+        assertEquals(PLAYERS, immediate.submit(GAME, moveEvents(2), false).join(), "The notification has been sent at once");
+        assertEquals(2, sent.size(), "The notification has not been held back");
+        assertNull(immediate.getMetrics(GAME), "No notification has been held back");
+    }
+
+    /**
+     * Provides the events of a correct move, as notified when the number is placed.
+     * @param sequence is the sequence number of the move, also the score of the player after it.
+     * @return the events.
+     */
+    private static List<GameEvent> moveEvents(int sequence) {
+        return Arrays.asList(new MoveApplied(GAME, new Move(sequence, 1, sequence, sequence, PLAYER)),
+                new ScoreChanged(GAME, PLAYER, 1, sequence));
+    }
+
+    /**
+     * Game, player, number of moves and number of players used for testing purposes.
+     */
+    public static final String GAME = "GAME";
+    public static final String PLAYER = "PLAYER";
+    public static final int MOVES = 5;
+    public static final int PLAYERS = 3;
+
+    /**
+     * Window long enough for every notification of a test to be made within it.
+     */
+    public static final long LONG_WINDOW_MILLIS = 500;
+}
@@ -0,0 +1,70 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.config.GameConfig;
+import it.unisa.studenti.citro.tiziano.sudoku.model.GameRecord;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import it.unisa.studenti.citro.tiziano.sudoku.store.DhtGameStore;
+import net.tomp2p.dht.PeerBuilderDHT;
+import net.tomp2p.dht.PeerDHT;
+import net.tomp2p.p2p.PeerBuilder;
+import net.tomp2p.peers.Number160;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.SudokuUtils.DEFAULT_PORT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for games stored in the DHT of a single peer.
+ */
+public class DhtGameStoreTest {
+
+    /**
+     * Tests that a game is created only once, while creating it again leaves the game stored first.
+     */
+    @Test
+    public void createOnlyOnce() {
+        GameRecord first = new GameRecord(new Sudoku(GAME, FIRST_SEED));
+        GameRecord second = new GameRecord(new Sudoku(GAME, SECOND_SEED));
+        assertTrue(store.create(GAME, first).join(), "The game GAME has been created");
+        assertFalse(store.create(GAME, second).join(), "The game GAME has not been created again");
+        assertArrayEquals(first.getGrid(), store.getGrid(GAME).join(), "The game stored first has not been replaced");
+    }
+
+    /**
+     * Starts a peer on its own, with a store on its DHT.
+     */
+    @BeforeEach
+    public void setup() throws Exception {
+        dht = new PeerBuilderDHT(new PeerBuilder(Number160.createHash(PEER_ID)).ports(DEFAULT_PORT + PEER_ID).start())
+                .start();
+        store = new DhtGameStore(dht, GameConfig.defaults());
+    }
+
+    /**
+     * Shuts the peer down.
+     */
+    @AfterEach
+    public void shutdown() {
+        dht.shutdown().awaitUninterruptibly();
+    }
+
+    /**
+     * DHT of the peer.
+     */
+    private PeerDHT dht;
+
+    /**
+     * Store of games on the DHT of the peer.
+     */
+    private DhtGameStore store;
+
+    /**
+     * Constants used for testing purposes.
+     */
+    private static final int PEER_ID = 10;
+    private static final String GAME = "game";
+    private static final long FIRST_SEED = 1;
+    private static final long SECOND_SEED = 2;
+}
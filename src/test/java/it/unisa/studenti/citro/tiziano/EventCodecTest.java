@@ -0,0 +1,110 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.codec.EventCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.event.EventDispatcher;
+import it.unisa.studenti.citro.tiziano.sudoku.event.GameCompleted;
+import it.unisa.studenti.citro.tiziano.sudoku.event.GameEvent;
+import it.unisa.studenti.citro.tiziano.sudoku.event.MoveApplied;
+import it.unisa.studenti.citro.tiziano.sudoku.event.PlayerJoined;
+import it.unisa.studenti.citro.tiziano.sudoku.event.PlayerLeft;
+import it.unisa.studenti.citro.tiziano.sudoku.event.ScoreChanged;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the event codec and the event dispatcher.
+ */
+public class EventCodecTest {
+
+    /**
+     * Tests that every type of event is encoded in a single message and decoded back as it was, in the same order.
+     */
+    @Test
+    public void encodeEvents() {
+        LinkedHashMap<String, Integer> scores = new LinkedHashMap<>();
+        scores.put(PLAYER, SCORE);
+        scores.put(OTHER_PLAYER, -SCORE);
+        List<GameEvent> events = EventCodec.decode(EventCodec.encode(Arrays.asList(
+                new MoveApplied(GAME, new Move(SEQUENCE, ROW, COLUMN, NUMBER, PLAYER)),
+                new ScoreChanged(GAME, PLAYER, 1, SCORE),
+                new GameCompleted(GAME, PLAYER, scores),
+                new PlayerJoined(GAME, OTHER_PLAYER),
+                new PlayerLeft(GAME, OTHER_PLAYER))));
+        assertEquals(5, events.size(), "Every event has been decoded");
+        for (GameEvent event: events) {
+            assertEquals(GAME, event.getGame(), "The game name has been decoded as it was");
+        }
+
+        Move move = ((MoveApplied) events.get(0)).getMove();
+        assertEquals(SEQUENCE, move.getSequence(), "The sequence number has been decoded as it was");
+        assertEquals(ROW, move.getRow(), "The row has been decoded as it was");
+        assertEquals(COLUMN, move.getColumn(), "The column has been decoded as it was");
+        assertEquals(NUMBER, move.getNumber(), "The number has been decoded as it was");
+        assertEquals(PLAYER, move.getPlayer(), "The player has been decoded as it was");
+
+        ScoreChanged changed = (ScoreChanged) events.get(1);
+        assertEquals(PLAYER, changed.getNickname(), "The player has been decoded as it was");
+        assertEquals(1, changed.getDelta(), "The change of the score has been decoded as it was");
+        assertEquals(SCORE, changed.getScore(), "The score has been decoded as it was");
+
+        GameCompleted completed = (GameCompleted) events.get(2);
+        assertEquals(PLAYER, completed.getNickname(), "The player has been decoded as it was");
+        assertEquals(new ArrayList<>(scores.entrySet()), new ArrayList<>(completed.getScores().entrySet()),
+                "The scores have been decoded as they were, in the same order");
+
+        assertEquals(OTHER_PLAYER, ((PlayerJoined) events.get(3)).getNickname(), "The joined player has been decoded as it was");
+        assertEquals(OTHER_PLAYER, ((PlayerLeft) events.get(4)).getNickname(), "The left player has been decoded as it was");
+        assertEquals(GAME + " - " + PLAYER + " has scored a point!", changed.toString(), "The event is shown as text");
+    }
+
+    /**
+     * Tests that data which is not a message of events is refused.
+     */
+    @Test
+    public void decodeInvalidData() {
+        byte[] data = EventCodec.encode(Arrays.asList(new PlayerJoined(GAME, PLAYER)));
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.decode(Arrays.copyOf(data, data.length - 1)),
+                "The data is too short for the message");
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.decode(Arrays.copyOf(data, data.length + 1)),
+                "The data is too long for the message");
+        data[2] = INVALID_TYPE;
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.decode(data), "The type of the event is not known");
+    }
+
+    /**
+     * Tests that an event is handed only to the handlers registered for its type.
+     */
+    @Test
+    public void dispatchEvents() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        List<String> joined = new ArrayList<>();
+        dispatcher.on(PlayerJoined.class, event -> joined.add(event.getNickname()));
+        dispatcher.dispatch(new PlayerJoined(GAME, PLAYER));
+        dispatcher.dispatch(new PlayerLeft(GAME, OTHER_PLAYER));
+        assertEquals(Arrays.asList(PLAYER), joined, "Only the joined player has been handled");
+    }
+
+    /**
+     * Events used for testing purposes.
+     */
+    public static final String GAME = "GAME";
+    public static final String PLAYER = "PLAYER";
+    public static final String OTHER_PLAYER = "GIOCATORE \u00e0";
+    public static final long SEQUENCE = 1L << 40;
+    public static final int ROW = 25;
+    public static final int COLUMN = 25;
+    public static final int NUMBER = 25;
+    public static final int SCORE = 42;
+
+    /**
+     * Byte that encodes no type of event.
+     */
+    public static final byte INVALID_TYPE = 0;
+}
@@ -0,0 +1,76 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.DeliveryMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.Fanout;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.PeerAddress;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.Futures.failed;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for sending a message to many players at once.
+ */
+public class FanoutTest {
+
+    /**
+     * Tests that a player who never answers and a player who cannot be reached
+     * do not keep the message from being delivered to the others.
+     */
+    @Test
+    public void sendWithPeerTimeout() {
+        Fanout fanout = new Fanout((player, message) -> {
+            if (player == UNREACHABLE) {
+                return failed(new IOException(message.toString()));
+            }
+            return player == SILENT ? new CompletableFuture<>() : CompletableFuture.completedFuture(message);
+        }, SHORT_TIMEOUT_MILLIS, LONG_TIMEOUT_MILLIS);
+        long start = System.currentTimeMillis();
+        assertEquals(1, fanout.send(Arrays.asList(REACHABLE, UNREACHABLE, SILENT), MESSAGE).join(),
+                "The message has been delivered to the reachable player only");
+        assertTrue(System.currentTimeMillis() - start < LONG_TIMEOUT_MILLIS, "The silent player has been given up");
+
+        DeliveryMetrics metrics = fanout.getMetrics();
+        assertEquals(3, metrics.getSends(), "The message has been sent to every player");
+        assertEquals(1, metrics.getDeliveries(), "The message has been delivered once");
+        assertEquals(1, metrics.getFailures(), "The message could not be delivered to the unreachable player");
+        assertEquals(1, metrics.getTimeouts(), "The message has not been delivered to the silent player in time");
+    }
+
+    /**
+     * Tests that the sends still on their way at the overall deadline are given up all together.
+     */
+    @Test
+    public void sendWithDeadline() {
+        Fanout fanout = new Fanout((player, message) -> new CompletableFuture<>(), LONG_TIMEOUT_MILLIS, SHORT_TIMEOUT_MILLIS);
+        long start = System.currentTimeMillis();
+        assertEquals(0, fanout.send(Arrays.asList(REACHABLE, SILENT), MESSAGE).join(), "No message has been delivered");
+        assertTrue(System.currentTimeMillis() - start < LONG_TIMEOUT_MILLIS, "The sends have been given up at the deadline");
+        assertEquals(2, fanout.getMetrics().getTimeouts(), "Both sends have timed out");
+        assertEquals(0, fanout.send(Collections.emptyList(), MESSAGE).join(), "There is nobody to deliver to");
+    }
+
+    /**
+     * Players used for testing purposes.
+     */
+    public static final PeerAddress REACHABLE = new PeerAddress(Number160.createHash("REACHABLE"));
+    public static final PeerAddress UNREACHABLE = new PeerAddress(Number160.createHash("UNREACHABLE"));
+    public static final PeerAddress SILENT = new PeerAddress(Number160.createHash("SILENT"));
+
+    /**
+     * Message used for testing purposes.
+     */
+    public static final String MESSAGE = "GAME - PLAYER has scored a point!";
+
+    /**
+     * Deadlines used for testing purposes, one short enough to expire during a test and one that never does.
+     */
+    public static final long SHORT_TIMEOUT_MILLIS = 100;
+    public static final long LONG_TIMEOUT_MILLIS = 10_000;
+}
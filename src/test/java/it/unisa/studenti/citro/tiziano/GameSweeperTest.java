@@ -0,0 +1,114 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.model.MemoryGame;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.UpdateStatus;
+import it.unisa.studenti.citro.tiziano.sudoku.store.GameStore;
+import it.unisa.studenti.citro.tiziano.sudoku.store.GameSweeper;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.PeerAddress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for purging completed and abandoned games.
+ */
+public class GameSweeperTest {
+
+    /**
+     * Tests that a game nobody has joined yet is kept, while a game left by its last player
+     * is purged once it has been idle for long enough.
+     */
+    @Test
+    public void purgeAbandonedGame() {
+        GameSweeper sweeper = new GameSweeper(store, 0);
+        sweeper.track(GAME);
+        assertTrue(sweeper.sweep().join().isEmpty(), "The game nobody has joined yet has been kept");
+
+        PeerAddress player = new PeerAddress(Number160.createHash(MemoryGame.PLAYER));
+        assertEquals(UpdateStatus.UPDATED, store.updatePlayers(GAME, current -> {
+            current.add(player);
+            return current;
+        }).join(), "The player has joined the game");
+        GameSweeper waiting = new GameSweeper(store, LONG_IDLE_MILLIS);
+        waiting.track(GAME);
+        assertTrue(waiting.sweep().join().isEmpty(), "The game still played has been kept");
+        assertTrue(sweeper.sweep().join().isEmpty(), "The game still played has been kept");
+        assertEquals(UpdateStatus.UPDATED, store.updatePlayers(GAME, current -> {
+            current.remove(player);
+            return current;
+        }).join(), "The player has left the game");
+        assertTrue(waiting.sweep().join().isEmpty(), "The game has not been idle for long enough");
+        assertTrue(store.exists(GAME).join(), "The game is still stored");
+
+        assertEquals(Collections.singletonList(GAME), sweeper.sweep().join(), "The abandoned game has been purged");
+        assertFalse(store.exists(GAME).join(), "The game is not stored anymore");
+        assertEquals(1, sweeper.getPurged(), "A game has been purged");
+        assertTrue(waiting.sweep().join().isEmpty(), "The purged game is not purged again");
+        assertEquals(0, waiting.size(), "The purged game has been forgotten");
+    }
+
+    /**
+     * Tests that a game joined through the peer counts as abandoned once it has no players,
+     * even if no sweep has seen it played.
+     */
+    @Test
+    public void purgeJoinedGame() {
+        GameSweeper sweeper = new GameSweeper(store, 0);
+        sweeper.trackJoined(GAME);
+        assertEquals(Collections.singletonList(GAME), sweeper.sweep().join(), "The game left by its players has been purged");
+    }
+
+    /**
+     * Tests that a game still played is kept until its grid is completed.
+     */
+    @Test
+    public void purgeCompletedGame() {
+        PeerAddress player = new PeerAddress(Number160.createHash(MemoryGame.PLAYER));
+        assertEquals(UpdateStatus.UPDATED, store.updatePlayers(GAME, current -> {
+            current.add(player);
+            return current;
+        }).join(), "The player has joined the game");
+        GameSweeper sweeper = new GameSweeper(store, 0);
+        sweeper.track(GAME);
+        assertTrue(sweeper.sweep().join().isEmpty(), "The game still played has been kept");
+
+        while (game.appendNextMove() != null) {
+            // Moves until the grid is completed.
+        }
+        assertEquals(Collections.singletonList(GAME), sweeper.sweep().join(), "The completed game has been purged");
+        assertFalse(store.exists(GAME).join(), "The game is not stored anymore");
+    }
+
+    /**
+     * Stores a new game in memory.
+     */
+    @BeforeEach
+    public void setup() {
+        game = new MemoryGame(GAME);
+        store = game.getStore();
+    }
+
+    /**
+     * Store games are purged from.
+     */
+    private GameStore store;
+
+    /**
+     * Game purged from the store.
+     */
+    private MemoryGame game;
+
+    /**
+     * Game name used for testing purposes.
+     */
+    public static final String GAME = "SWEEP";
+
+    /**
+     * Idle time long enough for a game to be never purged during a test.
+     */
+    public static final long LONG_IDLE_MILLIS = 60_000;
+}
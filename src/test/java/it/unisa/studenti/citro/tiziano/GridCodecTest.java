@@ -0,0 +1,67 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.codec.GridCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the grid codec.
+ */
+public class GridCodecTest {
+
+    /**
+     * Tests that a 9 x 9 game and its solution are encoded in 41 bytes and decoded back as they were.
+     */
+    @Test
+    public void encodeNineByNine() {
+        Sudoku sudoku = new Sudoku(GAME, new SplittableRandom(SEED), Difficulty.HARD);
+        Integer[][] cells = sudoku.getGrid().getCellsNumbersAsMatrix();
+        byte[] data = GridCodec.encode(cells);
+        assertEquals(GridCodec.NINE_BY_NINE_SIZE, data.length, "The 9 x 9 grid takes 4 bits per cell");
+        assertArrayEquals(cells, GridCodec.decode(data), "The grid has been decoded as it was");
+        assertArrayEquals(sudoku.getSolution(), GridCodec.decodeCells(GridCodec.encode(sudoku.getSolution())),
+                "The solution has been decoded as it was");
+    }
+
+    /**
+     * Tests that larger games are encoded with their size and decoded back as they were.
+     */
+    @Test
+    public void encodeLargerGrids() {
+        for (GridSize gridSize: new GridSize[] { GridSize.SIXTEEN, GridSize.TWENTY_FIVE }) {
+            Sudoku sudoku = new Sudoku(GAME, new SplittableRandom(SEED), Difficulty.TRIVIAL, gridSize);
+            byte[] data = GridCodec.encode(sudoku.getGrid().getCells());
+            assertEquals(gridSize.getBlockSize(), data[0], "The " + gridSize + " grid starts with its block size");
+            assertEquals(GridCodec.HEADER_SIZE + (gridSize.getCellsSize() * LARGER_BITS + 7) / 8, data.length,
+                    "The " + gridSize + " grid takes 5 bits per cell");
+            assertArrayEquals(sudoku.getGrid().getCellsNumbersAsMatrix(), GridCodec.decode(data),
+                    "The " + gridSize + " grid has been decoded as it was");
+        }
+    }
+
+    /**
+     * Tests that data with a wrong length is not decoded.
+     */
+    @Test
+    public void decodeInvalidData() {
+        assertThrows(IllegalArgumentException.class, () -> GridCodec.decode(new byte[] { 3, 0, 0 }),
+                "The data is too short for a 9 x 9 grid");
+    }
+
+    /**
+     * Game name and seed used for testing purposes.
+     */
+    public static final String GAME = "CODEC";
+    public static final long SEED = 42;
+
+    /**
+     * Bits per cell for 16 x 16 and 25 x 25 grids.
+     */
+    public static final int LARGER_BITS = 5;
+}
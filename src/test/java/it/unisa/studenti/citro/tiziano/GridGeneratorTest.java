@@ -0,0 +1,63 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.generator.GridGenerator;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the generator of populated grids.
+ */
+public class GridGeneratorTest {
+
+    /**
+     * Tests that the same seed always generates the same grid, and that another seed generates another one.
+     */
+    @Test
+    public void generateReproducibleGrids() {
+        for (GridSize gridSize: GridSize.values()) {
+            Grid grid = new GridGenerator(SEED).generate(gridSize.getBlockSize());
+            assertArrayEquals(grid.getCells(), new GridGenerator(SEED).generate(gridSize.getBlockSize()).getCells(),
+                    "The same seed has generated the same " + gridSize + " grid");
+            assertFalse(Arrays.equals(grid.getCells(),
+                    new GridGenerator(OTHER_SEED).generate(gridSize.getBlockSize()).getCells()),
+                    "Another seed has generated another " + gridSize + " grid");
+        }
+    }
+
+    /**
+     * Tests that a generated grid is full and has every number once in each row, column and box,
+     * within the steps budget of the attempts it has taken.
+     */
+    @Test
+    public void generateValidGrids() {
+        for (GridSize gridSize: GridSize.values()) {
+            GridGenerator generator = new GridGenerator(SEED);
+            Grid grid = generator.generate(gridSize.getBlockSize());
+            int size = grid.getGridSize();
+            assertTrue(grid.isFull(), "The " + gridSize + " grid has no empty cells");
+            for (int unit = 1; unit <= size; unit++) {
+                assertEquals(size, grid.getFilledInRow(unit), "Each row of the " + gridSize + " grid has every number");
+                assertEquals(size, grid.getFilledInColumn(unit), "Each column of the " + gridSize + " grid has every number");
+                assertEquals(0, grid.getRemaining(unit), "The number is placed once in each row of the " + gridSize + " grid");
+            }
+            for (int row = 1; row <= size; row += grid.getBlockSize()) {
+                for (int column = 1; column <= size; column += grid.getBlockSize()) {
+                    assertEquals(size, grid.getFilledInBox(row, column), "Each box of the " + gridSize + " grid has every number");
+                }
+            }
+            assertTrue(generator.getSteps() <= (generator.getRestarts() + 1L) * GridGenerator.DEFAULT_MAX_STEPS,
+                    "No attempt has taken more steps than the budget");
+        }
+    }
+
+    /**
+     * Seeds used for testing purposes.
+     */
+    public static final long SEED = 42;
+    public static final long OTHER_SEED = 43;
+}
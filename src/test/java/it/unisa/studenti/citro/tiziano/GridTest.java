@@ -0,0 +1,113 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.verifier.GridVerifier.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the masks of the grid.
+ */
+public class GridTest {
+
+    /**
+     * Tests that placing, replacing and clearing a number updates the masks of its row, column and box only.
+     */
+    @Test
+    public void placeAndClearNumber() {
+        Grid grid = new Grid(Grid.BLOCK_NUMBER);
+        grid.setCellNumber(NUMBER, ROW, COLUMN);
+        assertTrue(grid.isNumberInRow(NUMBER, ROW), "The number is in its row");
+        assertTrue(grid.isNumberInColumn(NUMBER, COLUMN), "The number is in its column");
+        assertTrue(grid.isNumberInBox(NUMBER, ROW + 1, COLUMN + 1), "The number is in its box");
+        assertFalse(verifyRowNumber(grid, NUMBER, ROW), "The number cannot be placed again in its row");
+        assertFalse(verifyColumnNumber(grid, NUMBER, COLUMN), "The number cannot be placed again in its column");
+        assertFalse(verifyNumber(grid, NUMBER, ROW + 1, COLUMN + 1), "The number cannot be placed again in its box");
+        assertFalse(verifyGridNumber(grid, NUMBER, ROW, LAST), "The number is not allowed in its row");
+        assertFalse(verifyGridNumber(grid, NUMBER, LAST, COLUMN), "The number is not allowed in its column");
+        assertTrue(verifyGridNumber(grid, NUMBER, LAST, LAST), "The number is allowed outside its units");
+        assertEquals(0, grid.getCandidates(ROW, LAST) & 1L << (NUMBER - 1), "The number is not a candidate in its row");
+        assertEquals(1, grid.getFilledInRow(ROW), "The row has a number");
+        assertEquals(1, grid.getFilledInColumn(COLUMN), "The column has a number");
+        assertEquals(1, grid.getFilledInBox(ROW, COLUMN), "The box has a number");
+        assertEquals(Grid.TOTAL_BLOCK_NUMBER - 1, grid.getRemaining(NUMBER), "The number is placed once");
+
+        grid.setCellNumber(OTHER_NUMBER, ROW, COLUMN);
+        assertFalse(grid.isNumberInRow(NUMBER, ROW), "The replaced number is not in its row anymore");
+        assertFalse(grid.isNumberInColumn(NUMBER, COLUMN), "The replaced number is not in its column anymore");
+        assertFalse(grid.isNumberInBox(NUMBER, ROW, COLUMN), "The replaced number is not in its box anymore");
+        assertTrue(grid.isNumberInRow(OTHER_NUMBER, ROW), "The new number is in its row");
+        assertEquals(1, grid.getFilledInRow(ROW), "The row has still a number");
+        assertEquals(Grid.TOTAL_BLOCK_NUMBER, grid.getRemaining(NUMBER), "The replaced number is not placed");
+
+        grid.clearCell(ROW, COLUMN);
+        assertFalse(grid.isNumberInRow(OTHER_NUMBER, ROW), "The cleared number is not in its row anymore");
+        assertTrue(grid.isCellNotFilled(ROW, COLUMN), "The cell is empty");
+        assertEquals(0, grid.getFilledInBox(ROW, COLUMN), "The box is empty");
+        assertEquals(Grid.TOTAL_BLOCK_NUMBER, grid.getRemaining(OTHER_NUMBER), "The cleared number is not placed");
+        assertEquals((1L << Grid.TOTAL_BLOCK_NUMBER) - 1, grid.getCandidates(ROW, COLUMN), "Every number is a candidate");
+    }
+
+    /**
+     * Tests that the masks of games of every size agree with the numbers in their cells.
+     */
+    @Test
+    public void masksMatchCells() {
+        for (GridSize gridSize: GridSize.values()) {
+            Grid grid = new Sudoku(GAME, new SplittableRandom(SEED), Difficulty.HARD, gridSize).getGrid();
+            Integer[][] cells = grid.getCellsNumbersAsMatrix();
+            int size = grid.getGridSize();
+            int blockSize = grid.getBlockSize();
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < size; column++) {
+                    for (int number = Grid.FIRST; number <= size; number++) {
+                        boolean inRow = false;
+                        boolean inColumn = false;
+                        boolean inBox = false;
+                        for (int i = 0; i < size; i++) {
+                            inRow |= cells[row][i] == number;
+                            inColumn |= cells[i][column] == number;
+                            inBox |= cells[row - row % blockSize + i / blockSize][column - column % blockSize + i % blockSize] == number;
+                        }
+                        assertEquals(inRow, grid.isNumberInRow(number, row + 1), "The row mask agrees with the cells");
+                        assertEquals(inColumn, grid.isNumberInColumn(number, column + 1), "The column mask agrees with the cells");
+                        assertEquals(inBox, grid.isNumberInBox(number, row + 1, column + 1), "The box mask agrees with the cells");
+                        assertEquals(!inRow && !inColumn && !inBox, grid.isNumberAllowed(number, row + 1, column + 1),
+                                "The number is allowed only if it is in none of the units of the cell");
+                    }
+                }
+            }
+            for (int row = 1; row <= size; row++) {
+                for (int column = 1; column <= size; column++) {
+                    grid.clearCell(row, column);
+                }
+            }
+            for (int unit = 1; unit <= size; unit++) {
+                assertEquals(0, grid.getFilledInRow(unit), "The cleared row is empty");
+                assertEquals(0, grid.getFilledInColumn(unit), "The cleared column is empty");
+                assertEquals(size, grid.getRemaining(unit), "The number is not placed anymore");
+            }
+        }
+    }
+
+    /**
+     * Cell and numbers used for testing purposes.
+     */
+    public static final int ROW = 1;
+    public static final int COLUMN = 1;
+    public static final int LAST = 9;
+    public static final int NUMBER = 5;
+    public static final int OTHER_NUMBER = 7;
+
+    /**
+     * Game name and seed used for testing purposes.
+     */
+    public static final String GAME = "GRID";
+    public static final long SEED = 42;
+}
@@ -0,0 +1,114 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.dht.LogStorage;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number640;
+import net.tomp2p.storage.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.SudokuUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the storage logged on disk.
+ */
+public class LogStorageTest {
+
+    /**
+     * Tests that the data stored and not removed is recovered by a storage built again on the same log.
+     */
+    @Test
+    public void recoverStoredData() throws IOException {
+        LogStorage storage = new LogStorage(log);
+        storage.put(GRID_KEY, new Data(GRID_BYTES));
+        storage.put(SOLUTION_KEY, new Data(SOLUTION_BYTES).ttlSeconds(TTL_SECONDS));
+        storage.put(PLAYERS_KEY, new Data(GRID_BYTES));
+        storage.remove(PLAYERS_KEY, false);
+        storage.close();
+
+        LogStorage recovered = new LogStorage(log);
+        assertEquals(2, recovered.getRecovered(), "The data not removed has been recovered");
+        assertArrayEquals(GRID_BYTES, recovered.get(GRID_KEY).toBytes(), "The grid has been recovered as it was");
+        assertArrayEquals(SOLUTION_BYTES, recovered.get(SOLUTION_KEY).toBytes(), "The solution has been recovered as it was");
+        assertTrue(recovered.get(SOLUTION_KEY).ttlSeconds() > 0, "The solution still expires");
+        assertNull(recovered.get(PLAYERS_KEY), "The removed data has not been recovered");
+        recovered.close();
+    }
+
+    /**
+     * Tests that a change torn at the end of the log is ignored, while the changes before it are recovered.
+     */
+    @Test
+    public void ignoreTornChange() throws IOException {
+        LogStorage storage = new LogStorage(log);
+        storage.put(GRID_KEY, new Data(GRID_BYTES));
+        storage.close();
+        long size = Files.size(log);
+        storage = new LogStorage(log);
+        storage.put(SOLUTION_KEY, new Data(SOLUTION_BYTES));
+        storage.close();
+        // Dropping the last bytes of the last change, as a crash while appending it would do.
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(log) - 1);
+        }
+
+        LogStorage recovered = new LogStorage(log);
+        assertArrayEquals(GRID_BYTES, recovered.get(GRID_KEY).toBytes(), "The change before the torn one has been recovered");
+        assertNull(recovered.get(SOLUTION_KEY), "The torn change has been ignored");
+        assertEquals(size, Files.size(log), "The log has been rewritten without the torn change");
+        recovered.close();
+    }
+
+    /**
+     * Creates a directory for the log.
+     */
+    @BeforeEach
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory(LOG_DIRECTORY);
+        log = directory.resolve(LOG_FILE);
+    }
+
+    /**
+     * Removes the log and its directory.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(log);
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Directory of the log.
+     */
+    private Path directory;
+
+    /**
+     * The log.
+     */
+    private Path log;
+
+    /**
+     * Keys and data used for testing purposes.
+     */
+    public static final Number160 LOCATION_KEY = gameKey("LOG");
+    public static final Number640 GRID_KEY = new Number640(LOCATION_KEY, GAME_DOMAIN, GRID, Number160.ZERO);
+    public static final Number640 SOLUTION_KEY = new Number640(LOCATION_KEY, GAME_DOMAIN, SOLUTION, Number160.ZERO);
+    public static final Number640 PLAYERS_KEY = new Number640(LOCATION_KEY, GAME_DOMAIN, PLAYERS, Number160.ZERO);
+    public static final byte[] GRID_BYTES = {1, 0, 2, 0};
+    public static final byte[] SOLUTION_BYTES = {1, 3, 2, 4};
+    public static final int TTL_SECONDS = 3600;
+
+    /**
+     * Prefix of the directory and name of the log.
+     */
+    public static final String LOG_DIRECTORY = "log-storage";
+    public static final String LOG_FILE = "test.log";
+}
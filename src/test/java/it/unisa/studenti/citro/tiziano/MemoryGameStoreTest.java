@@ -0,0 +1,277 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.SudokuGameImpl;
+import it.unisa.studenti.citro.tiziano.sudoku.config.GameConfig;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.UpdateStatus;
+import it.unisa.studenti.citro.tiziano.sudoku.event.MoveApplied;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import it.unisa.studenti.citro.tiziano.sudoku.solver.DancingLinksSolver;
+import it.unisa.studenti.citro.tiziano.sudoku.store.MemoryGameStore;
+import it.unisa.studenti.citro.tiziano.sudoku.store.StoreType;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
+import net.tomp2p.peers.PeerAddress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.BLOCK_NUMBER;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.EMPTY_CELL;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.TOTAL_BLOCK_NUMBER;
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.Scores.CORRECT_NUMBER;
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.SudokuUtils.STARTING_SCORE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for playing with games stored in memory, without any network.
+ */
+public class MemoryGameStoreTest {
+
+    /**
+     * Tests that games are generated, joined and left by peers sharing a store in memory.
+     */
+    @Test
+    public void generateJoinAndLeave() {
+        assertNotNull(peer1.generateNewSudoku(GAME), "PEER-ONE has generated game with name GAME");
+        assertNull(peer2.generateNewSudoku(GAME), "PEER-TWO has tried to generate GAME game again");
+        assertTrue(peer1.join(GAME, PEER_ONE), "PEER-ONE has joined the game GAME");
+        assertTrue(peer2.join(GAME, PEER_TWO), "PEER-TWO has joined the game GAME");
+        assertFalse(peer2.join(NOT_EXISTING_GAME, PEER_TWO), "PEER-TWO has tried to join a not existing game");
+        assertArrayEquals(peer1.getSudoku(GAME), peer2.getSudoku(GAME), "Both peers see the same grid");
+
+        Map<String, Integer> scores = peer1.getScores(GAME);
+        assertEquals(2, scores.size(), "Both peers are in the scores");
+        assertEquals(STARTING_SCORE, scores.get(PEER_TWO), "PEER-TWO starts with the starting score");
+
+        assertTrue(peer2.leave(GAME), "PEER-TWO has left the game GAME");
+        assertFalse(peer2.leave(GAME), "PEER-TWO has tried to leave the game GAME again");
+        assertFalse(peer1.getScores(GAME).containsKey(PEER_TWO), "PEER-TWO is not in the scores anymore");
+    }
+
+    /**
+     * Tests that many games are generated at once, each name only once,
+     * while names already taken or not valid are left without a game.
+     */
+    @Test
+    public void generateManyGames() {
+        Integer[][] taken = peer1.generateNewSudoku(GAME);
+        assertNotNull(taken, "PEER-ONE has generated game with name GAME");
+        Map<String, Integer[][]> created = peer2.generateNewSudokusAsync(
+                Arrays.asList(OTHER_GAME, GAME, OTHER_GAME, INVALID_GAME, ANOTHER_GAME), Difficulty.EASY).join();
+        assertEquals(Arrays.asList(OTHER_GAME, GAME, INVALID_GAME, ANOTHER_GAME), new ArrayList<>(created.keySet()),
+                "Every name has been given a result, in the order of the names and once each");
+        assertNull(created.get(GAME), "The name already taken has been left without a game");
+        assertNull(created.get(INVALID_GAME), "The name not valid has been left without a game");
+        assertArrayEquals(taken, peer1.getSudoku(GAME), "The game already stored has not been replaced");
+        for (String name: Arrays.asList(OTHER_GAME, ANOTHER_GAME)) {
+            assertNotNull(created.get(name), "The game " + name + " has been generated");
+            assertArrayEquals(created.get(name), peer1.getSudoku(name), "The game " + name + " has been stored");
+        }
+    }
+
+    /**
+     * Tests that a join failing to add the peer to the players leaves no score behind,
+     * so that the nickname is not taken by a player not in the game.
+     */
+    @Test
+    public void joinWithoutPlayers() {
+        MemoryGameStore failing = new MemoryGameStore() {
+            @Override
+            public CompletableFuture<UpdateStatus> updatePlayers(String name, UnaryOperator<Set<PeerAddress>> update) {
+                return CompletableFuture.completedFuture(UpdateStatus.FAILED);
+            }
+        };
+        SudokuGameImpl peer = new SudokuGameImpl(3, message -> message, failing,
+                GameConfig.builder().poolCapacity(0).build());
+        assertNotNull(peer.generateNewSudoku(GAME), "The peer has generated game with name GAME");
+        assertFalse(peer.join(GAME, PEER_ONE), "The peer has failed to be added to the players of GAME");
+        assertFalse(failing.getGame(GAME).join().getScores().containsKey(PEER_ONE),
+                "The score added by the failed join has been removed");
+        peer.leaveNetwork();
+    }
+
+    /**
+     * Tests that no score and no number are lost when many correct numbers are placed at the same time.
+     */
+    @Test
+    public void placeNumbersConcurrently() {
+        Integer[][] sudoku = peer1.generateNewSudoku(GAME, Difficulty.HARD, GridSize.NINE);
+        assertTrue(peer1.join(GAME, PEER_ONE), "PEER-ONE has joined the game GAME");
+        assertTrue(peer2.join(GAME, PEER_TWO), "PEER-TWO has joined the game GAME");
+        Integer[][] solution = new DancingLinksSolver(BLOCK_NUMBER).solve(sudoku);
+
+        List<CompletableFuture<Integer>> placed = new ArrayList<>();
+        for (int i = 0; i < TOTAL_BLOCK_NUMBER; i++) {
+            for (int j = 0; j < TOTAL_BLOCK_NUMBER; j++) {
+                if (sudoku[i][j] == EMPTY_CELL) {
+                    int row = i + 1;
+                    int column = j + 1;
+                    int number = solution[i][j];
+                    SudokuGameImpl peer = placed.size() % 2 == 0 ? peer1 : peer2;
+                    placed.add(CompletableFuture.supplyAsync(() -> peer.placeNumber(GAME, row, column, number)));
+                }
+            }
+        }
+        for (CompletableFuture<Integer> score: placed) {
+            assertEquals(CORRECT_NUMBER.getScore(), score.join(), "A correct number has been placed");
+        }
+        assertArrayEquals(solution, peer1.getSudoku(GAME), "Every placed number is in the grid");
+        Map<String, Integer> scores = peer1.getScores(GAME);
+        assertEquals(placed.size() * CORRECT_NUMBER.getScore(), scores.get(PEER_ONE) + scores.get(PEER_TWO),
+                "Every placed number has been scored");
+        assertTrue(peer1.getProgress(GAME).isCompleted(), "The game has been completed");
+        assertEquals(0, store.getContentionMetrics().getFailures(), "No update has failed");
+    }
+
+    /**
+     * Tests that correct moves are logged in the order they are made, and dropped once the grid is compacted.
+     */
+    @Test
+    public void logMovesWithSnapshots() {
+        MemoryGameStore logStore = new MemoryGameStore(SNAPSHOT_INTERVAL);
+        SudokuGameImpl peer = new SudokuGameImpl(3, message -> message, logStore,
+                GameConfig.builder().poolCapacity(0).build());
+        Integer[][] sudoku = peer.generateNewSudoku(GAME, Difficulty.HARD, GridSize.NINE);
+        assertTrue(peer.join(GAME, PEER_ONE), "The peer has joined the game GAME");
+        Integer[][] solution = new DancingLinksSolver(BLOCK_NUMBER).solve(sudoku);
+
+        int moves = 0;
+        for (int cell = 0; cell < TOTAL_BLOCK_NUMBER * TOTAL_BLOCK_NUMBER && moves < LOGGED_MOVES; cell++) {
+            int i = cell / TOTAL_BLOCK_NUMBER;
+            int j = cell % TOTAL_BLOCK_NUMBER;
+            if (sudoku[i][j] == EMPTY_CELL) {
+                assertEquals(CORRECT_NUMBER.getScore(), peer.placeNumber(GAME, i + 1, j + 1, solution[i][j]),
+                        "A correct number has been placed");
+                moves++;
+            }
+        }
+        assertEquals(LOGGED_MOVES, moves, "Every move has been made");
+        List<Move> logged = logStore.getMoves(GAME).join();
+        assertEquals(LOGGED_MOVES % SNAPSHOT_INTERVAL, logged.size(), "Moves before the last snapshot are dropped");
+        for (int k = 0; k < logged.size(); k++) {
+            Move move = logged.get(k);
+            assertEquals(LOGGED_MOVES - logged.size() + k + 1, move.getSequence(), "Moves are in the order they are made");
+            assertEquals(PEER_ONE, move.getPlayer(), "Moves are made by the player who has placed the number");
+            assertEquals(solution[move.getRow() - 1][move.getColumn() - 1].intValue(), move.getNumber(),
+                    "Moves place the correct number");
+        }
+        Integer[][] grid = peer.getSudoku(GAME);
+        assertEquals(solution[logged.get(0).getRow() - 1][logged.get(0).getColumn() - 1],
+                grid[logged.get(0).getRow() - 1][logged.get(0).getColumn() - 1], "Logged moves are in the grid");
+        assertTrue(peer.leaveNetwork(), "The peer has left");
+    }
+
+    /**
+     * Tests that a peer missing the notifications of some moves catches up with them
+     * as soon as it is notified about a move after them.
+     */
+    @Test
+    public void catchUpWithMissedMoves() {
+        Integer[][] sudoku = peer1.generateNewSudoku(GAME, Difficulty.HARD, GridSize.NINE);
+        assertTrue(peer1.join(GAME, PEER_ONE), "PEER-ONE has joined the game GAME");
+        assertTrue(peer2.join(GAME, PEER_TWO), "PEER-TWO has joined the game GAME");
+        Integer[][] solution = new DancingLinksSolver(BLOCK_NUMBER).solve(sudoku);
+
+        int moves = 0;
+        for (int cell = 0; cell < TOTAL_BLOCK_NUMBER * TOTAL_BLOCK_NUMBER && moves < MISSED_MOVES + 1; cell++) {
+            int i = cell / TOTAL_BLOCK_NUMBER;
+            int j = cell % TOTAL_BLOCK_NUMBER;
+            if (sudoku[i][j] == EMPTY_CELL) {
+                assertEquals(CORRECT_NUMBER.getScore(), peer1.placeNumber(GAME, i + 1, j + 1, solution[i][j]),
+                        "A correct number has been placed");
+                moves++;
+            }
+        }
+        double placed = peer1.getProgress(GAME).getPercentage();
+        assertTrue(peer2.getProgress(GAME).getPercentage() < placed, "PEER-TWO has not been notified about any move");
+
+        // Dropping the notifications of the first moves, as a lost message would.
+        List<Move> logged = store.getMoves(GAME).join();
+        peer2.getDispatcher().dispatch(new MoveApplied(GAME, logged.get(logged.size() - 1)));
+        assertEquals(placed, peer2.getProgress(GAME).getPercentage(),
+                "PEER-TWO has caught up with the moves it has not been notified about");
+    }
+
+    /**
+     * Tests that a peer stores games in memory when its settings ask for it, without joining any network.
+     */
+    @Test
+    public void chooseMemoryStoreWithSettings() throws Exception {
+        SudokuGameImpl peer = new SudokuGameImpl(3, MASTER_IP, message -> message,
+                GameConfig.builder().store(StoreType.MEMORY).poolCapacity(0).build());
+        assertNotNull(peer.generateNewSudoku(GAME), "The peer has generated game with name GAME");
+        assertTrue(peer.join(GAME, PEER_ONE), "The peer has joined the game GAME");
+        assertNull(peer1.getSudoku(GAME), "The game is not in the store of other peers");
+        assertTrue(peer.leaveNetwork(), "The peer has left");
+    }
+
+    /**
+     * Initializes two peers sharing a store in memory.
+     */
+    @BeforeEach
+    public void setup() {
+        store = new MemoryGameStore();
+        GameConfig config = GameConfig.builder().poolCapacity(0).build();
+        peer1 = new SudokuGameImpl(1, message -> message, store, config);
+        peer2 = new SudokuGameImpl(2, message -> message, store, config);
+    }
+
+    /**
+     * Both peers leave at the end of each test.
+     */
+    @AfterEach
+    public void leave() {
+        peer1.leaveNetwork();
+        peer2.leaveNetwork();
+    }
+
+    /**
+     * Store shared by the peers.
+     */
+    private MemoryGameStore store;
+
+    /**
+     * Peers used for testing purposes.
+     */
+    private SudokuGameImpl peer1;
+    private SudokuGameImpl peer2;
+
+    /**
+     * Games names used for testing purposes.
+     */
+    public static final String GAME = "GAME";
+    public static final String NOT_EXISTING_GAME = "NOT_EXISTING";
+    public static final String OTHER_GAME = "OTHER";
+    public static final String ANOTHER_GAME = "ANOTHER";
+    public static final String INVALID_GAME = "";
+
+    /**
+     * Nicknames for the peers used for testing purposes.
+     */
+    public static final String PEER_ONE = "ONE";
+    public static final String PEER_TWO = "TWO";
+
+    /**
+     * Number of moves after which the grid is compacted, and number of moves made, used for testing purposes.
+     */
+    public static final int SNAPSHOT_INTERVAL = 4;
+    public static final int LOGGED_MOVES = 10;
+
+    /**
+     * Number of moves whose notifications are dropped, used for testing purposes.
+     */
+    public static final int MISSED_MOVES = 2;
+
+    /**
+     * Master ip address, not used without a network.
+     */
+    public static final String MASTER_IP = "127.0.0.1";
+}
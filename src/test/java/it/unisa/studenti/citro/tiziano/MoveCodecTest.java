@@ -0,0 +1,42 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.codec.MoveCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the move codec.
+ */
+public class MoveCodecTest {
+
+    /**
+     * Tests that a move is encoded in a few bytes and decoded back as it was.
+     */
+    @Test
+    public void encodeMove() {
+        byte[] data = MoveCodec.encode(new Move(SEQUENCE, ROW, COLUMN, NUMBER, PLAYER));
+        assertEquals(MoveCodec.HEADER_SIZE + PLAYER.getBytes(StandardCharsets.UTF_8).length, data.length,
+                "The move takes its header and the nickname of its player");
+        Move decoded = MoveCodec.decode(data);
+        assertEquals(SEQUENCE, decoded.getSequence(), "The sequence number has been decoded as it was");
+        assertEquals(ROW, decoded.getRow(), "The row has been decoded as it was");
+        assertEquals(COLUMN, decoded.getColumn(), "The column has been decoded as it was");
+        assertEquals(NUMBER, decoded.getNumber(), "The number has been decoded as it was");
+        assertEquals(PLAYER, decoded.getPlayer(), "The player has been decoded as it was");
+        assertThrows(IllegalArgumentException.class, () -> MoveCodec.decode(new byte[MoveCodec.HEADER_SIZE - 1]),
+                "The data is too short for a move");
+    }
+
+    /**
+     * Move used for testing purposes, in the last cell of a 25 x 25 grid.
+     */
+    public static final long SEQUENCE = 1L << 40;
+    public static final int ROW = 25;
+    public static final int COLUMN = 25;
+    public static final int NUMBER = 25;
+    public static final String PLAYER = "PLAYER";
+}
@@ -0,0 +1,76 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.Relay;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.RelayTree;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.PeerAddress;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for relaying a message through a tree of players.
+ */
+public class RelayTreeTest {
+
+    /**
+     * Tests that a relayed message reaches every player exactly once,
+     * with each player sending it to a few others only, in a few hops.
+     */
+    @Test
+    public void relayToEveryPlayer() {
+        List<PeerAddress> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            players.add(new PeerAddress(Number160.createHash(i)));
+        }
+        RelayTree tree = new RelayTree(FANOUT);
+        Set<PeerAddress> reached = new HashSet<>();
+        Deque<Map.Entry<PeerAddress, Relay>> pending = new ArrayDeque<>();
+        Deque<Integer> depths = new ArrayDeque<>();
+        int maxDepth = 0;
+        Map<PeerAddress, Relay> relays = tree.plan(players, MESSAGE);
+        assertEquals(FANOUT, relays.size(), "The sender has sent the message to as many players as the fan-out");
+        for (Map.Entry<PeerAddress, Relay> relay: relays.entrySet()) {
+            pending.add(relay);
+            depths.add(1);
+        }
+        while (!pending.isEmpty()) {
+            Map.Entry<PeerAddress, Relay> relay = pending.poll();
+            int depth = depths.poll();
+            maxDepth = Math.max(maxDepth, depth);
+            assertSame(MESSAGE, relay.getValue().getMessage(), "The message has been relayed as it was");
+            assertTrue(reached.add(relay.getKey()), "The player has received the message only once");
+            Map<PeerAddress, Relay> forwarded = tree.forward(relay.getValue());
+            assertTrue(forwarded.size() <= FANOUT, "The player has sent the message to at most as many players as the fan-out");
+            for (Map.Entry<PeerAddress, Relay> next: forwarded.entrySet()) {
+                pending.add(next);
+                depths.add(depth + 1);
+            }
+        }
+        assertEquals(new HashSet<>(players), reached, "Every player has received the message");
+        assertTrue(maxDepth <= MAX_DEPTH, "The message has reached every player in a few hops");
+        assertTrue(tree.plan(new ArrayList<>(), MESSAGE).isEmpty(), "There is nobody to relay to");
+        assertThrows(IllegalArgumentException.class, () -> new RelayTree(0), "A tree needs a fan-out of at least 1");
+    }
+
+    /**
+     * Number of players and fan-out used for testing purposes,
+     * with the hops needed for reaching every player.
+     */
+    public static final int PLAYERS = 500;
+    public static final int FANOUT = 4;
+    public static final int MAX_DEPTH = 5;
+
+    /**
+     * Message used for testing purposes.
+     */
+    public static final byte[] MESSAGE = {1, 2, 3};
+}
@@ -0,0 +1,45 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.codec.ScoreCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.model.PlayerScore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the score codec.
+ */
+public class ScoreCodecTest {
+
+    /**
+     * Tests that a score is encoded with its nickname only and decoded back as it was.
+     */
+    @Test
+    public void encodeScore() {
+        byte[] data = ScoreCodec.encode(new PlayerScore(NICKNAME, SCORE, JOINED));
+        assertEquals(ScoreCodec.HEADER_SIZE + NICKNAME.getBytes(StandardCharsets.UTF_8).length, data.length,
+                "The score takes its header and its nickname");
+        PlayerScore decoded = ScoreCodec.decode(data);
+        assertEquals(NICKNAME, decoded.getNickname(), "The nickname has been decoded as it was");
+        assertEquals(SCORE, decoded.getScore(), "The score has been decoded as it was");
+        assertEquals(JOINED, decoded.getJoined(), "The join time has been decoded as it was");
+    }
+
+    /**
+     * Tests that data shorter than the header is not decoded.
+     */
+    @Test
+    public void decodeInvalidData() {
+        assertThrows(IllegalArgumentException.class, () -> ScoreCodec.decode(new byte[ScoreCodec.HEADER_SIZE - 1]),
+                "The data is too short for a score");
+    }
+
+    /**
+     * Score used for testing purposes, with a nickname taking more than a byte per character.
+     */
+    public static final String NICKNAME = "Tizi\u00e0no";
+    public static final int SCORE = -3;
+    public static final long JOINED = 1_600_000_000_000L;
+}
@@ -3,6 +3,11 @@ package it.unisa.studenti.citro.tiziano;
 import it.unisa.studenti.citro.tiziano.listener.MessageListenerImpl;
 import it.unisa.studenti.citro.tiziano.model.PlaceNumber;
 import it.unisa.studenti.citro.tiziano.sudoku.SudokuGameImpl;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.ContentionMetrics;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Progress;
+import it.unisa.studenti.citro.tiziano.sudoku.solver.DancingLinksSolver;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -13,9 +18,17 @@ import org.junit.jupiter.api.TestMethodOrder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static it.unisa.studenti.citro.tiziano.model.PlaceNumber.getPlaceNumber;
 import static it.unisa.studenti.citro.tiziano.model.PlaceOptions.*;
+import static it.unisa.studenti.citro.tiziano.sudoku.config.GameConfig.DEFAULT_UPDATE_MAX_RETRIES;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.BLOCK_NUMBER;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.EMPTY_CELL;
 import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.FIRST;
 import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.TOTAL_BLOCK_NUMBER;
 import static it.unisa.studenti.citro.tiziano.sudoku.utils.Scores.*;
@@ -453,6 +466,127 @@ public class SudokuGameTest {
                 "PEER-FOUR has tried to place a number higher than the maximum possible");
     }
 
+    /**
+     * Tests that the progress of a game is updated when a correct number is placed
+     * and that it is not provided for a game that has not been joined.
+     */
+    @Test
+    @Order(28)
+    public void getProgress() {
+        Integer[][] sudoku = peer1.generateNewSudoku(PROGRESS_GAME);
+        assertNotNull(sudoku, "PEER-ONE created a game for checking the progress");
+        assertNull(peer1.getProgress(PROGRESS_GAME), "PEER-ONE has not joined the game yet");
+        assertTrue(peer1.join(PROGRESS_GAME, PEER_ONE), "PEER-ONE has joined the game PROGRESS");
+
+        Progress before = peer1.getProgress(PROGRESS_GAME);
+        assertNotNull(before, "PEER-ONE has the progress of the joined game");
+        PlaceNumber placeNumber = getPlaceNumber(sudoku, CORRECT.getOption());
+        assertNotNull(placeNumber, "Cannot get number to place");
+        assertEquals(CORRECT_NUMBER.getScore(), peer1.placeNumber(PROGRESS_GAME,
+                placeNumber.getRow(), placeNumber.getColumn(), placeNumber.getNumber()));
+        Progress after = peer1.getProgress(PROGRESS_GAME);
+        assertEquals(before.getEmptyCells() - 1, after.getEmptyCells(), "A cell has been filled");
+        assertEquals(before.getRemaining(placeNumber.getNumber()) - 1, after.getRemaining(placeNumber.getNumber()),
+                "The placed number has to be placed once less");
+        assertTrue(after.getPercentage() > before.getPercentage(), "The game is closer to completion");
+    }
+
+    /**
+     * Tests that no score and no number are lost when many correct numbers are placed
+     * at the same time by all the peers on the same game.
+     */
+    @Test
+    @Order(29)
+    public void placeNumbersConcurrently() throws Exception {
+        Integer[][] sudoku = peer1.generateNewSudoku(CONCURRENT_GAME, Difficulty.HARD, GridSize.NINE);
+        assertNotNull(sudoku, "PEER-ONE created a game for placing numbers concurrently");
+        SudokuGameImpl[] peers = { peer1, peer2, peer3, peer4 };
+        String[] nicknames = { PEER_ONE, PEER_TWO, PEER_THREE, PEER_FOUR };
+        for (int i = 0; i < peers.length; i++) {
+            assertTrue(peers[i].join(CONCURRENT_GAME, nicknames[i]), nicknames[i] + " has joined the game CONCURRENT");
+        }
+
+        Integer[][] solution = new DancingLinksSolver(BLOCK_NUMBER).solve(sudoku);
+        assertNotNull(solution, "The game has a solution");
+        List<PlaceNumber> placeNumbers = new ArrayList<>();
+        for (int i = 0; i < TOTAL_BLOCK_NUMBER && placeNumbers.size() < CONCURRENT_PLACERS; i++) {
+            for (int j = 0; j < TOTAL_BLOCK_NUMBER && placeNumbers.size() < CONCURRENT_PLACERS; j++) {
+                if (sudoku[i][j] == EMPTY_CELL) {
+                    placeNumbers.add(new PlaceNumber(i + 1, j + 1, solution[i][j]));
+                }
+            }
+        }
+        assertEquals(CONCURRENT_PLACERS, placeNumbers.size(), "There are enough empty cells to fill");
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_PLACERS);
+        List<Future<Integer>> results = new ArrayList<>();
+        int[] placed = new int[peers.length];
+        for (int i = 0; i < CONCURRENT_PLACERS; i++) {
+            SudokuGameImpl peer = peers[i % peers.length];
+            PlaceNumber placeNumber = placeNumbers.get(i);
+            placed[i % peers.length]++;
+            results.add(executor.submit(() -> peer.placeNumber(CONCURRENT_GAME,
+                    placeNumber.getRow(), placeNumber.getColumn(), placeNumber.getNumber())));
+        }
+        for (Future<Integer> result: results) {
+            assertEquals(CORRECT_NUMBER.getScore(), result.get(), "A correct number has been placed");
+        }
+        executor.shutdown();
+
+        Map<String, Integer> scores = peer1.getScores(CONCURRENT_GAME);
+        for (int i = 0; i < peers.length; i++) {
+            assertEquals(placed[i] * CORRECT_NUMBER.getScore(), scores.get(nicknames[i]),
+                    nicknames[i] + " has a point for each number it has placed");
+        }
+        Integer[][] grid = peer1.getSudoku(CONCURRENT_GAME);
+        for (PlaceNumber placeNumber: placeNumbers) {
+            assertEquals(placeNumber.getNumber(), grid[placeNumber.getRow() - 1][placeNumber.getColumn() - 1],
+                    "Every placed number is in the grid");
+        }
+        for (SudokuGameImpl peer: peers) {
+            ContentionMetrics metrics = peer.getContentionMetrics();
+            assertEquals(0, metrics.getFailures(), "No update has run out of retries");
+            assertEquals(metrics.getAttempts() - metrics.getOperations(), metrics.getConflicts(),
+                    "Every conflict has been retried once");
+            assertTrue(metrics.getRetriesPerOperation() <= DEFAULT_UPDATE_MAX_RETRIES,
+                    "No update has been retried more than the configured bound");
+        }
+    }
+
+    /**
+     * Tests that many games are generated, joined and retrieved by a peer with all the operations in flight at once,
+     * without waiting for each of them in turn.
+     */
+    @Test
+    @Order(30)
+    public void playAsynchronously() {
+        List<CompletableFuture<Integer[][]>> generated = new ArrayList<>();
+        for (int i = 0; i < ASYNC_GAMES; i++) {
+            generated.add(peer1.generateNewSudokuAsync(ASYNC_GAME + i));
+        }
+        CompletableFuture.allOf(generated.toArray(new CompletableFuture[0])).join();
+        for (CompletableFuture<Integer[][]> sudoku: generated) {
+            assertNotNull(sudoku.join(), "PEER-ONE has generated a game without waiting for it");
+        }
+
+        List<CompletableFuture<Boolean>> joins = new ArrayList<>();
+        for (int i = 0; i < ASYNC_GAMES; i++) {
+            joins.add(peer2.joinAsync(ASYNC_GAME + i, PEER_TWO));
+        }
+        for (CompletableFuture<Boolean> join: joins) {
+            assertTrue(join.join(), "PEER-TWO has joined a game without waiting for it");
+        }
+        assertEquals(ASYNC_GAMES, peer2.joined().size(), "PEER-TWO has joined all the games");
+
+        for (int i = 0; i < ASYNC_GAMES; i++) {
+            assertArrayEquals(generated.get(i).join(), peer2.getSudokuAsync(ASYNC_GAME + i).join(),
+                    "PEER-TWO has retrieved the game without waiting for it");
+        }
+        assertNull(peer2.getSudokuAsync(NOT_EXISTING_GAME).join(), "PEER-TWO has tried to get a not existing game");
+        assertFalse(peer2.joinAsync(NOT_EXISTING_GAME, PEER_TWO).join(),
+                "PEER-TWO has tried to join a not existing game");
+    }
+
     /**
      * Initializes the four peer for testing purposes.
      */
@@ -491,7 +625,7 @@ public class SudokuGameTest {
      * @param peer the peer that leaves the games.
      */
     private void leaveGames(SudokuGameImpl peer) {
-        for (String game: new ArrayList<>(peer.getGamesNames())) {
+        for (String game: peer.joined()) {
             peer.leave(game);
         }
     }
@@ -513,6 +647,9 @@ public class SudokuGameTest {
     public static final String CORRECT_PLACED_GAME = "CORRECT_PLACED";
     public static final String ALREADY_PLACED_GAME = "ALREADY_PLACED";
     public static final String ALREADY_PLACED_INCORRECT_GAME = "ALREADY_PLACED_INCORRECT";
+    public static final String PROGRESS_GAME = "PROGRESS";
+    public static final String CONCURRENT_GAME = "CONCURRENT";
+    public static final String ASYNC_GAME = "ASYNC_";
 
     /**
      * Nicknames for the peers used for testing purposes.
@@ -522,6 +659,16 @@ public class SudokuGameTest {
     public static final String PEER_THREE = "THREE";
     public static final String PEER_FOUR = "FOUR";
 
+    /**
+     * Number of correct numbers placed at the same time.
+     */
+    public static final int CONCURRENT_PLACERS = 50;
+
+    /**
+     * Number of games played at the same time without waiting for them.
+     */
+    public static final int ASYNC_GAMES = 10;
+
     /**
      * Default ip address,
      */
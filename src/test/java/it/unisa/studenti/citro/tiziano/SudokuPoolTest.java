@@ -0,0 +1,131 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import it.unisa.studenti.citro.tiziano.sudoku.pool.SudokuPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the pool of games generated in advance.
+ */
+public class SudokuPoolTest {
+
+    /**
+     * Tests that a game is taken from the pool when it is ready, and generated on the spot otherwise.
+     */
+    @Test
+    public void takeCountsHitsAndMisses() {
+        pool = new SudokuPool(0, 0, this::generate);
+        pool.start();
+        assertEquals(GAME, pool.take(GAME).getName(), "The game has the name it has been taken with");
+        assertEquals(1, pool.getMisses(), "A pool without capacity generates every game on demand");
+        assertEquals(0, pool.getHits(), "No game has been taken from the pool without capacity");
+
+        pool = new SudokuPool(CAPACITY, LOW_WATER_MARK, this::generate);
+        pool.start();
+        await(() -> pool.size() == CAPACITY, "The pool has been filled");
+        assertEquals(GAME, pool.take(GAME).getName(), "The game has the name it has been taken with");
+        assertEquals(1, pool.getHits(), "The game has been taken from the pool");
+        assertEquals(0, pool.getMisses(), "No game has been generated on demand");
+    }
+
+    /**
+     * Tests that the producer tops the pool up to its capacity once it falls to the low-water mark.
+     */
+    @Test
+    public void refillAboveLowWaterMark() {
+        pool = new SudokuPool(CAPACITY, LOW_WATER_MARK, this::generate);
+        pool.start();
+        await(() -> pool.size() == CAPACITY, "The pool has been filled");
+        long refills = pool.getRefills();
+        for (int i = 0; i < CAPACITY - LOW_WATER_MARK; i++) {
+            pool.take(GAME);
+        }
+        await(() -> pool.size() == CAPACITY, "The pool has been topped up to its capacity");
+        assertTrue(pool.getRefills() > refills, "The pool has been topped up once it has fallen to the low-water mark");
+        await(() -> pool.getGenerated() == pool.getHits() + pool.size(),
+                "Every game generated in background has been taken or is ready");
+    }
+
+    /**
+     * Tests that shutting the pool down stops the producer thread.
+     */
+    @Test
+    public void shutdownStopsProducer() throws InterruptedException {
+        pool = new SudokuPool(CAPACITY, LOW_WATER_MARK, this::generate);
+        pool.start();
+        await(() -> pool.size() == CAPACITY, "The pool has been filled");
+        Thread thread = producer.get();
+        assertNotNull(thread, "The games have been generated by the producer");
+        assertTrue(thread.isAlive(), "The producer waits for the pool to fall to the low-water mark");
+        pool.shutdown();
+        thread.join(TIMEOUT_MILLIS);
+        assertFalse(thread.isAlive(), "The producer has stopped");
+    }
+
+    /**
+     * Stops the pool used by a test.
+     */
+    @AfterEach
+    public void teardown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Generates a game, keeping track of the producer thread when it is generated in background.
+     * @return the game.
+     */
+    private Sudoku generate() {
+        if (SudokuPool.PRODUCER_NAME.equals(Thread.currentThread().getName())) {
+            producer.set(Thread.currentThread());
+        }
+        return new Sudoku(null, SEED);
+    }
+
+    /**
+     * Waits for a condition to hold, failing if it does not hold in time.
+     * @param condition is the condition.
+     * @param message is the message for when the condition does not hold in time.
+     */
+    private static void await(BooleanSupplier condition, String message) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Pool used by a test.
+     */
+    private SudokuPool pool;
+
+    /**
+     * The thread that has generated games in background.
+     */
+    private final AtomicReference<Thread> producer = new AtomicReference<>();
+
+    /**
+     * Capacity and low-water mark of the pool used for testing purposes.
+     */
+    public static final int CAPACITY = 4;
+    public static final int LOW_WATER_MARK = 2;
+
+    /**
+     * Game name and seed used for testing purposes.
+     */
+    public static final String GAME = "POOL";
+    public static final long SEED = 42;
+
+    /**
+     * How long to wait for the producer, in milliseconds.
+     */
+    public static final long TIMEOUT_MILLIS = 10_000;
+}
@@ -0,0 +1,180 @@
+package it.unisa.studenti.citro.tiziano;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import it.unisa.studenti.citro.tiziano.sudoku.solver.DancingLinksSolver;
+import it.unisa.studenti.citro.tiziano.sudoku.solver.SudokuSolver;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.BLOCK_NUMBER;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.EMPTY_CELL;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.TOTAL_BLOCK_NUMBER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Models the unit tests for the solver.
+ */
+public class SudokuSolverTest {
+
+    /**
+     * Tests that a puzzle is solved with its only solution.
+     */
+    @Test
+    public void solvePuzzle() {
+        Integer[][] solved = solver.solve(toCells(PUZZLE));
+        assertNotNull(solved, "The puzzle has a solution");
+        assertArrayEquals(toCells(SOLUTION), solved, "The puzzle has been solved with its solution");
+        assertEquals(1, solver.countSolutions(toCells(PUZZLE), 2), "The puzzle has only one solution");
+    }
+
+    /**
+     * Tests that counting stops at the limit when a grid has more solutions.
+     */
+    @Test
+    public void countSolutionsUpToLimit() {
+        assertEquals(LIMIT, solver.countSolutions(new Grid(BLOCK_NUMBER), LIMIT),
+                "An empty grid has more solutions than the limit");
+    }
+
+    /**
+     * Tests that a grid with the same number twice in a row has no solution.
+     */
+    @Test
+    public void solveInconsistentPuzzle() {
+        Integer[][] cells = toCells(PUZZLE);
+        cells[0][1] = cells[0][0];
+        assertEquals(0, solver.countSolutions(cells, 2), "The puzzle has the same number twice in a row");
+        assertNull(solver.solve(cells), "The puzzle cannot be solved");
+        assertEquals(1, solver.countSolutions(toCells(PUZZLE), 2),
+                "The solver has been restored after the inconsistent puzzle");
+    }
+
+    /**
+     * Tests that a generated game is solved with the solution it has been generated with.
+     */
+    @Test
+    public void solveGeneratedGame() {
+        Sudoku sudoku = new Sudoku(GAME, SEED);
+        assertArrayEquals(sudoku.getSolution(), solver.solve(sudoku.getGrid()),
+                "The game has been solved with its solution");
+    }
+
+    /**
+     * Tests that games generated with every difficulty have only one solution
+     * and keep the clues their difficulty asks for, or only a few more, within a bounded time.
+     */
+    @Test
+    public void generateUniquePuzzles() {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            for (Difficulty difficulty: Difficulty.values()) {
+                Sudoku sudoku = new Sudoku(GAME, new SplittableRandom(seed), difficulty);
+                int clues = countClues(sudoku.getGrid());
+                assertEquals(1, solver.countSolutions(sudoku.getGrid(), 2),
+                        "The game with difficulty " + difficulty + " has only one solution");
+                assertEquals(clues, sudoku.getClues(), "The game with difficulty " + difficulty + " tells its clues");
+                assertTrue(clues >= difficulty.getClues(),
+                        "The game with difficulty " + difficulty + " has no fewer clues than expected");
+                assertTrue(clues <= difficulty.getClues() + MAX_EXTRA_CLUES,
+                        "The game with difficulty " + difficulty + " has at most a few more clues than expected");
+                assertTrue(sudoku.getGenerationTime() <= MAX_GENERATION_NANOS,
+                        "The game with difficulty " + difficulty + " has been generated in a bounded time");
+            }
+        }
+    }
+
+    /**
+     * Tests that games with larger grids are solved with the solution they have been generated with
+     * and have only one solution.
+     */
+    @Test
+    public void generateLargerPuzzles() {
+        for (GridSize gridSize: new GridSize[] { GridSize.SIXTEEN, GridSize.TWENTY_FIVE }) {
+            Sudoku sudoku = new Sudoku(GAME, new SplittableRandom(SEED), Difficulty.EASY, gridSize);
+            DancingLinksSolver largerSolver = new DancingLinksSolver(gridSize.getBlockSize());
+            assertEquals(gridSize.getGridSize(), sudoku.getGrid().getGridSize(),
+                    "The game has a " + gridSize + " grid");
+            assertEquals(1, largerSolver.countSolutions(sudoku.getGrid(), 2),
+                    "The game with a " + gridSize + " grid has only one solution");
+            assertArrayEquals(sudoku.getSolution(), largerSolver.solve(sudoku.getGrid()),
+                    "The game with a " + gridSize + " grid has been solved with its solution");
+        }
+    }
+
+    /**
+     * Initializes the solver shared by the tests.
+     */
+    @BeforeAll
+    public static void setup() {
+        solver = new DancingLinksSolver(BLOCK_NUMBER);
+    }
+
+    /**
+     * Counts the clues in a grid.
+     * @param grid is the grid.
+     * @return the number of clues.
+     */
+    private static int countClues(Grid grid) {
+        int clues = 0;
+        for (byte cell: grid.getCells()) {
+            if (cell != EMPTY_CELL) {
+                clues++;
+            }
+        }
+        return clues;
+    }
+
+    /**
+     * Converts a grid written row by row, with dots for empty cells, to a matrix of numbers.
+     * @param grid is the grid written row by row.
+     * @return the matrix of numbers.
+     */
+    private static Integer[][] toCells(String grid) {
+        Integer[][] cells = new Integer[TOTAL_BLOCK_NUMBER][TOTAL_BLOCK_NUMBER];
+        for (int i = 0; i < grid.length(); i++) {
+            char cell = grid.charAt(i);
+            cells[i / TOTAL_BLOCK_NUMBER][i % TOTAL_BLOCK_NUMBER] = cell == '.' ? 0 : cell - '0';
+        }
+        return cells;
+    }
+
+    /**
+     * Solver used for testing purposes.
+     */
+    private static SudokuSolver solver;
+
+    /**
+     * Puzzle with a single solution, and its solution, used for testing purposes.
+     */
+    public static final String PUZZLE =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    public static final String SOLUTION =
+            "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+    /**
+     * Game name and seed used for testing purposes.
+     */
+    public static final String GAME = "SOLVER";
+    public static final long SEED = 42;
+
+    /**
+     * Maximum number of solutions to count.
+     */
+    public static final int LIMIT = 100;
+
+    /**
+     * Number of seeds games are generated with.
+     */
+    public static final int SEEDS = 10;
+
+    /**
+     * Clues a generated game may have above the ones its difficulty asks for,
+     * and maximum time for generating it, in nanoseconds.
+     */
+    public static final int MAX_EXTRA_CLUES = 4;
+    public static final long MAX_GENERATION_NANOS = 1_000_000_000L;
+}
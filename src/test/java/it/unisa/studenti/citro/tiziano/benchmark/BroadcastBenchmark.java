@@ -0,0 +1,264 @@
+package it.unisa.studenti.citro.tiziano.benchmark;
+
+import it.unisa.studenti.citro.tiziano.sudoku.codec.EventCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.event.MoveApplied;
+import it.unisa.studenti.citro.tiziano.sudoku.event.ScoreChanged;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.Fanout;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.Relay;
+import it.unisa.studenti.citro.tiziano.sudoku.messaging.RelayTree;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.PeerAddress;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.dht.Futures.delay;
+
+/**
+ * Measures the cost for the player placing a number of notifying every other player,
+ * sending the message to each of them against relaying it through a tree of the players.
+ * The players are simulated in the same process and connected through a loopback that serializes each message,
+ * as the peers do before sending it, and delivers it after a fixed latency.
+ * For each number of players, it reports the messages and the bytes sent by the placer, the time it has spent
+ * serializing them and sending them, and the time until every player has received the message.
+ * It is run on its own, passing the fan-out of the tree as an optional argument.
+ */
+public class BroadcastBenchmark {
+
+    /**
+     * Runs the benchmark.
+     * @param args is the fan-out of the tree, optional.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int fanout = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FANOUT;
+        byte[] message = EventCodec.encode(Arrays.asList(
+                new MoveApplied(GAME, new Move(1, 1, 1, 1, PLAYER)), new ScoreChanged(GAME, PLAYER, 1, 1)));
+        System.out.printf("Notifying a move of %d bytes, relaying through a tree with fan-out %d%n", message.length, fanout);
+        System.out.printf("%8s %8s %10s %12s %14s %12s %12s%n",
+                "players", "mode", "sends", "bytes", "serialize us", "placer us", "all ms");
+        for (int players: PLAYERS) {
+            for (boolean relayed: new boolean[] {false, true}) {
+                Network network = new Network(players, new RelayTree(fanout));
+                for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+                    network.broadcast(message, relayed);
+                }
+                network.reset();
+                long placer = 0;
+                long all = 0;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long[] times = network.broadcast(message, relayed);
+                    placer += times[0];
+                    all += times[1];
+                }
+                Node root = network.nodes.get(0);
+                System.out.printf("%8d %8s %10d %12d %14.1f %12.1f %12.2f%n", players, relayed ? "tree" : "direct",
+                        root.sends.sum() / ROUNDS, root.bytes.sum() / ROUNDS,
+                        root.serializing.sum() / NANOS_PER_MICRO / ROUNDS,
+                        placer / NANOS_PER_MICRO / ROUNDS, all / NANOS_PER_MILLI / ROUNDS);
+            }
+        }
+    }
+
+    /**
+     * Models the players connected through the loopback, the first of them placing the number.
+     */
+    private static class Network {
+
+        /**
+         * Builds the players.
+         * @param players is the number of players.
+         * @param tree is the tree messages are relayed through.
+         */
+        private Network(int players, RelayTree tree) {
+            this.tree = tree;
+            this.nodes = new ArrayList<>();
+            this.byAddress = new HashMap<>();
+            for (int i = 0; i < players; i++) {
+                Node node = new Node(new PeerAddress(Number160.createHash(i)));
+                node.fanout = new Fanout((player, sent) -> send(node, player, sent), TIMEOUT_MILLIS, TIMEOUT_MILLIS);
+                nodes.add(node);
+                byAddress.put(node.address, node);
+            }
+        }
+
+        /**
+         * Notifies every other player from the first one.
+         * @param message is the message.
+         * @param relayed whether the message is relayed through the tree.
+         * @return the time spent sending by the first player and the time until every player has received the message,
+         * in nanoseconds.
+         */
+        private long[] broadcast(byte[] message, boolean relayed) throws InterruptedException {
+            received = new CountDownLatch(nodes.size() - 1);
+            List<PeerAddress> others = new ArrayList<>();
+            for (Node node: nodes.subList(1, nodes.size())) {
+                others.add(node.address);
+            }
+            Fanout root = nodes.get(0).fanout;
+            long start = System.nanoTime();
+            if (relayed) {
+                root.send(tree.plan(others, message));
+            } else {
+                root.send(others, message);
+            }
+            long placer = System.nanoTime() - start;
+            if (!received.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Some players have not received the message");
+            }
+            return new long[] {placer, System.nanoTime() - start};
+        }
+
+        /**
+         * Sends a message through the loopback, serializing it and delivering it after the latency.
+         * @param from is the sending player.
+         * @param to is the receiving player.
+         * @param message is the message.
+         * @return a future completed once the message has been delivered.
+         */
+        private CompletableFuture<?> send(Node from, PeerAddress to, Object message) {
+            long start = System.nanoTime();
+            byte[] serialized = serialize(message);
+            from.serializing.add(System.nanoTime() - start);
+            from.sends.increment();
+            from.bytes.add(serialized.length);
+            Node node = byAddress.get(to);
+            return delay(LATENCY_MILLIS).thenRun(() -> {
+                if (message instanceof Relay) {
+                    node.fanout.send(tree.forward((Relay) message));
+                }
+                received.countDown();
+            });
+        }
+
+        /**
+         * Clears the counters of every player.
+         */
+        private void reset() {
+            for (Node node: nodes) {
+                node.sends.reset();
+                node.bytes.reset();
+                node.serializing.reset();
+            }
+        }
+
+        /**
+         * The tree messages are relayed through.
+         */
+        private final RelayTree tree;
+
+        /**
+         * The players, the first of them placing the number.
+         */
+        private final List<Node> nodes;
+
+        /**
+         * The players, by address.
+         */
+        private final Map<PeerAddress, Node> byAddress;
+
+        /**
+         * Counts the players still to receive the message being broadcast.
+         */
+        private volatile CountDownLatch received;
+    }
+
+    /**
+     * Models a player connected through the loopback, with what it has sent.
+     */
+    private static class Node {
+
+        /**
+         * Builds a player.
+         * @param address is the address of the player.
+         */
+        private Node(PeerAddress address) {
+            this.address = address;
+        }
+
+        /**
+         * The address of the player.
+         */
+        private final PeerAddress address;
+
+        /**
+         * Sender of the messages of the player.
+         */
+        private Fanout fanout;
+
+        /**
+         * Number of messages sent by the player.
+         */
+        private final LongAdder sends = new LongAdder();
+
+        /**
+         * Number of bytes sent by the player.
+         */
+        private final LongAdder bytes = new LongAdder();
+
+        /**
+         * Time spent by the player serializing its messages, in nanoseconds.
+         */
+        private final LongAdder serializing = new LongAdder();
+    }
+
+    /**
+     * Serializes a message as it is done before sending it.
+     * @param message is the message.
+     * @return the serialized message.
+     */
+    private static byte[] serialize(Object message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Numbers of players notified.
+     */
+    public static final int[] PLAYERS = {10, 50, 100, 250, 500};
+
+    /**
+     * Default number of players each player relays the message to.
+     */
+    public static final int DEFAULT_FANOUT = 4;
+
+    /**
+     * Latency of the loopback, and how long a broadcast may take, in milliseconds.
+     */
+    public static final long LATENCY_MILLIS = 1;
+    public static final long TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Broadcasts run before measuring, so that the code is compiled, and broadcasts measured.
+     */
+    public static final int WARM_UP_ROUNDS = 20;
+    public static final int ROUNDS = 50;
+
+    /**
+     * Game and player of the notified move.
+     */
+    public static final String GAME = "BENCHMARK";
+    public static final String PLAYER = "PLAYER";
+
+    /**
+     * Nanoseconds in a microsecond and in a millisecond.
+     */
+    public static final double NANOS_PER_MICRO = 1_000.0;
+    public static final double NANOS_PER_MILLI = 1_000_000.0;
+}
@@ -0,0 +1,84 @@
+package it.unisa.studenti.citro.tiziano.benchmark;
+
+import it.unisa.studenti.citro.tiziano.sudoku.generator.BatchGenerator;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures the throughput of batch generation for an increasing number of cores,
+ * so that it can be checked whether it scales linearly.
+ * It is run on its own, passing the batch size and the difficulty as optional arguments.
+ */
+public class GenerationBenchmark {
+
+    /**
+     * Runs the benchmark.
+     * @param args are the batch size and the difficulty, both optional.
+     */
+    public static void main(String[] args) {
+        int batchSize = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_BATCH_SIZE;
+        Difficulty difficulty = args.length > 1 ? Difficulty.valueOf(args[1]) : Difficulty.HARD;
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            names.add(GAME + i);
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Generating %d %s games per batch on up to %d cores%n", batchSize, difficulty, cores);
+        System.out.printf("%8s %14s %10s %12s%n", "cores", "puzzles/sec", "speedup", "efficiency");
+        double baseline = 0;
+        for (int parallelism = 1; parallelism <= cores; parallelism = nextParallelism(parallelism, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            BatchGenerator generator = new BatchGenerator(pool);
+            for (int i = 0; i < WARM_UP_BATCHES; i++) {
+                generator.generate(names, difficulty);
+            }
+            double throughput = 0;
+            for (int i = 0; i < MEASURED_BATCHES; i++) {
+                throughput += generator.generate(names, difficulty).getThroughput();
+            }
+            throughput /= MEASURED_BATCHES;
+            pool.shutdown();
+            if (parallelism == 1) {
+                baseline = throughput;
+            }
+            double speedup = throughput / baseline;
+            System.out.printf("%8d %14.1f %10.2f %11.0f%%%n", parallelism, throughput, speedup, 100 * speedup / parallelism);
+        }
+    }
+
+    /**
+     * Provides the next number of cores to measure, doubling it up to all the cores.
+     * @param parallelism is the number of cores just measured.
+     * @param cores is the number of available cores.
+     * @return the next number of cores to measure.
+     */
+    private static int nextParallelism(int parallelism, int cores) {
+        if (parallelism == cores) {
+            return cores + 1;
+        }
+        return Math.min(parallelism * 2, cores);
+    }
+
+    /**
+     * Default number of games generated by each batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 512;
+
+    /**
+     * Batches run before measuring, so that the code is compiled.
+     */
+    public static final int WARM_UP_BATCHES = 2;
+
+    /**
+     * Batches measured for each number of cores.
+     */
+    public static final int MEASURED_BATCHES = 3;
+
+    /**
+     * Prefix for the names of the generated games.
+     */
+    public static final String GAME = "BENCHMARK-";
+}
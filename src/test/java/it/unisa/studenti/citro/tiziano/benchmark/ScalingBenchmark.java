@@ -0,0 +1,116 @@
+package it.unisa.studenti.citro.tiziano.benchmark;
+
+import it.unisa.studenti.citro.tiziano.sudoku.generator.GridGenerator;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Grid;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.Difficulty;
+import it.unisa.studenti.citro.tiziano.sudoku.utils.GridSize;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures how generation and validation scale with the grid size.
+ * For each size, it reports the time to populate a full grid, the time to turn it into a puzzle
+ * and the time to check whether a number can be placed on a cell.
+ * It is run on its own, passing the difficulty as an optional argument.
+ */
+public class ScalingBenchmark {
+
+    /**
+     * Runs the benchmark.
+     * @param args is the difficulty, optional.
+     */
+    public static void main(String[] args) {
+        Difficulty difficulty = args.length > 0 ? Difficulty.valueOf(args[0]) : Difficulty.EASY;
+        SplittableRandom random = new SplittableRandom(SEED);
+        System.out.printf("Generating %s games for each grid size%n", difficulty);
+        System.out.printf("%8s %12s %12s %10s %14s%n", "size", "grid ms", "puzzle ms", "clues", "check ns/op");
+        for (GridSize gridSize: GridSize.values()) {
+            int games = GAMES / gridSize.getBlockSize();
+            GridGenerator generator = new GridGenerator(random.split());
+            long gridTime = 0;
+            for (int i = 0; i < games; i++) {
+                generator.generate(gridSize.getBlockSize());
+                gridTime += generator.getGenerationTime();
+            }
+            long puzzleTime = 0;
+            int clues = 0;
+            Grid grid = null;
+            for (int i = 0; i < games; i++) {
+                Sudoku sudoku = new Sudoku(GAME + i, random.split(), difficulty, gridSize);
+                puzzleTime += sudoku.getGenerationTime();
+                clues += countClues(sudoku.getGrid());
+                grid = sudoku.getGrid();
+            }
+            System.out.printf("%8s %12.3f %12.3f %10d %14.1f%n", gridSize.getGridSize() + "x" + gridSize.getGridSize(),
+                    gridTime / NANOS_PER_MILLI / games, puzzleTime / NANOS_PER_MILLI / games, clues / games,
+                    measureChecks(grid));
+        }
+    }
+
+    /**
+     * Measures the time to check whether a number can be placed on a cell, over all numbers and cells.
+     * @param grid is the grid to check.
+     * @return the average time of a check, in nanoseconds.
+     */
+    private static double measureChecks(Grid grid) {
+        int gridSize = grid.getGridSize();
+        long allowed = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < CHECK_ROUNDS; round++) {
+            for (int row = 1; row <= gridSize; row++) {
+                for (int column = 1; column <= gridSize; column++) {
+                    for (int number = 1; number <= gridSize; number++) {
+                        if (grid.isNumberAllowed(number, row, column)) {
+                            allowed++;
+                        }
+                    }
+                }
+            }
+        }
+        long checks = (long) CHECK_ROUNDS * grid.getCellsSize() * gridSize;
+        double time = (double) (System.nanoTime() - start) / checks;
+        // Using the result, so that the checks are not optimized away.
+        return allowed < 0 ? -1 : time;
+    }
+
+    /**
+     * Counts the clues in a grid.
+     * @param grid is the grid.
+     * @return the number of clues.
+     */
+    private static int countClues(Grid grid) {
+        int clues = 0;
+        for (byte cell: grid.getCells()) {
+            if (cell != Grid.EMPTY_CELL) {
+                clues++;
+            }
+        }
+        return clues;
+    }
+
+    /**
+     * Number of games generated for 3 x 3 blocks, fewer for larger blocks.
+     */
+    public static final int GAMES = 30;
+
+    /**
+     * Rounds of checks over the whole grid.
+     */
+    public static final int CHECK_ROUNDS = 200;
+
+    /**
+     * Seed for the random numbers, so that runs are comparable.
+     */
+    public static final long SEED = 42;
+
+    /**
+     * Nanoseconds in a millisecond.
+     */
+    public static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Prefix for the names of the generated games.
+     */
+    public static final String GAME = "SCALING-";
+}
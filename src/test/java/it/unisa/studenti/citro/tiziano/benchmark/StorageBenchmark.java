@@ -0,0 +1,112 @@
+package it.unisa.studenti.citro.tiziano.benchmark;
+
+import it.unisa.studenti.citro.tiziano.sudoku.codec.GridCodec;
+import it.unisa.studenti.citro.tiziano.sudoku.dht.LogStorage;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import net.tomp2p.dht.StorageMemory;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number640;
+import net.tomp2p.storage.Data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.utils.SudokuUtils.*;
+
+/**
+ * Measures the latency of puts and gets on the storage logged on disk against the storage kept in memory only,
+ * and how long the logged storage takes to recover its games when it is built again on the same log.
+ * Each game is stored as the DHT stores a new game, with its grid, its solution and its players.
+ * It is run on its own, passing the number of games as an optional argument.
+ */
+public class StorageBenchmark {
+
+    /**
+     * Runs the benchmark.
+     * @param args is the number of games, optional.
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        Data grid = new Data(GridCodec.encode(new Sudoku(GAME, SEED).getGrid().getCellsNumbersAsMatrix()));
+        List<Number640> keys = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            Number160 locationKey = gameKey(GAME + i);
+            keys.add(new Number640(locationKey, GAME_DOMAIN, GRID, Number160.ZERO));
+            keys.add(new Number640(locationKey, GAME_DOMAIN, SOLUTION, Number160.ZERO));
+            keys.add(new Number640(locationKey, GAME_DOMAIN, PLAYERS, Number160.ZERO));
+        }
+        Path directory = Files.createTempDirectory(LOG_DIRECTORY);
+        Path log = directory.resolve(LOG_FILE);
+        System.out.printf("Storing %d games, %d keys%n", games, keys.size());
+        System.out.printf("%8s %12s %12s%n", "storage", "put ns/op", "get ns/op");
+        measure("memory", new StorageMemory(), keys, grid);
+        LogStorage storage = new LogStorage(log);
+        measure("log", storage, keys, grid);
+        storage.close();
+
+        LogStorage recovered = new LogStorage(log);
+        System.out.printf("Recovered %d keys from %d bytes in %d ms%n",
+                recovered.getRecovered(), Files.size(log), recovered.getRecoveryMillis());
+        recovered.close();
+        Files.deleteIfExists(log);
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Measures the latency of puts and then of gets on a storage, after warming it up on the same keys.
+     * @param name is the name of the storage.
+     * @param storage is the storage.
+     * @param keys are the keys to put and get.
+     * @param data is the data to put under each key.
+     */
+    private static void measure(String name, StorageMemory storage, List<Number640> keys, Data data) {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            for (Number640 key: keys) {
+                storage.put(key, data);
+                storage.get(key);
+            }
+        }
+        long start = System.nanoTime();
+        for (Number640 key: keys) {
+            storage.put(key, data);
+        }
+        double put = (double) (System.nanoTime() - start) / keys.size();
+        start = System.nanoTime();
+        int found = 0;
+        for (Number640 key: keys) {
+            if (storage.get(key) != null) {
+                found++;
+            }
+        }
+        double get = (double) (System.nanoTime() - start) / keys.size();
+        if (found != keys.size()) {
+            throw new IllegalStateException("Some keys have not been found");
+        }
+        System.out.printf("%8s %12.1f %12.1f%n", name, put, get);
+    }
+
+    /**
+     * Default number of games stored.
+     */
+    public static final int DEFAULT_GAMES = 100_000;
+
+    /**
+     * Rounds of puts and gets run before measuring, so that the code is compiled.
+     */
+    public static final int WARM_UP_ROUNDS = 1;
+
+    /**
+     * Prefix for the names of the stored games, and seed of the stored grid.
+     */
+    public static final String GAME = "BENCHMARK-";
+    public static final long SEED = 42;
+
+    /**
+     * Prefix of the temporary directory and name of the log.
+     */
+    public static final String LOG_DIRECTORY = "storage-benchmark";
+    public static final String LOG_FILE = "benchmark.log";
+}
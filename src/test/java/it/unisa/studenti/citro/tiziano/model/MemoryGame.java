@@ -0,0 +1,79 @@
+package it.unisa.studenti.citro.tiziano.model;
+
+import it.unisa.studenti.citro.tiziano.sudoku.model.GameRecord;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Move;
+import it.unisa.studenti.citro.tiziano.sudoku.model.Sudoku;
+import it.unisa.studenti.citro.tiziano.sudoku.store.GameStore;
+import it.unisa.studenti.citro.tiziano.sudoku.store.MemoryGameStore;
+import lombok.Getter;
+
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.EMPTY_CELL;
+
+/**
+ * Models a game stored in memory for tests related to the stores.
+ */
+@Getter
+public class MemoryGame {
+
+    /**
+     * Stores a new game in memory.
+     * @param name is the name of the game.
+     */
+    public MemoryGame(String name) {
+        this.name = name;
+        store = new MemoryGameStore();
+        store.create(name, new GameRecord(new Sudoku(name, SEED))).join();
+        solution = store.getGame(name).join().getSolution();
+    }
+
+    /**
+     * Provides a correct move on the first empty cell of a grid.
+     * @param grid is the grid.
+     * @param sequence is the sequence number of the move.
+     * @return the move, or null if the grid is full.
+     */
+    public Move nextMove(Integer[][] grid, long sequence) {
+        for (int i = 0; i < solution.length; i++) {
+            int row = i / grid.length;
+            int column = i % grid.length;
+            if (grid[row][column] == EMPTY_CELL) {
+                return new Move(sequence, row + 1, column + 1, solution[i], PLAYER);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Appends a correct move on the first empty cell of the grid, as another peer would.
+     * @return the move, with the sequence number it has taken.
+     */
+    public Move appendNextMove() {
+        Move[] made = new Move[1];
+        store.appendMove(name, (current, sequence) -> {
+            made[0] = nextMove(current, sequence);
+            return made[0];
+        }).join();
+        return made[0];
+    }
+
+    /**
+     * Name of the game.
+     */
+    private final String name;
+
+    /**
+     * Store the game is kept in.
+     */
+    private final GameStore store;
+
+    /**
+     * Solution of the game, row by row.
+     */
+    private final byte[] solution;
+
+    /**
+     * Seed the game is generated from and player making the moves.
+     */
+    public static final long SEED = 42;
+    public static final String PLAYER = "PLAYER";
+}
@@ -6,7 +6,8 @@ import lombok.Getter;
 import java.util.ArrayList;
 import java.util.List;
 
-import static it.unisa.studenti.citro.tiziano.sudoku.model.Cell.EMPTY_CELL;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.BLOCK_NUMBER;
+import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.EMPTY_CELL;
 import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.FIRST;
 import static it.unisa.studenti.citro.tiziano.sudoku.model.Grid.TOTAL_BLOCK_NUMBER;
 
@@ -96,6 +97,8 @@ public class PlaceNumber {
 
     /**
      * Retrieves a number that can be placed correctly.
+     * The number is the only one missing from the row, the column and the box of the cell,
+     * thus it is the one in the solution.
      * @param sudoku is the sudoku where the number has to be placed.
      * @param i is the row for the number.
      * @param j is the column for the number.
@@ -103,20 +106,30 @@ public class PlaceNumber {
      * @return the number to place.
      */
     private static PlaceNumber getCorrectNumber(Integer[][] sudoku, int i, int j, int cellNumber) {
-        List<Integer> rowValues = new ArrayList<>();
-        List<Integer> columnValues = new ArrayList<>();
+        List<Integer> usedValues = new ArrayList<>();
         if (cellNumber == EMPTY_CELL) {
             for (int col = 0; col < TOTAL_BLOCK_NUMBER; col++) {
-                rowValues.add(sudoku[i][col]);
+                usedValues.add(sudoku[i][col]);
             }
             for (int row = 0; row < TOTAL_BLOCK_NUMBER; row++) {
-                columnValues.add(sudoku[row][j]);
+                usedValues.add(sudoku[row][j]);
             }
+            int boxRow = i - i % BLOCK_NUMBER;
+            int boxColumn = j - j % BLOCK_NUMBER;
+            for (int row = boxRow; row < boxRow + BLOCK_NUMBER; row++) {
+                for (int col = boxColumn; col < boxColumn + BLOCK_NUMBER; col++) {
+                    usedValues.add(sudoku[row][col]);
+                }
+            }
+            List<Integer> candidates = new ArrayList<>();
             for (int number = FIRST; number <= TOTAL_BLOCK_NUMBER; number++) {
-                if (!rowValues.contains(number) && !columnValues.contains(number)) {
-                    return new PlaceNumber(i + 1, j + 1, number);
+                if (!usedValues.contains(number)) {
+                    candidates.add(number);
                 }
             }
+            if (candidates.size() == 1) {
+                return new PlaceNumber(i + 1, j + 1, candidates.get(0));
+            }
         }
         return null;
     }